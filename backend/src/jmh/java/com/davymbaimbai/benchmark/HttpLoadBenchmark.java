@@ -0,0 +1,87 @@
+package com.davymbaimbai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP against the embedded server, for comparing the execution modes:
+ * {@code -p threads=platform,virtual}. Every client thread blocks on its request, so with
+ * more clients than Tomcat threads the platform mode queues requests in the connector while
+ * the virtual mode queues them on the database bulkhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HttpLoadBenchmark {
+
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp(TaskManagerState state) throws IOException, InterruptedException {
+        // the shared in-process login of TaskManagerState would leak into every request thread
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+        baseUrl = "http://localhost:" + state.context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"admin@example.com\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        token = new ObjectMapper().readTree(login.body()).get("data").asText();
+    }
+
+    @Benchmark
+    public int queryTasks() throws IOException, InterruptedException {
+        return get("/api/tasks/query?limit=20&q=" + URLEncoder.encode("status:TODO sort:-updatedAt", StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public int taskSummary() throws IOException, InterruptedException {
+        return get("/api/tasks/summary");
+    }
+
+    @Benchmark
+    public int tasksPage() throws IOException, InterruptedException {
+        return get("/api/tasks/all/page?limit=50");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,53 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.security.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"true", "false"})
+    public boolean verifiedTokenCache;
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", "wpembytrwcvnryxksdbqwjebruyGHyudqgwveytrtrCSnwifoesarjbwe");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheEnabled", verifiedTokenCache);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaxSize", 10_000);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        token = jwtUtils.generateToken("admin");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken("admin");
+    }
+
+    @Benchmark
+    public Object verifyToken() {
+        return jwtUtils.verifyToken(token);
+    }
+}
@@ -0,0 +1,69 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private Response<List<TaskView>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskView> tasks = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            tasks.add(new TaskView((long) i,
+                    "Benchmark task " + i,
+                    "Serialized by ResponseSerializationBenchmark",
+                    TaskStatus.values()[i % TaskStatus.values().length],
+                    Priority.values()[i % Priority.values().length],
+                    now.minusMinutes(i),
+                    now,
+                    1L, "admin",
+                    1L, "admin",
+                    i % 2 == 0 ? null : 2L, i % 2 == 0 ? null : "user"));
+        }
+        response = Response.<List<TaskView>>builder()
+                .statusCode(200)
+                .message("Tasks retrieved successfully")
+                .data(tasks)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
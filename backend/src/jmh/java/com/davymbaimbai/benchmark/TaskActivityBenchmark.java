@@ -0,0 +1,49 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.service.TaskActivityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of logging an activity. Run with -jvmArgsAppend -Dactivity.pipeline.mode=SYNC
+ * to compare against the inline write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskActivityBenchmark {
+
+    private TaskActivityService taskActivityService;
+    private Long taskId;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(TaskManagerState state) {
+        taskActivityService = state.bean(TaskActivityService.class);
+        taskId = state.bean(JdbcTemplate.class)
+                .queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+        userId = state.admin.getId();
+    }
+
+    @Benchmark
+    public Object logActivity() {
+        return taskActivityService.logActivity(taskId, userId, ActivityType.UPDATED,
+                "Task details updated", null, null);
+    }
+}
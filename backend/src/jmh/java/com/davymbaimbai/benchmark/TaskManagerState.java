@@ -0,0 +1,118 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.TaskManagerApplication;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.security.AuthUser;
+import com.davymbaimbai.service.impl.TaskCounterStore;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the whole application against a private in-memory H2 database seeded with
+ * {@code taskCount} tasks and authenticates the benchmark threads as the admin user.
+ */
+@State(Scope.Benchmark)
+public class TaskManagerState {
+
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    /**
+     * Execution mode, platform or virtual threads; see {@code spring.threads.virtual.enabled}.
+     */
+    @Param({"platform"})
+    public String threads;
+
+    public ConfigurableApplicationContext context;
+    public User admin;
+    public List<Long> userIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        seedTasks(jdbcTemplate);
+        context.getBean(TaskCounterStore.class).reconcile();
+
+        admin = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+        AuthUser principal = AuthUser.builder().user(admin).build();
+        // benchmark threads are not the setup thread, so share one context across all of them
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seedTasks(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class);
+        int remaining = taskCount - (existing == null ? 0 : existing);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < remaining; i++) {
+            Long owner = userIds.get(random.nextInt(userIds.size()));
+            Long assignee = random.nextInt(4) == 0 ? null : userIds.get(random.nextInt(userIds.size()));
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(i));
+            batch.add(new Object[]{
+                    "Benchmark task " + i,
+                    "Seeded for benchmarks",
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    createdAt, createdAt, assignee, owner, owner});
+            if (batch.size() == SEED_BATCH_SIZE) {
+                insert(jdbcTemplate, batch);
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, status, priority, created_at, updated_at, " +
+                "assignee_id, creator_id, user_id) VALUES (NEXT VALUE FOR task_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
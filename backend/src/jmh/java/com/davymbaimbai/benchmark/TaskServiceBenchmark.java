@@ -0,0 +1,66 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.dto.TaskRequest;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskServiceBenchmark {
+
+    private TaskService taskService;
+    private Long taskId;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setUp(TaskManagerState state) {
+        taskService = state.bean(TaskService.class);
+        taskId = taskService.createTask(request("Benchmark update target", Priority.LOW)).getData().getId();
+    }
+
+    @Benchmark
+    public Object createTask() {
+        return taskService.createTask(request("Benchmark create", Priority.MEDIUM));
+    }
+
+    @Benchmark
+    public Object updateTask() {
+        flip = !flip;
+        TaskRequest request = request(flip ? "Renamed" : "Benchmark update target", flip ? Priority.HIGH : Priority.LOW);
+        request.setId(taskId);
+        request.setStatus(null);
+        return taskService.updateTask(request);
+    }
+
+    @Benchmark
+    public Object getTasksWithFilters() {
+        return taskService.getTasksWithFilters("TODO", null);
+    }
+
+    private TaskRequest request(String title, Priority priority) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setDescription("Created by TaskServiceBenchmark");
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(priority);
+        return request;
+    }
+}
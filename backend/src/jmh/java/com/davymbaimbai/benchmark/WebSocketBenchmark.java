@@ -0,0 +1,116 @@
+package com.davymbaimbai.benchmark;
+
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.config.OutboxProperties;
+import com.davymbaimbai.config.WebSocketBusProperties;
+import com.davymbaimbai.service.impl.EventOutbox;
+import com.davymbaimbai.service.impl.TaskEventBus;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import com.davymbaimbai.service.impl.WebSocketServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of a broadcast in {@link WebSocketServiceImpl}, with a channel that swallows
+ * messages so broker and network costs are excluded. With the event bus the caller only builds
+ * and merges the DTO; without it the caller also pays for message conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketBenchmark {
+
+    @Param({"true", "false"})
+    public boolean eventBus;
+
+    private WebSocketServiceImpl webSocketService;
+    private TaskEventBus taskEventBus;
+    private Task task;
+    // the last message the channel took, sent by the caller without the bus and by its flusher with it
+    private volatile Message<?> lastMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            lastMessage = message;
+            return true;
+        });
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        template.setMessageConverter(converter);
+        WebSocketBusProperties properties = new WebSocketBusProperties();
+        properties.setEnabled(eventBus);
+        taskEventBus = new TaskEventBus(properties, template);
+        taskEventBus.start();
+        // without an outbox the events go straight to the bus, as there is no transaction
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setEnabled(false);
+        EventOutbox eventOutbox = new EventOutbox(outboxProperties, null, null, taskEventBus);
+        TaskRecipientIndex recipientIndex = new TaskRecipientIndex(null, 300, 1) {
+            @Override
+            public Set<Long> recipients(Task task) {
+                return Set.of(1L);
+            }
+        };
+        webSocketService = new WebSocketServiceImpl();
+        ReflectionTestUtils.setField(webSocketService, "eventOutbox", eventOutbox);
+        ReflectionTestUtils.setField(webSocketService, "taskRecipientIndex", recipientIndex);
+        task = Task.builder()
+                .id(1L)
+                .title("Benchmark task")
+                .status(TaskStatus.TODO)
+                .priority(Priority.HIGH)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        taskEventBus.stop();
+    }
+
+    @Benchmark
+    public void broadcastTaskUpdate(Blackhole blackhole) {
+        webSocketService.broadcastTaskUpdate(task, "TASK_UPDATED", "admin");
+        blackhole.consume(lastMessage);
+    }
+
+    @Benchmark
+    public void broadcastTaskStatusChange(Blackhole blackhole) {
+        webSocketService.broadcastTaskStatusChange(task, "TODO", "IN_PROGRESS", "admin");
+        blackhole.consume(lastMessage);
+    }
+
+    @Benchmark
+    public void broadcastTaskComment(Blackhole blackhole) {
+        webSocketService.broadcastTaskComment(task, "Looks good", "admin");
+        blackhole.consume(lastMessage);
+    }
+}
@@ -0,0 +1,32 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "activity.feed")
+public class ActivityFeedProperties {
+
+    /**
+     * How often newly committed activities are given their feed sequence. An activity shows
+     * up in the feed at most this long after it was written.
+     */
+    private long sequenceIntervalMs = 100;
+
+    /**
+     * Activities sequenced per transaction.
+     */
+    private int sequenceBatchSize = 1_000;
+
+    /**
+     * Page size when the request gives no limit.
+     */
+    private int defaultLimit = 100;
+
+    /**
+     * Largest page a request may ask for.
+     */
+    private int maxLimit = 1_000;
+}
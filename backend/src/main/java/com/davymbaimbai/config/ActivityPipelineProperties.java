@@ -0,0 +1,30 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.enums.ActivityWriteMode;
+import com.davymbaimbai.enums.BackpressurePolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "activity.pipeline")
+public class ActivityPipelineProperties {
+
+    /**
+     * SYNC writes every activity on the request thread, ASYNC hands it to the batch writer.
+     */
+    private ActivityWriteMode mode = ActivityWriteMode.ASYNC;
+    private int queueCapacity = 10_000;
+    private int flushSize = 200;
+    private long flushIntervalMs = 50;
+
+    /**
+     * What to do when the queue is full: wait up to offerTimeoutMs before writing on the
+     * caller thread, write on the caller thread straight away, or drop the event. An event
+     * queued after its transaction commits always waits up to offerTimeoutMs and is then
+     * dropped, since writing it on the caller would need a second connection.
+     */
+    private BackpressurePolicy backpressure = BackpressurePolicy.CALLER_RUNS;
+    private long offerTimeoutMs = 100;
+}
@@ -0,0 +1,27 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "db.bulkhead")
+public class DbBulkheadProperties {
+
+    /**
+     * When false connections are handed out by the pool alone.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Connections that may be checked out at once; 0 uses the maximum size of the pool and
+     * installs the bulkhead only with virtual threads.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * How long a caller waits for a permit before the connection request fails.
+     */
+    private long acquireTimeoutMs = 30_000;
+}
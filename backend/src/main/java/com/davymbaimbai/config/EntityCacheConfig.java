@@ -0,0 +1,143 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.service.impl.EntityChangeLog;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Second-level cache for {@code Task} and {@code User} plus a query cache for task lookups,
+ * held in bounded Caffeine caches behind JCache. Entities use READ_WRITE concurrency, so a
+ * write locks its entry and the new state is put back only after the transaction commits;
+ * writes from other instances arrive through the {@link EntityChangeLog}. Requests, hits,
+ * misses and the hit ratio of every region are published as {@code entity.cache.*} meters.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String TASK_REGION = "tasks";
+    public static final String USER_REGION = "users";
+    public static final String TASK_QUERY_REGION = "task-queries";
+
+    private static final List<String> ENTITY_REGIONS = List.of(TASK_REGION, USER_REGION);
+    private static final List<String> QUERY_REGIONS =
+            List.of(TASK_QUERY_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    CacheManager entityCacheManager(EntityCacheProperties properties) {
+        // a manager of its own: the provider's default one is shared by every context in the JVM
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache-" + UUID.randomUUID()), EntityCacheConfig.class.getClassLoader());
+        long ttl = TimeUnit.SECONDS.toNanos(properties.getTtlSeconds());
+        long queryTtl = TimeUnit.SECONDS.toNanos(properties.getQueryTtlSeconds());
+        cacheManager.createCache(TASK_REGION, configuration(properties.getTaskMaxSize(), ttl));
+        cacheManager.createCache(USER_REGION, configuration(properties.getUserMaxSize(), ttl));
+        cacheManager.createCache(TASK_QUERY_REGION, configuration(properties.getQueryMaxSize(), queryTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                configuration(properties.getQueryMaxSize(), queryTtl));
+        // one entry per table, and an expired entry would let stale query results pass as current
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer entityCacheHibernateProperties(EntityCacheProperties properties,
+                                                                 CacheManager entityCacheManager,
+                                                                 EntityChangeLog entityChangeLog) {
+        return hibernateProperties -> {
+            if (!properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            // every region is created above; a new cached entity needs its own bounds
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(entityChangeLog.integrator()));
+        };
+    }
+
+    @Bean
+    MeterBinder entityCacheMetrics(EntityCacheProperties properties, EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            if (!properties.isEnabled()) {
+                return;
+            }
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : ENTITY_REGIONS) {
+                bind(registry, statistics, region, "entity", stats -> stats.getDomainDataRegionStatistics(region));
+            }
+            for (String region : QUERY_REGIONS) {
+                bind(registry, statistics, region, "query", stats -> stats.getQueryRegionStatistics(region));
+            }
+        };
+    }
+
+    private static void bind(MeterRegistry registry, Statistics statistics, String region, String kind,
+                             Function<Statistics, CacheRegionStatistics> lookup) {
+        FunctionCounter.builder("entity.cache.requests", statistics,
+                        stats -> count(lookup.apply(stats), CacheRegionStatistics::getHitCount))
+                .tags("region", region, "kind", kind, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("entity.cache.requests", statistics,
+                        stats -> count(lookup.apply(stats), CacheRegionStatistics::getMissCount))
+                .tags("region", region, "kind", kind, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("entity.cache.puts", statistics,
+                        stats -> count(lookup.apply(stats), CacheRegionStatistics::getPutCount))
+                .tags("region", region, "kind", kind)
+                .register(registry);
+        Gauge.builder("entity.cache.hit.ratio", statistics, stats -> {
+                    CacheRegionStatistics regionStats = lookup.apply(stats);
+                    long requests = regionStats == null ? 0 : regionStats.getHitCount() + regionStats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) regionStats.getHitCount() / requests;
+                })
+                .tags("region", region, "kind", kind)
+                .register(registry);
+    }
+
+    private static double count(CacheRegionStatistics stats, ToLongFunction<CacheRegionStatistics> counter) {
+        return stats == null ? 0 : counter.applyAsLong(stats);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maximumSize, long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        // Hibernate stores immutable disassembled state, copying it on every access buys nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
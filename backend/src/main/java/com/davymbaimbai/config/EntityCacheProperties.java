@@ -0,0 +1,68 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * When false Hibernate runs without a second-level or query cache and no changes are logged.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tasks kept in the entity cache; the least recently used are evicted first.
+     */
+    private long taskMaxSize = 20_000;
+
+    /**
+     * Users kept in the entity cache.
+     */
+    private long userMaxSize = 5_000;
+
+    /**
+     * Cached results of task list and lookup queries.
+     */
+    private long queryMaxSize = 2_000;
+
+    /**
+     * How long a cached task or user is kept after it was loaded or written. Also bounds how
+     * stale an entry can get if the change log cannot be read.
+     */
+    private long ttlSeconds = 600;
+
+    /**
+     * How long a cached query result is kept.
+     */
+    private long queryTtlSeconds = 60;
+
+    /**
+     * How often the change log is read for writes made by other instances.
+     */
+    private long syncIntervalMs = 1_000;
+
+    /**
+     * Rows read from the change log per poll.
+     */
+    private int syncBatchSize = 1_000;
+
+    /**
+     * How long a missing sequence number is looked for again, in case its transaction
+     * committed after a later one. Should exceed the longest write transaction.
+     */
+    private long syncGapTimeoutMs = 60_000;
+
+    /**
+     * Change log rows older than this are deleted.
+     */
+    private long retentionMinutes = 60;
+
+    /**
+     * How often old change log rows are deleted.
+     */
+    private long pruneIntervalMs = 600_000;
+}
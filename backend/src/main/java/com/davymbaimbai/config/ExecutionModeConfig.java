@@ -0,0 +1,82 @@
+package com.davymbaimbai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Execution mode switch. {@code spring.threads.virtual.enabled=true} moves Tomcat, scheduled
+ * work and the STOMP channels (see {@link WebSocketConfig}) onto virtual threads on Java 21 and
+ * later; on older runtimes Spring Boot ignores it and everything stays on platform threads.
+ * With virtual threads the data source is wrapped in a {@link BulkheadDataSource} sized to the
+ * pool. On platform threads the request threads already bound the callers and a bulkhead of
+ * the pool's size would only repeat its limit, so it is installed there only when
+ * {@code db.bulkhead.max-concurrent} gives it a size of its own.
+ */
+@Configuration
+@Slf4j
+public class ExecutionModeConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor dataSourceBulkhead(ObjectProvider<DbBulkheadProperties> properties,
+                                                Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)
+                        || DataSourceUnwrapper.unwrap(dataSource, BulkheadDataSource.class) != null) {
+                    return bean;
+                }
+                DbBulkheadProperties bulkhead = properties.getObject();
+                if (!bulkhead.isEnabled()) {
+                    return bean;
+                }
+                if (bulkhead.getMaxConcurrent() <= 0 && !Threading.VIRTUAL.isActive(environment)) {
+                    log.info("Database bulkhead not installed: platform threads and no db.bulkhead.max-concurrent");
+                    return bean;
+                }
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                int maxConcurrent = bulkhead.getMaxConcurrent() > 0 ? bulkhead.getMaxConcurrent()
+                        : hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                return new BulkheadDataSource(dataSource, maxConcurrent, bulkhead.getAcquireTimeoutMs());
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead = DataSourceUnwrapper.unwrap(dataSource, BulkheadDataSource.class);
+            if (bulkhead != null) {
+                bulkhead.bindTo(registry);
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Execution mode: virtual threads");
+        } else if (requested) {
+            log.warn("Virtual threads need Java 21 or later, running on platform threads (Java {})",
+                    Runtime.version().feature());
+        } else {
+            log.info("Execution mode: platform threads");
+        }
+    }
+}
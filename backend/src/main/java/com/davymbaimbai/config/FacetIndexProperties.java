@@ -0,0 +1,26 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tasks.facet-index")
+public class FacetIndexProperties {
+
+    /**
+     * When false facet queries are answered from the database on every request.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the index is rebuilt from the tasks table to pick up writes that bypassed the services.
+     */
+    private long rebuildIntervalMs = 900_000;
+
+    /**
+     * Upper bound for the page size of a facet query.
+     */
+    private int maxPageSize = 500;
+}
@@ -0,0 +1,31 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "jfr.recording")
+public class FlightRecordingProperties {
+
+    /**
+     * Where finished recordings are written for download.
+     */
+    private String directory = "data/recordings";
+
+    /**
+     * Longest recording that can be requested; every recording stops on its own after its duration.
+     */
+    private int maxDurationSeconds = 900;
+
+    /**
+     * Size at which the recording starts dropping its oldest chunks.
+     */
+    private long maxSizeMb = 256;
+
+    /**
+     * Recordings kept on disk; starting a new one deletes the oldest beyond this.
+     */
+    private int maxFiles = 5;
+}
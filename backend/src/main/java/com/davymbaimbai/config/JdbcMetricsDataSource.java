@@ -0,0 +1,140 @@
+package com.davymbaimbai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement executed through the pool. Each execution is recorded on the
+ * {@code jdbc.statements} timer, tagged by kind, and added as a span with its SQL to the
+ * {@link RequestTrace} of the request running on the calling thread, if any.
+ */
+public class JdbcMetricsDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private volatile Timer queries;
+    private volatile Timer updates;
+    private volatile Timer batches;
+    private volatile Timer executes;
+
+    public JdbcMetricsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "unwrap" -> {
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+                    Object result = invoke(connection, method, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    if (result instanceof CallableStatement statement) {
+                        return wrap(statement, CallableStatement.class, sql);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return wrap(statement, PreparedStatement.class, sql);
+                    }
+                    if (result instanceof Statement statement) {
+                        return wrap(statement, Statement.class, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrap(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    Timer timer = timerFor(method.getName());
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - start;
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                        RequestTrace.record(RequestTrace.DB, sql, start, elapsed);
+                        if (timer != null) {
+                            timer.record(elapsed, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                });
+    }
+
+    private Timer timerFor(String methodName) {
+        return switch (methodName) {
+            case "executeQuery" -> queries;
+            case "executeUpdate", "executeLargeUpdate" -> updates;
+            case "executeBatch", "executeLargeBatch" -> batches;
+            case "execute" -> executes;
+            default -> null;
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queries = timer(registry, "query");
+        updates = timer(registry, "update");
+        batches = timer(registry, "batch");
+        executes = timer(registry, "execute");
+    }
+
+    private static Timer timer(MeterRegistry registry, String kind) {
+        return Timer.builder("jdbc.statements")
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,140 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.service.TaskActivityService;
+import com.davymbaimbai.service.TaskCommentService;
+import com.davymbaimbai.service.TaskService;
+import com.davymbaimbai.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path instrumentation. Every method of the service interfaces below is timed on
+ * {@code service.calls} and added to the {@link RequestTrace} of the calling request, and
+ * statements are timed by {@link JdbcMetricsDataSource}; request, JWT and WebSocket meters
+ * live next to the code they measure. All of it is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<Class<?>> TIMED_SERVICES = List.of(
+            TaskService.class, TaskCommentService.class, TaskActivityService.class, UserService.class);
+
+    @Bean
+    static BeanPostProcessor serviceTimers(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceTimerPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    static BeanPostProcessor jdbcStatementTimers() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && DataSourceUnwrapper.unwrap(dataSource, JdbcMetricsDataSource.class) == null) {
+                    return new JdbcMetricsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder jdbcStatementMetrics(DataSource dataSource) {
+        return registry -> {
+            JdbcMetricsDataSource metrics = DataSourceUnwrapper.unwrap(dataSource, JdbcMetricsDataSource.class);
+            if (metrics != null) {
+                metrics.bindTo(registry);
+            }
+        };
+    }
+
+    private static Class<?> serviceOf(Method method) {
+        for (Class<?> service : TIMED_SERVICES) {
+            if (service.isAssignableFrom(method.getDeclaringClass()) && ClassUtils.hasMethod(service, method)) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    private static final class ServiceTimerPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        private ServiceTimerPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    return serviceOf(method) != null;
+                }
+            };
+            pointcut.setClassFilter(type -> TIMED_SERVICES.stream().anyMatch(service -> service.isAssignableFrom(type)));
+            this.advisor = new DefaultPointcutAdvisor(pointcut, new ServiceTimer(meterRegistry));
+            setBeforeExistingAdvisors(true);
+            setProxyTargetClass(true);
+        }
+    }
+
+    private static final class ServiceTimer implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+        private ServiceTimer(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RequestTrace trace = RequestTrace.current();
+            boolean outermost = trace != null && trace.enterService();
+            long start = System.nanoTime();
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                Method method = invocation.getMethod();
+                Timer timer = "none".equals(exception)
+                        ? successTimers.computeIfAbsent(method, key -> timer(key, "none"))
+                        : timer(method, exception);
+                timer.record(elapsed, TimeUnit.NANOSECONDS);
+                if (trace != null) {
+                    trace.exitService();
+                    if (outermost) {
+                        trace.add(RequestTrace.SERVICE, serviceOf(method).getSimpleName() + "." + method.getName(),
+                                start, elapsed);
+                    }
+                }
+            }
+        }
+
+        private Timer timer(Method method, String exception) {
+            return Timer.builder("service.calls")
+                    .tag("service", serviceOf(method).getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry.getObject());
+        }
+    }
+}
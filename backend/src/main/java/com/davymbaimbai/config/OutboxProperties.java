@@ -0,0 +1,72 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.outbox")
+public class OutboxProperties {
+
+    /**
+     * When false events skip the outbox table and go to the event bus once the transaction
+     * that raised them commits.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Names this instance's delivery offset. Left empty, every start gets a fresh name and
+     * begins at the newest event; a stable name resumes where the last run stopped.
+     */
+    private String consumerName = "";
+
+    /**
+     * How often the outbox is read without a local commit to wake the dispatcher, which is
+     * how events written by other instances arrive.
+     */
+    private long pollIntervalMs = 500;
+
+    /**
+     * Events read and published per round trip.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long an outbox id that is skipped over is waited for before it is taken to be
+     * rolled back.
+     */
+    private long gapTimeoutMs = 60_000;
+
+    /**
+     * Age after which outbox rows, and offsets no instance has moved, are pruned.
+     */
+    private long retentionMinutes = 60;
+
+    /**
+     * How often old rows are pruned.
+     */
+    private long pruneIntervalMs = 600_000;
+
+    /**
+     * Most recent frames kept per destination for clients that resubscribe with {@code since}.
+     */
+    private int replayBufferSize = 128;
+
+    /**
+     * Destinations with a replay buffer; the least recently written one is dropped beyond it.
+     */
+    private int replayDestinations = 10_000;
+
+    /**
+     * Newest outbox events loaded into the replay buffers on start, so clients reconnecting
+     * after a restart can still resume.
+     */
+    private int replayWarmUpEvents = 10_000;
+
+    /**
+     * Most outbox events read to build a snapshot for a client the replay buffer no longer
+     * covers; further behind than that, it is told to reload.
+     */
+    private int snapshotMaxEvents = 5_000;
+}
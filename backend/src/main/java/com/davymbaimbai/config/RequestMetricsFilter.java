@@ -0,0 +1,71 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.service.TraceService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the {@link RequestTrace} of each request and, once it is done, records how many
+ * statements it ran and how long it spent in JDBC, tagged like {@code http.server.requests},
+ * so a slow endpoint can be told apart from a chatty one. The breakdown goes out in the
+ * {@code Server-Timing} header and sampled traces are handed to the {@link TraceService}.
+ * Runs ahead of the security chain to include the user lookup done during authentication.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final TraceProperties traceProperties;
+    private final TraceService traceService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin(traceProperties.getMaxSpans());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.end();
+            // responses with a JSON body got the header from the converter, before it was committed
+            if (traceProperties.isEnabled() && !response.isCommitted()
+                    && !response.containsHeader(RequestTrace.SERVER_TIMING_HEADER)) {
+                response.setHeader(RequestTrace.SERVER_TIMING_HEADER, trace.toServerTiming());
+            }
+            record(request, response, trace);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestTrace trace) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.jdbc.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(trace.getCount(RequestTrace.DB));
+        Timer.builder("http.server.requests.jdbc.time")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(trace.getTotalNanos(RequestTrace.DB), TimeUnit.NANOSECONDS);
+        if (traceProperties.isEnabled()) {
+            traceService.recordTrace(trace, request.getMethod(), uri, response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.davymbaimbai.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Spans recorded by the request running on the current thread. {@link RequestMetricsFilter}
+ * opens one per request; the auth filter, service calls, JDBC statements, JSON serialization
+ * and WebSocket dispatch add to it. Per category totals feed the {@code Server-Timing} header,
+ * the individual spans are kept for the sampled traces. Work handed to other threads is not
+ * recorded.
+ */
+public final class RequestTrace {
+
+    public static final String AUTH = "auth";
+    public static final String DB = "db";
+    public static final String SERVICE = "service";
+    public static final String SERIALIZATION = "serialization";
+    public static final String WEBSOCKET = "websocket";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final List<String> CATEGORIES = List.of(AUTH, DB, SERVICE, SERIALIZATION, WEBSOCKET);
+    private static final int MAX_DETAIL_LENGTH = 200;
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final Map<String, long[]> totals = new LinkedHashMap<>();
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private int serviceDepth;
+    private String username;
+
+    private RequestTrace(int maxSpans) {
+        this.maxSpans = maxSpans;
+        for (String category : CATEGORIES) {
+            totals.put(category, new long[2]);
+        }
+    }
+
+    public static RequestTrace begin(int maxSpans) {
+        RequestTrace trace = new RequestTrace(maxSpans);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds a finished span to the current request, if there is one.
+     */
+    public static void record(String category, String detail, long startNanos, long elapsedNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(category, detail, startNanos, elapsedNanos);
+        }
+    }
+
+    /**
+     * Marks the start of a service call and tells whether it is the outermost one, so calls
+     * between services are not counted twice.
+     */
+    public boolean enterService() {
+        return serviceDepth++ == 0;
+    }
+
+    public void exitService() {
+        serviceDepth--;
+    }
+
+    public void add(String category, String detail, long startNanos, long elapsedNanos) {
+        long[] total = totals.computeIfAbsent(category, key -> new long[2]);
+        total[0] += elapsedNanos;
+        total[1]++;
+        if (spans.size() < maxSpans) {
+            if (detail != null && detail.length() > MAX_DETAIL_LENGTH) {
+                detail = detail.substring(0, MAX_DETAIL_LENGTH);
+            }
+            spans.add(new Span(category, detail, startNanos - this.startNanos, elapsedNanos));
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    public long getTotalNanos(String category) {
+        long[] total = totals.get(category);
+        return total != null ? total[0] : 0;
+    }
+
+    public long getCount(String category) {
+        long[] total = totals.get(category);
+        return total != null ? total[1] : 0;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    /**
+     * The breakdown so far in {@code Server-Timing} syntax, one entry per category that was
+     * hit plus the elapsed time as {@code total}. Categories overlap: service time includes the
+     * statements and broadcasts it issued.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        totals.forEach((category, total) -> {
+            if (total[1] > 0) {
+                header.append(category).append(";dur=").append(millis(total[0]));
+                if (DB.equals(category)) {
+                    header.append(";desc=\"").append(total[1]).append(" statements\"");
+                }
+                header.append(", ");
+            }
+        });
+        return header.append("total;dur=").append(millis(getElapsedNanos())).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    public record Span(String category, String detail, long offsetNanos, long durationNanos) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tasks.search")
+public class SearchIndexProperties {
+
+    /**
+     * Where the index segments are kept between restarts. Blank keeps the index in memory
+     * and rebuilds it on every start.
+     */
+    private String directory = "data/search-index";
+
+    /**
+     * How often queued task changes are written to the index and made searchable.
+     */
+    private long refreshIntervalMs = 200;
+
+    /**
+     * How often pending index changes are committed to disk.
+     */
+    private long commitIntervalMs = 10_000;
+
+    /**
+     * How often the index is compared with the tasks and comments tables to pick up writes
+     * that bypassed the services.
+     */
+    private long reconcileIntervalMs = 900_000;
+
+    /**
+     * Upper bound for the number of hits returned by one search.
+     */
+    private int maxResults = 100;
+}
@@ -0,0 +1,350 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a session that cannot keep up from slowing down the broadcasts to everyone else.
+ * Each session's frames are counted from the outbound channel until they are written to its
+ * socket. Once too many are waiting, the session is a slow consumer: its task events are held
+ * back, keeping only the latest one per task and subscription, and its other frames are dropped.
+ * When it has caught up the held events are sent, and each subscription that lost a frame gets
+ * a {@code RESYNC}. A session that stays slow too long, or holds too many events, is closed.
+ */
+@Component
+@Slf4j
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory, MeterBinder {
+
+    /**
+     * What a task event frame is coalesced under, set with its other headers by the event bus.
+     */
+    public static final String COALESCE_HEADER = "taskEventKey";
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+
+    static final CloseStatus TOO_SLOW = CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer");
+
+    private final WebSocketTransportProperties properties;
+    // provided lazily, both are built from the broker configuration this is part of
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectProvider<MessageChannel> clientOutboundChannel;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong held = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong stalledDisconnects = new AtomicLong();
+    private final AtomicLong overflowDisconnects = new AtomicLong();
+
+    private volatile DistributionSummary queueDepth;
+    private ScheduledExecutorService sweeper;
+
+    private record HeldKey(String subscriptionId, Object key) {
+    }
+
+    private final class Session extends WebSocketSessionDecorator {
+        private final AtomicInteger pending = new AtomicInteger();
+        // guarded by this, as is everything below
+        private long slowSince;
+        private boolean overflowed;
+        private final Map<HeldKey, Message<?>> heldFrames = new LinkedHashMap<>();
+        private final Map<String, String> lostSubscriptions = new LinkedHashMap<>();
+
+        private Session(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (isMessageFrame(message)) {
+                    written(this);
+                }
+            }
+        }
+    }
+
+    public SlowConsumerGuard(WebSocketTransportProperties properties,
+                             ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                             @Qualifier("clientOutboundChannel") ObjectProvider<MessageChannel> clientOutboundChannel) {
+        this.properties = properties;
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-slow-consumers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, properties.getSweepIntervalMs(),
+                properties.getSweepIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Session tracked = new Session(session);
+                sessions.put(session.getId(), tracked);
+                super.afterConnectionEstablished(tracked);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        Session session = sessionOf(message.getHeaders());
+        if (session == null) {
+            return message;
+        }
+        synchronized (session) {
+            if (session.slowSince == 0) {
+                if (session.pending.incrementAndGet() >= properties.getSlowConsumerFrames()) {
+                    session.slowSince = System.currentTimeMillis();
+                }
+                return message;
+            }
+            String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+            Object key = message.getHeaders().get(COALESCE_HEADER);
+            if (key == null || subscriptionId == null) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (subscriptionId != null && destination != null) {
+                    session.lostSubscriptions.put(subscriptionId, destination);
+                }
+                dropped.incrementAndGet();
+                return null;
+            }
+            // moved to the end, so held events go out in the order of their latest change
+            HeldKey heldKey = new HeldKey(subscriptionId, key);
+            if (session.heldFrames.remove(heldKey) != null) {
+                coalesced.incrementAndGet();
+            } else {
+                held.incrementAndGet();
+            }
+            session.heldFrames.put(heldKey, message);
+            if (session.heldFrames.size() > properties.getMaxHeldFrames()) {
+                session.overflowed = true;
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent || ex != null) {
+            Session session = sessionOf(message.getHeaders());
+            if (session != null) {
+                written(session);
+            }
+        }
+    }
+
+    private Session sessionOf(MessageHeaders headers) {
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private void written(Session session) {
+        int pending = session.pending.updateAndGet(count -> Math.max(0, count - 1));
+        if (pending > properties.getSlowConsumerFrames() / 2) {
+            return;
+        }
+        List<Message<?>> frames;
+        Map<String, String> lost;
+        synchronized (session) {
+            if (session.slowSince == 0 || session.overflowed) {
+                return;
+            }
+            session.slowSince = 0;
+            frames = new ArrayList<>(session.heldFrames.values());
+            lost = new LinkedHashMap<>(session.lostSubscriptions);
+            session.heldFrames.clear();
+            session.lostSubscriptions.clear();
+        }
+        MessageChannel channel = clientOutboundChannel.getObject();
+        lost.forEach((subscriptionId, destination) -> {
+            TaskSnapshotDto resync = TaskSnapshotDto.builder().action("RESYNC").timestamp(LocalDateTime.now()).build();
+            Message<?> message = StompResumeInterceptor.toSubscription(messagingTemplate.getObject().getMessageConverter(),
+                    session.getId(), subscriptionId, destination, resync);
+            if (message != null) {
+                resend(channel, message);
+            }
+        });
+        frames.forEach(frame -> resend(channel, frame));
+    }
+
+    private void resend(MessageChannel channel, Message<?> message) {
+        try {
+            channel.send(message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to send a held frame to session {}: {}",
+                    SimpMessageHeaderAccessor.getSessionId(message.getHeaders()), e.getMessage());
+        }
+    }
+
+    void sweep() {
+        long now = System.currentTimeMillis();
+        for (Session session : sessions.values()) {
+            DistributionSummary depth = queueDepth;
+            if (depth != null) {
+                depth.record(session.pending.get());
+            }
+            boolean overflowed;
+            boolean stalled;
+            synchronized (session) {
+                overflowed = session.overflowed;
+                stalled = session.slowSince != 0 && now - session.slowSince > properties.getSlowConsumerTimeoutMs();
+            }
+            if (overflowed || stalled) {
+                (overflowed ? overflowDisconnects : stalledDisconnects).incrementAndGet();
+                close(session);
+            }
+        }
+    }
+
+    private void close(Session session) {
+        sessions.remove(session.getId());
+        log.info("Closing WebSocket session {}, {} frames behind", session.getId(), session.pending.get());
+        try {
+            // the session underneath, as the one the broker writes to may be stuck in a write
+            session.getDelegate().close(TOO_SLOW);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close slow WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    static boolean isMessageFrame(WebSocketMessage<?> message) {
+        ByteBuffer bytes;
+        if (message instanceof TextMessage text) {
+            bytes = ByteBuffer.wrap(text.asBytes());
+        } else if (message instanceof BinaryMessage binary) {
+            bytes = binary.getPayload().duplicate();
+        } else {
+            return false;
+        }
+        if (bytes.remaining() < MESSAGE_COMMAND.length) {
+            return false;
+        }
+        for (byte expected : MESSAGE_COMMAND) {
+            if (bytes.get() != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queueDepth = DistributionSummary.builder("websocket.session.queue.depth")
+                .description("Frames waiting to be written, per session and sweep")
+                .register(registry);
+        Gauge.builder("websocket.sessions.slow", this, SlowConsumerGuard::getSlowSessionCount)
+                .register(registry);
+        FunctionCounter.builder("websocket.slow.frames", held, AtomicLong::get)
+                .tag("result", "held")
+                .register(registry);
+        FunctionCounter.builder("websocket.slow.frames", coalesced, AtomicLong::get)
+                .tag("result", "coalesced")
+                .register(registry);
+        FunctionCounter.builder("websocket.slow.frames", dropped, AtomicLong::get)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("websocket.slow.disconnects", stalledDisconnects, AtomicLong::get)
+                .tag("reason", "stalled")
+                .register(registry);
+        FunctionCounter.builder("websocket.slow.disconnects", overflowDisconnects, AtomicLong::get)
+                .tag("reason", "overflow")
+                .register(registry);
+    }
+
+    public int getSlowSessionCount() {
+        int slow = 0;
+        for (Session session : sessions.values()) {
+            synchronized (session) {
+                slow += session.slowSince != 0 ? 1 : 0;
+            }
+        }
+        return slow;
+    }
+
+    public int getPendingFrames(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.pending.get() : 0;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDisconnectCount() {
+        return stalledDisconnects.get() + overflowDisconnects.get();
+    }
+}
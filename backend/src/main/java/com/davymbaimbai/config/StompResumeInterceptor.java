@@ -0,0 +1,120 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import com.davymbaimbai.security.StompAuthInterceptor;
+import com.davymbaimbai.service.impl.EventOutbox;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resumes a subscription whose SUBSCRIBE frame has a {@code since} header with the highest
+ * sequence the client has seen. Once the broker has registered the subscription, the frames
+ * the client missed, or a snapshot, are sent to that subscription alone; live frames that
+ * arrive meanwhile may repeat some of them, so clients skip sequences they already have.
+ * The subscription's filter applies to the replayed frames too.
+ */
+@Component
+public class StompResumeInterceptor implements ExecutorChannelInterceptor {
+
+    public static final String SINCE_HEADER = "since";
+
+    // provided lazily, all three are built from the broker configuration this is part of
+    private final ObjectProvider<EventOutbox> eventOutbox;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectProvider<MessageChannel> clientOutboundChannel;
+
+    public StompResumeInterceptor(ObjectProvider<EventOutbox> eventOutbox,
+                                  ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                                  @Qualifier("clientOutboundChannel") ObjectProvider<MessageChannel> clientOutboundChannel) {
+        this.eventOutbox = eventOutbox;
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (ex != null || accessor == null || !StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            return;
+        }
+        String since = accessor.getFirstNativeHeader(SINCE_HEADER);
+        String destination = accessor.getDestination();
+        if (since == null || destination == null || !registeredBy(handler, destination)) {
+            return;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        Long userId = null;
+        String resumed = destination;
+        if (destination.startsWith("/user/")) {
+            if (!(accessor.getUser() instanceof StompAuthInterceptor.StompPrincipal principal)) {
+                return;
+            }
+            userId = principal.userId();
+            resumed = destination.substring("/user".length());
+        }
+        TaskEventFilter filter = (TaskEventFilter) accessor.getHeader(TaskEventFilter.FILTER_HEADER);
+        for (Object frame : eventOutbox.getObject().resume(resumed, userId, sequence)) {
+            if (filter != null && frame instanceof TaskActivityDto event && !filter.accepts(event)) {
+                continue;
+            }
+            if (filter != null && frame instanceof TaskSnapshotDto snapshot && snapshot.getTasks() != null) {
+                snapshot.setTasks(snapshot.getTasks().stream().filter(filter::accepts).toList());
+            }
+            send(accessor.getSessionId(), accessor.getSubscriptionId(), destination, frame);
+        }
+    }
+
+    /**
+     * The handler after which the subscription exists: the broker for its own destinations,
+     * the user destination handler for {@code /user/...}, which passes it on to the broker.
+     */
+    private static boolean registeredBy(MessageHandler handler, String destination) {
+        return destination.startsWith("/user/")
+                ? handler instanceof UserDestinationMessageHandler
+                : handler instanceof SimpleBrokerMessageHandler;
+    }
+
+    private void send(String sessionId, String subscriptionId, String destination, Object frame) {
+        Message<?> message = toSubscription(messagingTemplate.getObject().getMessageConverter(),
+                sessionId, subscriptionId, destination, frame);
+        if (message != null) {
+            clientOutboundChannel.getObject().send(message);
+        }
+    }
+
+    /**
+     * A frame for one subscription of one session, to be sent past the broker.
+     */
+    static Message<?> toSubscription(MessageConverter converter, String sessionId, String subscriptionId,
+                                     String destination, Object frame) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        if (frame instanceof TaskActivityDto event && event.getStatus() != null && event.getTaskId() != null) {
+            headers.setHeader(SlowConsumerGuard.COALESCE_HEADER, event.getTaskId());
+        }
+        headers.setLeaveMutable(true);
+        return converter.toMessage(frame, headers.getMessageHeaders());
+    }
+}
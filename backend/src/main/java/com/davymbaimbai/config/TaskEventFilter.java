@@ -0,0 +1,216 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.service.impl.TaskQuery;
+import com.davymbaimbai.service.impl.TaskQueryParser;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Filter a client attaches to a subscription as the {@code filter} header of its SUBSCRIBE frame,
+ * in the syntax of the task query endpoint: {@code status:TODO,IN_PROGRESS priority:HIGH assignee:me}.
+ * A task event is delivered to the subscription only if it satisfies every condition. Frames that
+ * carry no task state, such as bulk events, are delivered to every subscription.
+ */
+public final class TaskEventFilter {
+
+    public static final String NATIVE_HEADER = "filter";
+
+    /**
+     * The compiled filter, set on the SUBSCRIBE message by {@code StompAuthInterceptor}.
+     */
+    public static final String FILTER_HEADER = "taskEventFilter";
+
+    /**
+     * The attributes of a task event, set on its outbound message by the event bus.
+     */
+    public static final String ATTRIBUTES_HEADER = "taskEventAttributes";
+
+    static final String UNASSIGNED = "none";
+
+    /**
+     * In the order the subscription index prefers them, most selective first.
+     */
+    public enum Attribute {
+        ASSIGNEE, PRIORITY, STATUS
+    }
+
+    private final Map<Attribute, Set<String>> conditions;
+
+    private TaskEventFilter(Map<Attribute, Set<String>> conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * @param userIds resolves the usernames named in assignee conditions
+     * @throws BadRequestException if the text is not a valid filter
+     */
+    public static TaskEventFilter compile(String text, Long currentUserId,
+                                          Function<Collection<String>, Map<String, Long>> userIds) {
+        TaskQuery query = TaskQueryParser.parse(text);
+        if (!query.getOrders().isEmpty()) {
+            throw new BadRequestException("A subscription filter cannot be sorted");
+        }
+        Set<String> usernames = new HashSet<>();
+        for (TaskQuery.Condition condition : query.getConditions()) {
+            if (condition.getField() == TaskQuery.Field.ASSIGNEE) {
+                condition.getValues().stream().filter(value -> !isKeywordOrId(value)).forEach(usernames::add);
+            }
+        }
+        Map<String, Long> ids = usernames.isEmpty() ? Map.of() : userIds.apply(usernames);
+        usernames.stream().filter(name -> !ids.containsKey(name)).findFirst().ifPresent(name -> {
+            throw new BadRequestException("Unknown user: " + name);
+        });
+
+        Map<Attribute, Set<String>> conditions = new EnumMap<>(Attribute.class);
+        for (TaskQuery.Condition condition : query.getConditions()) {
+            Set<String> values = new LinkedHashSet<>();
+            Attribute attribute = switch (condition.getField()) {
+                case STATUS -> {
+                    condition.getValues().forEach(value -> values.add(enumValue(value, TaskStatus.class, "status")));
+                    yield Attribute.STATUS;
+                }
+                case PRIORITY -> {
+                    condition.getValues().forEach(value -> values.add(enumValue(value, Priority.class, "priority")));
+                    yield Attribute.PRIORITY;
+                }
+                case ASSIGNEE -> {
+                    condition.getValues().forEach(value -> values.add(assignee(value, currentUserId, ids)));
+                    yield Attribute.ASSIGNEE;
+                }
+                default -> throw new BadRequestException(
+                        "Subscriptions can only be filtered by status, priority and assignee");
+            };
+            // two conditions on one attribute both have to hold
+            conditions.merge(attribute, values, (current, added) -> {
+                current.retainAll(added);
+                return current;
+            });
+        }
+        return new TaskEventFilter(conditions);
+    }
+
+    /**
+     * True when the filter has no conditions, so the subscription receives everything.
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * The attribute the subscription index files this filter under.
+     */
+    Attribute anchor() {
+        return conditions.keySet().iterator().next();
+    }
+
+    Set<String> values(Attribute attribute) {
+        return conditions.get(attribute);
+    }
+
+    /**
+     * Whether an event sent outside the broker, such as a replayed one, passes the filter.
+     */
+    public boolean accepts(TaskActivityDto event) {
+        return event.getStatus() == null || matches(attributes(event));
+    }
+
+    boolean matches(Map<Attribute, Set<String>> attributes) {
+        for (Map.Entry<Attribute, Set<String>> condition : conditions.entrySet()) {
+            Set<String> values = attributes.get(condition.getKey());
+            if (values == null || values.stream().noneMatch(condition.getValue()::contains)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The attributes a task event is matched on. Each also holds the value the event replaced,
+     * the old status, previous assignee or previous priority, so a subscription filtered on it
+     * sees the task leave it.
+     */
+    static Map<Attribute, Set<String>> attributes(TaskActivityDto event) {
+        Map<Attribute, Set<String>> attributes = new EnumMap<>(Attribute.class);
+        Set<String> assignees = new LinkedHashSet<>();
+        assignees.add(event.getAssigneeId() != null ? String.valueOf(event.getAssigneeId()) : UNASSIGNED);
+        if (event.getPreviousAssigneeId() != null) {
+            assignees.add(String.valueOf(event.getPreviousAssigneeId()));
+        }
+        attributes.put(Attribute.ASSIGNEE, assignees);
+        Set<String> priorities = new LinkedHashSet<>();
+        if (event.getPriority() != null) {
+            priorities.add(event.getPriority());
+        }
+        if (event.getPreviousPriority() != null) {
+            priorities.add(event.getPreviousPriority());
+        }
+        if (!priorities.isEmpty()) {
+            attributes.put(Attribute.PRIORITY, priorities);
+        }
+        Set<String> statuses = new LinkedHashSet<>();
+        statuses.add(event.getStatus());
+        if (event.getOldStatus() != null) {
+            statuses.add(event.getOldStatus());
+        }
+        attributes.put(Attribute.STATUS, statuses);
+        return attributes;
+    }
+
+    /**
+     * Headers for sending a task event, or null when it carries no task state to filter on.
+     * Besides its attributes they hold the task id, under which a slow consumer keeps only
+     * the latest event of each task.
+     */
+    public static Map<String, Object> headers(TaskActivityDto event) {
+        if (event.getStatus() == null) {
+            return null;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setHeader(ATTRIBUTES_HEADER, attributes(event));
+        if (event.getTaskId() != null) {
+            accessor.setHeader(SlowConsumerGuard.COALESCE_HEADER, event.getTaskId());
+        }
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    private static <E extends Enum<E>> String enumValue(String value, Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static String assignee(String value, Long currentUserId, Map<String, Long> ids) {
+        String keyword = value.toLowerCase(Locale.ROOT);
+        if (keyword.equals("me")) {
+            return String.valueOf(currentUserId);
+        }
+        if (keyword.equals(UNASSIGNED)) {
+            return UNASSIGNED;
+        }
+        if (value.chars().allMatch(Character::isDigit)) {
+            return String.valueOf(Long.parseLong(value));
+        }
+        return String.valueOf(ids.get(value));
+    }
+
+    private static boolean isKeywordOrId(String value) {
+        return value.equalsIgnoreCase("me") || value.equalsIgnoreCase(UNASSIGNED)
+                || value.chars().allMatch(Character::isDigit);
+    }
+}
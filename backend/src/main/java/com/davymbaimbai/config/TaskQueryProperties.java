@@ -0,0 +1,16 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tasks.query")
+public class TaskQueryProperties {
+
+    /**
+     * How many compiled query shapes are kept; the least recently used one is dropped first.
+     */
+    private int planCacheSize = 256;
+}
@@ -0,0 +1,185 @@
+package com.davymbaimbai.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription registry of the simple broker that hands a task event only to the filtered
+ * subscriptions it satisfies. Subscriptions without a {@link TaskEventFilter} stay in Spring's
+ * registry. Filtered ones are indexed per destination under the values of one attribute, so an
+ * event is only checked against the filters that accept its assignee, priority or status rather
+ * than against every subscription on the destination.
+ */
+@Component
+public class TaskSubscriptionRegistry implements SubscriptionRegistry, MeterBinder {
+
+    private final DefaultSubscriptionRegistry unfiltered = new DefaultSubscriptionRegistry();
+
+    private final Map<String, FilterIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Filtered>> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong filteredOut = new AtomicLong();
+
+    private record Filtered(String sessionId, String subscriptionId, String destination, TaskEventFilter filter) {
+    }
+
+    @Override
+    public void registerSubscription(Message<?> message) {
+        TaskEventFilter filter = (TaskEventFilter) message.getHeaders().get(TaskEventFilter.FILTER_HEADER);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (filter == null || filter.isEmpty() || sessionId == null || subscriptionId == null || destination == null) {
+            unfiltered.registerSubscription(message);
+            return;
+        }
+        Filtered subscription = new Filtered(sessionId, subscriptionId, destination, filter);
+        Filtered previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, subscription);
+        if (previous != null) {
+            removeFromIndex(previous);
+        }
+        indexes.compute(destination, (key, index) -> {
+            FilterIndex updated = index != null ? index : new FilterIndex();
+            updated.add(subscription);
+            return updated;
+        });
+    }
+
+    @Override
+    public void unregisterSubscription(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        Map<String, Filtered> subscriptions = sessionId != null ? sessions.get(sessionId) : null;
+        Filtered removed = subscriptions != null && subscriptionId != null ? subscriptions.remove(subscriptionId) : null;
+        if (removed != null) {
+            removeFromIndex(removed);
+        } else {
+            unfiltered.unregisterSubscription(message);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        unfiltered.unregisterAllSubscriptions(sessionId);
+        Map<String, Filtered> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::removeFromIndex);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public MultiValueMap<String, String> findSubscriptions(Message<?> message) {
+        MultiValueMap<String, String> subscriptions = unfiltered.findSubscriptions(message);
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        FilterIndex index = destination != null ? indexes.get(destination) : null;
+        if (index == null) {
+            return subscriptions;
+        }
+        Map<TaskEventFilter.Attribute, Set<String>> attributes =
+                (Map<TaskEventFilter.Attribute, Set<String>>) message.getHeaders().get(TaskEventFilter.ATTRIBUTES_HEADER);
+        Collection<Filtered> matches = attributes != null ? index.match(attributes) : index.all;
+        int candidates = index.all.size();
+        delivered.addAndGet(matches.size());
+        filteredOut.addAndGet(Math.max(0, candidates - matches.size()));
+        if (matches.isEmpty()) {
+            return subscriptions;
+        }
+        // the default registry's result is cached, so it is copied before adding to it
+        MultiValueMap<String, String> combined = new LinkedMultiValueMap<>();
+        subscriptions.forEach(combined::addAll);
+        matches.forEach(match -> combined.add(match.sessionId(), match.subscriptionId()));
+        return combined;
+    }
+
+    private void removeFromIndex(Filtered subscription) {
+        indexes.computeIfPresent(subscription.destination(), (key, index) -> {
+            index.remove(subscription);
+            return index.all.isEmpty() ? null : index;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.subscriptions.filtered", this, TaskSubscriptionRegistry::getFilteredCount)
+                .register(registry);
+        FunctionCounter.builder("websocket.filter.frames", delivered, AtomicLong::get)
+                .tag("result", "delivered")
+                .register(registry);
+        FunctionCounter.builder("websocket.filter.frames", filteredOut, AtomicLong::get)
+                .tag("result", "filtered")
+                .register(registry);
+    }
+
+    public int getFilteredCount() {
+        return sessions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * The filtered subscriptions of one destination. Each is filed under the values of its
+     * filter's {@link TaskEventFilter#anchor() anchor} attribute and only checked in full when
+     * an event has one of them.
+     */
+    private static final class FilterIndex {
+
+        private final Set<Filtered> all = ConcurrentHashMap.newKeySet();
+        private final Map<TaskEventFilter.Attribute, Map<String, Set<Filtered>>> anchored = new ConcurrentHashMap<>();
+
+        void add(Filtered subscription) {
+            all.add(subscription);
+            TaskEventFilter.Attribute anchor = subscription.filter().anchor();
+            Map<String, Set<Filtered>> byValue = anchored.computeIfAbsent(anchor, key -> new ConcurrentHashMap<>());
+            for (String value : subscription.filter().values(anchor)) {
+                byValue.computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+            }
+        }
+
+        void remove(Filtered subscription) {
+            all.remove(subscription);
+            TaskEventFilter.Attribute anchor = subscription.filter().anchor();
+            Map<String, Set<Filtered>> byValue = anchored.get(anchor);
+            if (byValue == null) {
+                return;
+            }
+            for (String value : subscription.filter().values(anchor)) {
+                byValue.computeIfPresent(value, (key, filtered) -> {
+                    filtered.remove(subscription);
+                    return filtered.isEmpty() ? null : filtered;
+                });
+            }
+        }
+
+        Collection<Filtered> match(Map<TaskEventFilter.Attribute, Set<String>> attributes) {
+            Set<Filtered> matches = new LinkedHashSet<>();
+            anchored.forEach((attribute, byValue) -> {
+                for (String value : attributes.getOrDefault(attribute, Set.of())) {
+                    for (Filtered candidate : byValue.getOrDefault(value, Set.of())) {
+                        if (candidate.filter().matches(attributes)) {
+                            matches.add(candidate);
+                        }
+                    }
+                }
+            });
+            return matches.isEmpty() ? List.of() : matches;
+        }
+    }
+}
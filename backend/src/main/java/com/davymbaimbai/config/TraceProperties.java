@@ -0,0 +1,36 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tracing")
+public class TraceProperties {
+
+    /**
+     * When false responses carry no {@code Server-Timing} header and no traces are kept.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Share of requests whose full trace is kept, between 0 and 1.
+     */
+    private double sampleRate = 0.05;
+
+    /**
+     * Requests slower than this are always kept, whatever the sample rate.
+     */
+    private long slowThresholdMs = 500;
+
+    /**
+     * How many traces the ring buffer holds; the oldest are overwritten first.
+     */
+    private int bufferSize = 2048;
+
+    /**
+     * Spans kept per trace; later ones are only added to the totals.
+     */
+    private int maxSpans = 256;
+}
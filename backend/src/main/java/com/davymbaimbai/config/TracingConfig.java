@@ -0,0 +1,54 @@
+package com.davymbaimbai.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Replaces Spring Boot's JSON converter with one that serializes into a buffer first, so
+     * the time it took is known and the {@code Server-Timing} header, serialization included,
+     * can still be set before the body is written.
+     */
+    @Bean
+    MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                            TraceProperties traceProperties) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                RequestTrace trace = RequestTrace.current();
+                if (trace == null || !traceProperties.isEnabled()) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                long start = System.nanoTime();
+                ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+                super.writeInternal(object, type, new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return body;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return outputMessage.getHeaders();
+                    }
+                });
+                trace.add(RequestTrace.SERIALIZATION, null, start, System.nanoTime() - start);
+                outputMessage.getHeaders().set(RequestTrace.SERVER_TIMING_HEADER, trace.toServerTiming());
+                outputMessage.getHeaders().setContentLength(body.size());
+                body.writeTo(outputMessage.getBody());
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.bus")
+public class WebSocketBusProperties {
+
+    /**
+     * When false every broadcast is sent straight away on the calling thread.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long events for the same task and topic are merged before one frame goes out.
+     */
+    private long windowMs = 50;
+
+    /**
+     * Frames waiting for the next flush; new frames beyond this are dropped, merges are not.
+     */
+    private int maxPendingFrames = 10_000;
+}
@@ -1,25 +1,112 @@
 package com.davymbaimbai.config;
 
+import com.davymbaimbai.security.StompAuthInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final Environment environment;
+    private final WebSocketMetricsInterceptor metricsInterceptor;
+    private final StompAuthInterceptor authInterceptor;
+    private final StompResumeInterceptor resumeInterceptor;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final WebSocketTransportProperties transport;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        // a virtual thread per message has no queue to keep a session's frames in order
+        config.setPreservePublishOrder(virtualThreads());
+    }
+
+    /**
+     * Gives the simple broker the registry that evaluates subscription filters, before it starts.
+     */
+    @Bean
+    static BeanPostProcessor taskSubscriptionRegistryInstaller(ObjectProvider<TaskSubscriptionRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler broker) {
+                    broker.setSubscriptionRegistry(registry.getObject());
+                }
+                return bean;
+            }
+        };
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.setPreserveReceiveOrder(virtualThreads());
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor, resumeInterceptor);
+        if (virtualThreads()) {
+            registration.executor(virtualThreadExecutor("stomp-inbound-"));
+        } else {
+            threadPool(registration, transport.getInboundThreads());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // the guard last, so the metrics only see frames that are sent
+        registration.interceptors(metricsInterceptor, slowConsumerGuard);
+        if (virtualThreads()) {
+            registration.executor(virtualThreadExecutor("stomp-outbound-"));
+        } else {
+            threadPool(registration, transport.getOutboundThreads());
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(transport.getMessageSizeLimitKb() * 1024)
+                .setSendBufferSizeLimit(transport.getSendBufferSizeKb() * 1024)
+                .setSendTimeLimit((int) transport.getSendTimeLimitMs())
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
+    private void threadPool(ChannelRegistration registration, int threads) {
+        if (threads > 0) {
+            registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads);
+        }
+        if (transport.getQueueCapacity() > 0) {
+            registration.taskExecutor().queueCapacity(transport.getQueueCapacity());
+        }
+    }
+
+    private boolean virtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
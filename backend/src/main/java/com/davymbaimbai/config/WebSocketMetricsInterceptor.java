@@ -0,0 +1,65 @@
+package com.davymbaimbai.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the frames and payload bytes handed to client sessions on the outbound channel.
+ * Destinations are grouped by prefix, with numeric segments folded into {@code {id}}, so
+ * {@code /topic/tasks/42/comments} is reported as {@code /topic/tasks/{id}/comments}. Frames
+ * for a user destination are reported under the destination the client subscribed to, such
+ * as {@code /user/queue/tasks}, rather than the per-session queue the broker resolved it to.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketMetricsInterceptor implements ChannelInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+        String destination = (String) message.getHeaders().get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+        if (destination == null) {
+            destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        }
+        if (!sent || destination == null) {
+            return;
+        }
+        int bytes = message.getPayload() instanceof byte[] payload ? payload.length : 0;
+        summaries.computeIfAbsent(prefix(destination), this::summary).record(bytes);
+    }
+
+    private DistributionSummary summary(String prefix) {
+        return DistributionSummary.builder("websocket.messages.sent")
+                .baseUnit("bytes")
+                .tag("destination", prefix)
+                .register(meterRegistry);
+    }
+
+    static String prefix(String destination) {
+        String[] segments = destination.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+                segments[i] = "{id}";
+            }
+        }
+        // a resolved user destination ends with the session id, /queue/tasks-user5f2a
+        String last = segments[segments.length - 1];
+        int session = last.lastIndexOf("-user");
+        if (destination.startsWith("/queue/") && session > 0) {
+            segments[segments.length - 1] = last.substring(0, session) + "-user{session}";
+        }
+        return String.join("/", segments);
+    }
+}
@@ -0,0 +1,65 @@
+package com.davymbaimbai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.transport")
+public class WebSocketTransportProperties {
+
+    /**
+     * Threads handling frames from clients; 0 keeps Spring's default of twice the processors.
+     * Ignored when virtual threads are enabled.
+     */
+    private int inboundThreads = 0;
+
+    /**
+     * Threads writing frames to clients; 0 keeps Spring's default of twice the processors.
+     * Ignored when virtual threads are enabled.
+     */
+    private int outboundThreads = 0;
+
+    /**
+     * Frames each channel queues for its threads; 0 leaves the queues unbounded.
+     */
+    private int queueCapacity = 0;
+
+    /**
+     * Largest frame accepted from a client.
+     */
+    private int messageSizeLimitKb = 64;
+
+    /**
+     * Bytes a session may have waiting behind a write in progress before it is closed.
+     */
+    private int sendBufferSizeKb = 512;
+
+    /**
+     * How long a single write to a session may take before the session is closed.
+     */
+    private long sendTimeLimitMs = 10_000;
+
+    /**
+     * Frames a session may have waiting to be written before it is treated as a slow consumer.
+     * Until half of them are written, its task events are held back with only the latest one
+     * per task kept, and its other frames are dropped.
+     */
+    private int slowConsumerFrames = 100;
+
+    /**
+     * Task events held back for one slow session; beyond it the session is closed.
+     */
+    private int maxHeldFrames = 1_000;
+
+    /**
+     * How long a session may stay a slow consumer before it is closed.
+     */
+    private long slowConsumerTimeoutMs = 30_000;
+
+    /**
+     * How often sessions are checked against the timeout and their queue depths recorded.
+     */
+    private long sweepIntervalMs = 1_000;
+}
@@ -0,0 +1,25 @@
+package com.davymbaimbai.controller;
+import com.davymbaimbai.dto.ActivityFeedPage;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.service.TaskActivityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/activities")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ActivityController {
+
+    private final TaskActivityService taskActivityService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response<ActivityFeedPage>> getActivityFeed(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskActivityService.getActivityFeed(since, limit));
+    }
+}
@@ -0,0 +1,52 @@
+package com.davymbaimbai.controller;
+import com.davymbaimbai.dto.FlightRecordingView;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/recordings")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class FlightRecordingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @PostMapping
+    public ResponseEntity<Response<FlightRecordingView>> startRecording(
+            @RequestParam(required = false) Integer durationSeconds,
+            @RequestParam(required = false) String settings) {
+        return ResponseEntity.ok(flightRecordingService.startRecording(durationSeconds, settings));
+    }
+
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<Response<FlightRecordingView>> stopRecording(@PathVariable Long id) {
+        return ResponseEntity.ok(flightRecordingService.stopRecording(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<Response<List<FlightRecordingView>>> getRecordings() {
+        return ResponseEntity.ok(flightRecordingService.getRecordings());
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadRecording(@PathVariable Long id) {
+        Path file = flightRecordingService.getRecordingFile(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
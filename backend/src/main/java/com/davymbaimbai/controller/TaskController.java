@@ -1,18 +1,31 @@
 package com.davymbaimbai.controller;
+import com.davymbaimbai.dto.ActivityFeedPage;
+import com.davymbaimbai.dto.BulkTaskRequest;
+import com.davymbaimbai.dto.BulkTaskResult;
+import com.davymbaimbai.dto.CursorPage;
 import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskFacetResult;
 import com.davymbaimbai.dto.TaskRequest;
+import com.davymbaimbai.dto.TaskSearchHit;
+import com.davymbaimbai.dto.TaskSummary;
+import com.davymbaimbai.dto.TaskActivityView;
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.dto.CommentPage;
 import com.davymbaimbai.dto.CommentRequest;
 import com.davymbaimbai.dto.CommentResponse;
-import com.davymbaimbai.entity.Task;
-import com.davymbaimbai.entity.TaskActivity;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.service.TaskBulkService;
 import com.davymbaimbai.service.TaskService;
 import com.davymbaimbai.service.TaskCommentService;
 import com.davymbaimbai.service.TaskActivityService;
+import com.davymbaimbai.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -24,22 +37,30 @@ public class TaskController {
     private final TaskService taskService;
     private final TaskCommentService taskCommentService;
     private final TaskActivityService taskActivityService;
+    private final UserService userService;
+    private final TaskBulkService taskBulkService;
     
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Response<Task>> createTask(@Valid @RequestBody TaskRequest taskRequest) {
+    public ResponseEntity<Response<TaskView>> createTask(@Valid @RequestBody TaskRequest taskRequest) {
         return ResponseEntity.ok(taskService.createTask(taskRequest));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Response<Task>> updateTask(@PathVariable Long id, @RequestBody TaskRequest taskRequest) {
+    public ResponseEntity<Response<TaskView>> updateTask(@PathVariable Long id, @RequestBody TaskRequest taskRequest) {
         taskRequest.setId(id);
         return ResponseEntity.ok(taskService.updateTask(taskRequest));
     }
     
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response<List<BulkTaskResult>>> bulkTasks(@RequestBody BulkTaskRequest bulkTaskRequest) {
+        return ResponseEntity.ok(taskBulkService.executeBulk(bulkTaskRequest));
+    }
+
     @GetMapping
-    public ResponseEntity<Response<List<Task>>> getTasks(
+    public ResponseEntity<Response<List<TaskView>>> getTasks(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Long assignee) {
         if (status != null || assignee != null) {
@@ -50,12 +71,74 @@ public class TaskController {
     
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Response<List<Task>>> getAllTasks() {
+    public ResponseEntity<Response<List<TaskView>>> getAllTasks() {
         return ResponseEntity.ok(taskService.getAllTasks());
     }
     
+    @GetMapping("/summary")
+    public ResponseEntity<Response<TaskSummary>> getTaskSummary() {
+        return ResponseEntity.ok(taskService.getMyTaskSummary());
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<Response<List<TaskView>>> queryTasks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.queryTasks(q, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Response<List<TaskSearchHit>>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<Response<TaskFacetResult>> getTaskFacets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long assignee,
+            @RequestParam(required = false) Long creator,
+            @RequestParam(required = false) Long owner,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getTaskFacets(status, priority, assignee, creator, owner, before, limit));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Response<CursorPage<TaskView>>> getTasksPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long assignee,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getMyTasksPage(status, assignee, cursor, limit));
+    }
+
+    @GetMapping("/all/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response<CursorPage<TaskView>>> getAllTasksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getAllTasksPage(cursor, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMyTasks() {
+        User currentUser = userService.getCurrentLoggedInUser();
+        StreamingResponseBody body = outputStream -> taskService.streamTasks(currentUser, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        StreamingResponseBody body = outputStream -> taskService.streamTasks(null, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Response<Task>> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<Response<TaskView>> getTaskById(@PathVariable Long id) {
         return ResponseEntity.ok(taskService.getTaskById(id));
     }
 
@@ -65,6 +148,16 @@ public class TaskController {
         return ResponseEntity.ok(taskService.deleteTask(id));
     }
 
+    @PostMapping("/{id}/watchers")
+    public ResponseEntity<Response<Void>> watchTask(@PathVariable Long id) {
+        return ResponseEntity.ok(taskService.watchTask(id));
+    }
+
+    @DeleteMapping("/{id}/watchers")
+    public ResponseEntity<Response<Void>> unwatchTask(@PathVariable Long id) {
+        return ResponseEntity.ok(taskService.unwatchTask(id));
+    }
+
     @PostMapping("/{id}/comments")
     public ResponseEntity<Response<CommentResponse>> addComment(@PathVariable Long id, @Valid @RequestBody CommentRequest commentRequest) {
         return ResponseEntity.ok(taskCommentService.addComment(id, commentRequest));
@@ -75,6 +168,14 @@ public class TaskController {
         return ResponseEntity.ok(taskCommentService.getTaskComments(id));
     }
 
+    @GetMapping("/{id}/comments/page")
+    public ResponseEntity<Response<CommentPage>> getTaskCommentsPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskCommentService.getTaskCommentsPage(id, after, limit));
+    }
+
     @PutMapping("/comments/{commentId}")
     public ResponseEntity<Response<CommentResponse>> updateComment(@PathVariable Long commentId, @Valid @RequestBody CommentRequest commentRequest) {
         return ResponseEntity.ok(taskCommentService.updateComment(commentId, commentRequest));
@@ -86,21 +187,29 @@ public class TaskController {
     }
 
     @GetMapping("/status")
-    public ResponseEntity<Response<List<Task>>> getMyTasksByCompletionStatus(
+    public ResponseEntity<Response<List<TaskView>>> getMyTasksByCompletionStatus(
             @RequestParam boolean completed
     ) {
         return ResponseEntity.ok(taskService.getMyTasksByCompletionStatus(completed));
     }
     
     @GetMapping("/priority")
-    public ResponseEntity<Response<List<Task>>> getMyTasksByPriority(
+    public ResponseEntity<Response<List<TaskView>>> getMyTasksByPriority(
             @RequestParam String priority
     ) {
         return ResponseEntity.ok(taskService.getMyTasksByPriority(priority));
     }
     @GetMapping("/{taskId}/activities")
-    public ResponseEntity<Response<List<TaskActivity>>> getTaskActivities(@PathVariable Long taskId) {
+    public ResponseEntity<Response<List<TaskActivityView>>> getTaskActivities(@PathVariable Long taskId) {
         return ResponseEntity.ok(taskActivityService.getTaskActivities(taskId));
     }
 
+    @GetMapping(value = "/{taskId}/activities", params = "since")
+    public ResponseEntity<Response<ActivityFeedPage>> getTaskActivityFeed(
+            @PathVariable Long taskId,
+            @RequestParam Long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskActivityService.getTaskActivityFeed(taskId, since, limit));
+    }
+
 }
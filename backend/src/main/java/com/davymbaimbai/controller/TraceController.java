@@ -0,0 +1,27 @@
+package com.davymbaimbai.controller;
+import com.davymbaimbai.dto.RequestTraceView;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.service.TraceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TraceController {
+
+    private final TraceService traceService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response<List<RequestTraceView>>> getSlowestTraces(
+            @RequestParam(required = false) String uri,
+            @RequestParam(defaultValue = "10") int minutes,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(traceService.getSlowestTraces(uri, minutes, limit));
+    }
+}
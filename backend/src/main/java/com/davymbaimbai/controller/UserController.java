@@ -2,7 +2,7 @@ package com.davymbaimbai.controller;
 import com.davymbaimbai.dto.Response;
 import com.davymbaimbai.dto.UserRequest;
 import com.davymbaimbai.dto.LoginRequest;
-import com.davymbaimbai.entity.User;
+import com.davymbaimbai.dto.UserView;
 import com.davymbaimbai.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,12 +29,12 @@ public class UserController {
     }
     
     @GetMapping("/api/users")
-    public ResponseEntity<Response<List<User>>> getAllUsers(){
+    public ResponseEntity<Response<List<UserView>>> getAllUsers(){
         return ResponseEntity.ok(userService.getAllUsers());
     }
     
     @GetMapping("/api/users/current")
-    public ResponseEntity<User> getCurrentUser(){
-        return ResponseEntity.ok(userService.getCurrentLoggedInUser());
+    public ResponseEntity<UserView> getCurrentUser(){
+        return ResponseEntity.ok(UserView.of(userService.getCurrentLoggedInUser()));
     }
 }
@@ -0,0 +1,25 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.ActivityType;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * An activity waiting to be written by the activity pipeline. Equality ignores the
+ * timestamp so back-to-back duplicates for the same task can be coalesced.
+ */
+@Data
+@Builder
+public class ActivityEvent {
+    private Long taskId;
+    private Long userId;
+    private ActivityType activityType;
+    private String description;
+    private String oldValue;
+    private String newValue;
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Activities after a feed sequence, oldest first. {@code nextSince} is the sequence to ask
+ * from next time; it stays at the requested value when nothing new was found.
+ */
+@Data
+@Builder
+public class ActivityFeedPage {
+    private List<TaskActivityView> items;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.BulkOperationType;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import lombok.Data;
+
+/**
+ * One entry of a bulk request. CREATE uses the task fields, UPDATE changes only the fields
+ * that are set on the task with {@code id}, and DELETE only needs {@code id}.
+ */
+@Data
+public class BulkTaskOperation {
+    private BulkOperationType operation;
+    private Long id;
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private Priority priority;
+    private Long assigneeId;
+}
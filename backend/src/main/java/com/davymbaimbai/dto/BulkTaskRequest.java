@@ -0,0 +1,10 @@
+package com.davymbaimbai.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkTaskRequest {
+    private List<BulkTaskOperation> operations;
+}
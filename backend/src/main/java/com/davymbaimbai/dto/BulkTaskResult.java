@@ -0,0 +1,15 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.BulkOperationType;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkTaskResult {
+    private int index;
+    private BulkOperationType operation;
+    private Long taskId;
+    private boolean success;
+    private String error;
+}
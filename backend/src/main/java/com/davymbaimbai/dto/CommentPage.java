@@ -0,0 +1,15 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommentPage {
+    private List<CommentResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private long totalCount;
+}
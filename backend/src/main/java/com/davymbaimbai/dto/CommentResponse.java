@@ -1,11 +1,13 @@
 package com.davymbaimbai.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class CommentResponse {
     private Long id;
     private String comment;
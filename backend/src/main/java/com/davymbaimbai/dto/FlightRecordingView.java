@@ -0,0 +1,22 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class FlightRecordingView {
+    private long id;
+    private String name;
+
+    /**
+     * RUNNING until the duration has passed or the recording is stopped, then STOPPED.
+     */
+    private String state;
+    private String settings;
+    private Instant startedAt;
+    private long durationSeconds;
+    private long sizeBytes;
+}
@@ -0,0 +1,30 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class RequestTraceView {
+    private String method;
+
+    /**
+     * The matched route, e.g. {@code /api/tasks/{id}}.
+     */
+    private String uri;
+    private int status;
+    private String username;
+    private Instant startedAt;
+    private double durationMs;
+
+    /**
+     * Milliseconds per category, the same breakdown as the {@code Server-Timing} header.
+     */
+    private Map<String, Double> breakdownMs;
+    private List<TraceSpanView> spans;
+    private int droppedSpans;
+}
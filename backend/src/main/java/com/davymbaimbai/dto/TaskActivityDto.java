@@ -1,11 +1,14 @@
 package com.davymbaimbai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@Jacksonized
 public class TaskActivityDto {
     private Long taskId;
     private String action;
@@ -15,4 +18,32 @@ public class TaskActivityDto {
     private String oldStatus;
     private String newStatus;
     private LocalDateTime timestamp;
+
+    /**
+     * The task's state after the event; subscription filters are matched against these.
+     */
+    private String status;
+    private String priority;
+    private Long assigneeId;
+
+    /**
+     * The assignee an unassignment removed and the priority a priority change replaced, matched
+     * as well so a filtered subscription sees the task leave it.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long previousAssigneeId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String previousPriority;
+
+    /**
+     * Outbox id of the event, the same on every instance; a client resubscribes with the
+     * highest one it has seen to get what it missed.
+     */
+    private Long sequence;
+
+    /**
+     * Number of events merged into this frame by the event bus, left out when there was only one.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer mergedEvents;
 }
\ No newline at end of file
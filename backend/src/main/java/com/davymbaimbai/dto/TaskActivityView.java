@@ -0,0 +1,37 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.ActivityType;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for an entry of a task's activity log.
+ */
+@Value
+public class TaskActivityView {
+    Long id;
+    Long seq;
+    Long taskId;
+    ActivityType activityType;
+    String description;
+    String oldValue;
+    String newValue;
+    LocalDateTime createdAt;
+    UserRef user;
+
+    // constructor expression target for TaskActivityRepository, keep the argument order in sync
+    public TaskActivityView(Long id, Long seq, Long taskId, ActivityType activityType, String description,
+                            String oldValue, String newValue, LocalDateTime createdAt,
+                            Long userId, String username) {
+        this.id = id;
+        this.seq = seq;
+        this.taskId = taskId;
+        this.activityType = activityType;
+        this.description = description;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.createdAt = createdAt;
+        this.user = UserRef.of(userId, username);
+    }
+}
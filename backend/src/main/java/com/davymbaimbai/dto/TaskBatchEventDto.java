@@ -0,0 +1,24 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Single notification for a bulk request, listing every task it touched.
+ */
+@Data
+@Builder
+@Jacksonized
+public class TaskBatchEventDto {
+    private String action;
+    private String username;
+    private List<Long> createdTaskIds;
+    private List<Long> updatedTaskIds;
+    private List<Long> deletedTaskIds;
+    private LocalDateTime timestamp;
+    private Long sequence;
+}
@@ -0,0 +1,23 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * How the tasks matching a facet query are spread over each facet. User facets are keyed by
+ * user id and only list users with at least one matching task.
+ */
+@Data
+@Builder
+public class TaskFacetCounts {
+    private Map<TaskStatus, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<Long, Long> byAssignee;
+    private long unassigned;
+    private Map<Long, Long> byCreator;
+    private Map<Long, Long> byOwner;
+}
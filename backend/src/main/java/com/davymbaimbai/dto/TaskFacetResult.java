@@ -0,0 +1,24 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TaskFacetResult {
+    private long total;
+    private List<TaskView> items;
+
+    /**
+     * Pass back as {@code before} for the next page, null on the last one.
+     */
+    private Long nextBefore;
+    private TaskFacetCounts facets;
+
+    /**
+     * False when the in-memory index was disabled or still building and the database answered.
+     */
+    private boolean indexed;
+}
@@ -0,0 +1,15 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TaskSearchHit {
+    private TaskView task;
+
+    /**
+     * BM25 relevance of the task for the query; only comparable within one result list.
+     */
+    private float score;
+}
@@ -0,0 +1,25 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sent instead of the missed frames to a client that resubscribes too far behind for the
+ * replay buffer. {@code SNAPSHOT} holds the latest event of every task that changed since its
+ * sequence, plus the ids touched by bulk requests; {@code RESYNC} means the events are gone
+ * and the client has to reload. Either way it continues from {@code sequence}.
+ */
+@Data
+@Builder
+@Jacksonized
+public class TaskSnapshotDto {
+    private String action;
+    private Long sequence;
+    private List<TaskActivityDto> tasks;
+    private List<Long> changedTaskIds;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,19 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class TaskSummary {
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<TaskStatus, Map<Priority, Long>> byStatusAndPriority;
+    private long assignedTotal;
+    private Map<TaskStatus, Long> assignedByStatus;
+}
@@ -0,0 +1,65 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for a task, selected column by column together with the usernames of its
+ * owner, creator and assignee, so list endpoints never load or serialize a Task entity.
+ */
+@Value
+public class TaskView {
+    Long id;
+    String title;
+    String description;
+    TaskStatus status;
+    Priority priority;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    Long userId;
+    Long creatorId;
+    Long assigneeId;
+    UserRef user;
+    UserRef creator;
+    UserRef assignee;
+
+    // constructor expression target for TaskViewQueries, keep the argument order in sync
+    public TaskView(Long id, String title, String description, TaskStatus status, Priority priority,
+                    LocalDateTime createdAt, LocalDateTime updatedAt,
+                    Long userId, String username,
+                    Long creatorId, String creatorName,
+                    Long assigneeId, String assigneeName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.userId = userId;
+        this.creatorId = creatorId;
+        this.assigneeId = assigneeId;
+        this.user = UserRef.of(userId, username);
+        this.creator = UserRef.of(creatorId, creatorName);
+        this.assignee = UserRef.of(assigneeId, assigneeName);
+    }
+
+    /**
+     * For write paths that already hold the entity; reads go through the repository projection.
+     */
+    public static TaskView of(Task task) {
+        User user = task.getUser();
+        User creator = task.getCreator();
+        User assignee = task.getAssignee();
+        return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), task.getCreatedAt(), task.getUpdatedAt(),
+                user == null ? null : user.getId(), user == null ? null : user.getUsername(),
+                creator == null ? null : creator.getId(), creator == null ? null : creator.getUsername(),
+                assignee == null ? null : assignee.getId(), assignee == null ? null : assignee.getUsername());
+    }
+}
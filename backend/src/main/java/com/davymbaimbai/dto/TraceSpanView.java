@@ -0,0 +1,21 @@
+package com.davymbaimbai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TraceSpanView {
+    private String category;
+
+    /**
+     * The SQL of a statement or the {@code Service.method} of a call.
+     */
+    private String detail;
+
+    /**
+     * Milliseconds from the start of the request.
+     */
+    private double offsetMs;
+    private double durationMs;
+}
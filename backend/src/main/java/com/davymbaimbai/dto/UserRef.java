@@ -0,0 +1,16 @@
+package com.davymbaimbai.dto;
+
+import lombok.Value;
+
+/**
+ * The part of a user that is embedded in task and activity read models.
+ */
+@Value
+public class UserRef {
+    Long id;
+    String username;
+
+    public static UserRef of(Long id, String username) {
+        return id == null ? null : new UserRef(id, username);
+    }
+}
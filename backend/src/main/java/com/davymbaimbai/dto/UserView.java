@@ -0,0 +1,23 @@
+package com.davymbaimbai.dto;
+
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Role;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for a user; leaves out the password hash and the task collections.
+ */
+@Value
+public class UserView {
+    Long id;
+    String username;
+    String email;
+    Role role;
+    LocalDateTime createdAt;
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getUsername(), user.getEmail(), user.getRole(), user.getCreatedAt());
+    }
+}
@@ -37,6 +37,10 @@ public class TaskActivity {
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    // feed position, stamped by ActivitySequencer after the row commits
+    @Column(insertable = false, updatable = false)
+    private Long seq;
     
     @PrePersist
     protected void onCreate() {
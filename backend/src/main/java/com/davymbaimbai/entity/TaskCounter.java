@@ -0,0 +1,46 @@
+package com.davymbaimbai.entity;
+
+import com.davymbaimbai.enums.CounterScope;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of tasks a user owns, or has been assigned, per status and priority. Maintained
+ * incrementally by {@link com.davymbaimbai.service.impl.TaskCounterStore}.
+ */
+@Entity
+@Table(name = "task_counters", uniqueConstraints =
+        @UniqueConstraint(columnNames = {"scope", "user_id", "status", "priority"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CounterScope scope;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
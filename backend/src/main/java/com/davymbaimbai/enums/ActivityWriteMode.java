@@ -0,0 +1,5 @@
+package com.davymbaimbai.enums;
+
+public enum ActivityWriteMode {
+    SYNC, ASYNC
+}
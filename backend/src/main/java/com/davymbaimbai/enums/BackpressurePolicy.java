@@ -0,0 +1,5 @@
+package com.davymbaimbai.enums;
+
+public enum BackpressurePolicy {
+    BLOCK, CALLER_RUNS, DROP
+}
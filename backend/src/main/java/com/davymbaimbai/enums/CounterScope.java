@@ -0,0 +1,5 @@
+package com.davymbaimbai.enums;
+
+public enum CounterScope {
+    OWNER, ASSIGNEE
+}
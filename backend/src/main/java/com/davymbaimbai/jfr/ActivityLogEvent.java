@@ -0,0 +1,44 @@
+package com.davymbaimbai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to log a task activity: either handed to the write pipeline or written and
+ * broadcast on the calling thread.
+ */
+@Name("com.davymbaimbai.ActivityLog")
+@Label("Activity Log")
+@Category({"Task Manager", "Activities"})
+@Description("A task activity queued or written")
+@StackTrace(false)
+public class ActivityLogEvent extends Event {
+
+    @Label("Activity Type")
+    private String activityType;
+
+    @Label("Task Id")
+    private long taskId;
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Queued")
+    @Description("True when the activity went to the asynchronous write pipeline")
+    private boolean queued;
+
+    public void finish(String activityType, Long taskId, Long userId, boolean queued) {
+        end();
+        if (shouldCommit()) {
+            this.activityType = activityType;
+            this.taskId = taskId != null ? taskId : 0;
+            this.userId = userId != null ? userId : 0;
+            this.queued = queued;
+            commit();
+        }
+    }
+}
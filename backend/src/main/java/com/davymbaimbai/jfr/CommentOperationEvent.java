@@ -0,0 +1,45 @@
+package com.davymbaimbai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A comment added, updated or deleted through the comment service.
+ */
+@Name("com.davymbaimbai.CommentOperation")
+@Label("Comment Operation")
+@Category({"Task Manager", "Comments"})
+@Description("A task comment added, updated or deleted")
+@StackTrace(false)
+public class CommentOperationEvent extends Event {
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Comment Id")
+    private long commentId;
+
+    @Label("Task Id")
+    private long taskId;
+
+    @Label("User Id")
+    private long userId;
+
+    public CommentOperationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void finish(Long commentId, Long taskId, Long userId) {
+        end();
+        if (shouldCommit()) {
+            this.commentId = commentId != null ? commentId : 0;
+            this.taskId = taskId != null ? taskId : 0;
+            this.userId = userId != null ? userId : 0;
+            commit();
+        }
+    }
+}
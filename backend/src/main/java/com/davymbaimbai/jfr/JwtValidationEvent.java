@@ -0,0 +1,36 @@
+package com.davymbaimbai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One bearer token checked by the auth filter. Tokens carry the username, not the user id,
+ * so that is what is recorded.
+ */
+@Name("com.davymbaimbai.JwtValidation")
+@Label("JWT Validation")
+@Category({"Task Manager", "Security"})
+@Description("A bearer token verified or served from the verified-token cache")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+    @Label("Result")
+    @Description("hit, miss or invalid")
+    private String result;
+
+    @Label("Username")
+    private String username;
+
+    public void finish(String result, String username) {
+        end();
+        if (shouldCommit()) {
+            this.result = result;
+            this.username = username;
+            commit();
+        }
+    }
+}
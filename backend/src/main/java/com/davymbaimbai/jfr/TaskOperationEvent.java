@@ -0,0 +1,42 @@
+package com.davymbaimbai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A task created, updated or deleted through the task service. Begins when the service
+ * method is entered and is committed once the change is saved, before the transaction commits.
+ */
+@Name("com.davymbaimbai.TaskOperation")
+@Label("Task Operation")
+@Category({"Task Manager", "Tasks"})
+@Description("A task created, updated or deleted")
+@StackTrace(false)
+public class TaskOperationEvent extends Event {
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Task Id")
+    private long taskId;
+
+    @Label("User Id")
+    private long userId;
+
+    public TaskOperationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void finish(Long taskId, Long userId) {
+        end();
+        if (shouldCommit()) {
+            this.taskId = taskId != null ? taskId : 0;
+            this.userId = userId != null ? userId : 0;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.davymbaimbai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One frame handed to the broker for a destination, usually from the event bus thread at
+ * the end of a window. The duration covers serialization and fan-out to the subscribers.
+ */
+@Name("com.davymbaimbai.WebSocketBroadcast")
+@Label("WebSocket Broadcast")
+@Category({"Task Manager", "WebSocket"})
+@Description("A frame sent to every subscriber of a destination")
+@StackTrace(false)
+public class WebSocketBroadcastEvent extends Event {
+
+    @Label("Destination")
+    private String destination;
+
+    @Label("Task Id")
+    private long taskId;
+
+    @Label("Username")
+    private String username;
+
+    @Label("Merged Events")
+    private int mergedEvents;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void finish(String destination, Long taskId, String username, int mergedEvents, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.destination = destination;
+            this.taskId = taskId != null ? taskId : 0;
+            this.username = username;
+            this.mergedEvents = mergedEvents;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
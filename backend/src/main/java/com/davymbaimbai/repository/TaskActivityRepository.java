@@ -1,13 +1,38 @@
 package com.davymbaimbai.repository;
 
+import com.davymbaimbai.dto.TaskActivityView;
 import com.davymbaimbai.entity.TaskActivity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TaskActivityRepository extends JpaRepository<TaskActivity, Long> {
-    List<TaskActivity> findByTaskId(Long taskId, Sort sort);
+    // an explicit path to the foreign key; a derived query joins tasks just to compare its id
+    @Query("SELECT new com.davymbaimbai.dto.TaskActivityView(a.id, a.seq, a.task.id, a.activityType, a.description, " +
+           "a.oldValue, a.newValue, a.createdAt, u.id, u.username) " +
+           "FROM TaskActivity a JOIN a.user u WHERE a.task.id = :taskId")
+    List<TaskActivityView> findViewsByTaskId(@Param("taskId") Long taskId, Sort sort);
+
+    // a range scan of idx_task_activities_seq; unsequenced rows (seq IS NULL) never match
+    @Query("SELECT new com.davymbaimbai.dto.TaskActivityView(a.id, a.seq, a.task.id, a.activityType, a.description, " +
+           "a.oldValue, a.newValue, a.createdAt, u.id, u.username) " +
+           "FROM TaskActivity a JOIN a.user u WHERE a.seq > :since ORDER BY a.seq")
+    List<TaskActivityView> findViewsSince(@Param("since") long since, Limit limit);
+
+    @Query("SELECT new com.davymbaimbai.dto.TaskActivityView(a.id, a.seq, a.task.id, a.activityType, a.description, " +
+           "a.oldValue, a.newValue, a.createdAt, u.id, u.username) " +
+           "FROM TaskActivity a JOIN a.user u WHERE a.task.id = :taskId AND a.seq > :since ORDER BY a.seq")
+    List<TaskActivityView> findViewsByTaskIdSince(@Param("taskId") Long taskId, @Param("since") long since, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskActivity a WHERE a.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
\ No newline at end of file
@@ -1,13 +1,44 @@
 package com.davymbaimbai.repository;
 
+import com.davymbaimbai.dto.CommentResponse;
 import com.davymbaimbai.entity.TaskComment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TaskCommentRepository extends JpaRepository<TaskComment, Long> {
-    List<TaskComment> findByTaskId(Long taskId, Sort sort);
+    // an explicit path to the foreign key; a derived query joins tasks just to compare its id
+    @Query("SELECT new com.davymbaimbai.dto.CommentResponse(c.id, c.comment, u.username, c.createdAt, c.updatedAt) " +
+           "FROM TaskComment c JOIN c.user u WHERE c.task.id = :taskId")
+    List<CommentResponse> findResponsesByTaskId(@Param("taskId") Long taskId, Sort sort);
+
+    // first keyset page; same order as idx_task_comments_task_created, so no sort step
+    @Query("SELECT new com.davymbaimbai.dto.CommentResponse(c.id, c.comment, u.username, c.createdAt, c.updatedAt) " +
+           "FROM TaskComment c JOIN c.user u WHERE c.task.id = :taskId ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findResponsePage(@Param("taskId") Long taskId, Limit limit);
+
+    @Query("SELECT new com.davymbaimbai.dto.CommentResponse(c.id, c.comment, u.username, c.createdAt, c.updatedAt) " +
+           "FROM TaskComment c JOIN c.user u WHERE c.task.id = :taskId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findResponsePageAfter(@Param("taskId") Long taskId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    @Query("SELECT COUNT(c) FROM TaskComment c WHERE c.task.id = :taskId")
+    long countByTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskComment c WHERE c.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.davymbaimbai.repository;
+
+import com.davymbaimbai.entity.TaskCounter;
+import com.davymbaimbai.enums.CounterScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, Long> {
+    List<TaskCounter> findByScopeAndUserId(CounterScope scope, Long userId);
+}
@@ -1,34 +1,43 @@
 package com.davymbaimbai.repository;
 
+import com.davymbaimbai.dto.TaskView;
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.User;
-import com.davymbaimbai.enums.Priority;
 import com.davymbaimbai.enums.TaskStatus;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+/**
+ * Entities are only loaded to be modified; every read returns {@link TaskView} projections
+ * from {@link TaskViewQueries}.
+ */
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskViewQueries {
 
-    List<Task> findByUser(User user, Sort sort);
-    List<Task> findByCreator(User creator, Sort sort);
-    List<Task> findByAssignee(User assignee, Sort sort);
-    List<Task> findByPriorityAndUser(Priority priority, User user, Sort sort);
-    List<Task> findByStatus(TaskStatus status, Sort sort);
-    List<Task> findByStatusAndAssignee(TaskStatus status, User assignee, Sort sort);
-    List<Task> findByStatusAndCreator(TaskStatus status, User creator, Sort sort);
-    List<Task> findByAssigneeAndCreator(User assignee, User creator, Sort sort);
-    
-    @Query("SELECT t FROM Task t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:assignee IS NULL OR t.assignee = :assignee) AND " +
-           "(:creator IS NULL OR t.creator = :creator)")
-    List<Task> findTasksWithFilters(@Param("status") TaskStatus status, 
-                                   @Param("assignee") User assignee, 
-                                   @Param("creator") User creator, 
-                                   Sort sort);
+    /**
+     * Only the filters that are set become predicates; "(:param IS NULL OR ...)" clauses
+     * cannot use an index.
+     */
+    default List<TaskView> findTasksWithFilters(TaskStatus status, User assignee, User creator, Sort sort) {
+        List<Specification<Task>> clauses = new ArrayList<>();
+        if (status != null) {
+            clauses.add(TaskSpecifications.hasStatus(status));
+        }
+        if (assignee != null) {
+            clauses.add(TaskSpecifications.assignedTo(assignee.getId()));
+        }
+        if (creator != null) {
+            clauses.add(TaskSpecifications.createdBy(creator));
+        }
+        return findViews(Specification.allOf(clauses), sort);
+    }
 
+    default Optional<TaskView> findViewById(Long id) {
+        return findViews(TaskSpecifications.hasId(id), Sort.unsorted(), 1).stream().findFirst();
+    }
 }
@@ -0,0 +1,59 @@
+package com.davymbaimbai.repository;
+
+import com.davymbaimbai.dto.TaskCursor;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Composable predicates for {@link TaskRepository}. Callers only add the clauses they
+ * actually filter on, so the generated SQL stays index friendly.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Task> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<Task> createdBy(User creator) {
+        return (root, query, cb) -> cb.equal(root.get("creator"), creator);
+    }
+
+    public static Specification<Task> assignedTo(Long assigneeId) {
+        return (root, query, cb) -> cb.equal(root.get("assignee").get("id"), assigneeId);
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    /**
+     * Rows strictly after the cursor in (createdAt DESC, id DESC) order.
+     */
+    public static Specification<Task> after(TaskCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -0,0 +1,22 @@
+package com.davymbaimbai.repository;
+
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskView} projections for any {@link TaskSpecifications} filter. The owner, creator
+ * and assignee names are joined in the same statement.
+ */
+public interface TaskViewQueries {
+
+    List<TaskView> findViews(Specification<Task> spec, Sort sort);
+
+    List<TaskView> findViews(Specification<Task> spec, Sort sort, int limit);
+
+    Stream<TaskView> streamViews(Specification<Task> spec, Sort sort);
+}
@@ -0,0 +1,85 @@
+package com.davymbaimbai.repository;
+
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class TaskViewQueriesImpl implements TaskViewQueries {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String QUERY_CACHE_REGION = "task-queries";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskView> findViews(Specification<Task> spec, Sort sort) {
+        return cached(query(spec, sort)).getResultList();
+    }
+
+    @Override
+    public List<TaskView> findViews(Specification<Task> spec, Sort sort, int limit) {
+        return cached(query(spec, sort)).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TaskView> streamViews(Specification<Task> spec, Sort sort) {
+        return query(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    /**
+     * Results are reused until any task or user row is written, or by another instance once
+     * its change reaches the entity change log. Streams are left out, they are read once.
+     */
+    private static TypedQuery<TaskView> cached(TypedQuery<TaskView> query) {
+        return query.setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
+    }
+
+    private TypedQuery<TaskView> query(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskView> query = cb.createQuery(TaskView.class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, User> user = root.join("user");
+        Join<Task, User> creator = root.join("creator");
+        Join<Task, User> assignee = root.join("assignee", JoinType.LEFT);
+        query.select(cb.construct(TaskView.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("status"),
+                root.get("priority"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                user.get("id"),
+                user.get("username"),
+                creator.get("id"),
+                creator.get("username"),
+                assignee.get("id"),
+                assignee.get("username")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+}
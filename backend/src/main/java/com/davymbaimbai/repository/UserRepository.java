@@ -1,13 +1,22 @@
 package com.davymbaimbai.repository;
+import com.davymbaimbai.dto.UserView;
 import com.davymbaimbai.entity.User;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    List<User> findByUsernameIn(Collection<String> usernames);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.davymbaimbai.dto.UserView(u.id, u.username, u.email, u.role, u.createdAt) FROM User u")
+    List<UserView> findAllViews(Sort sort);
 }
@@ -3,6 +3,8 @@ package com.davymbaimbai.security;
 
 
 
+import com.davymbaimbai.config.RequestTrace;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,10 +38,11 @@ public class AuthFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         if (token != null) {
-            String username = jwtUtils.getUsernameFromToken(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            long start = System.nanoTime();
+            Claims claims = jwtUtils.verifyToken(token);
+            UserDetails userDetails = customUserDetailsService.loadUserByUsername(claims.getSubject());
 
-            if (jwtUtils.isTokenValid(token, userDetails)){
+            if (jwtUtils.isTokenValid(claims, userDetails)){
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -47,6 +50,11 @@ public class AuthFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
+            RequestTrace trace = RequestTrace.current();
+            if (trace != null) {
+                trace.setUsername(userDetails.getUsername());
+                trace.add(RequestTrace.AUTH, null, start, System.nanoTime() - start);
+            }
         }
 
         try {
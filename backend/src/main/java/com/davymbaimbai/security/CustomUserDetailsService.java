@@ -15,14 +15,21 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        AuthUser cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(()-> new NotFoundException("User not found"));
 
-        return AuthUser.builder()
-                .user(user)
+        AuthUser authUser = AuthUser.builder()
+                .user(PrincipalCache.snapshot(user))
                 .build();
+        principalCache.put(username, authUser);
+        return authUser;
     }
 }
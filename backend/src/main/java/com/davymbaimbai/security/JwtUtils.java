@@ -1,6 +1,15 @@
 package com.davymbaimbai.security;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import com.davymbaimbai.jfr.JwtValidationEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,23 +19,54 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
 
     private static final long EXPIRATION_TIME = 30L * 24 * 60 * 60 * 1000 ;
     private SecretKey key;
+    private JwtParser parser;
 
     @Value("${secreteJwtString}")
     private String secreteJwtString;
 
+    @Value("${jwt.verified-token-cache.enabled:true}")
+    private boolean verifiedTokenCacheEnabled;
+
+    @Value("${jwt.verified-token-cache.max-size:10000}")
+    private int verifiedTokenCacheMaxSize;
+
+    /**
+     * SHA-256 of an already verified token mapped to its claims, so a client that keeps
+     * sending the same token skips parsing and signature checks until the token expires.
+     * Entries expire with their token, and a full cache evicts the least used ones.
+     */
+    private Cache<String, Claims> verifiedTokens;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private volatile Map<String, Timer> verifyTimers;
+
     @PostConstruct
     private void init(){
         byte[] keyByte = secreteJwtString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheMaxSize)
+                .expireAfter(Expiry.creating((String digest, Claims claims) ->
+                        Duration.ofMillis(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()))))
+                .build();
     }
 
     public String  generateToken(String username){
@@ -38,31 +78,97 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token){
-        return extractClaims(token, Claims::getSubject);
+    /**
+     * Parses the token and checks its signature once, returning all of its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} when the token is malformed, forged or expired.
+     */
+    public Claims verifyToken(String token) {
+        long start = System.nanoTime();
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        String result = "invalid";
+        Claims verified = null;
+        try {
+            if (!verifiedTokenCacheEnabled) {
+                verified = parser.parseSignedClaims(token).getPayload();
+                result = "miss";
+                return verified;
+            }
+            String digest = digest(token);
+            Claims cached = verifiedTokens.getIfPresent(digest);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                result = "hit";
+                verified = cached;
+                return verified;
+            }
+            cacheMisses.incrementAndGet();
+            verified = parser.parseSignedClaims(token).getPayload();
+            if (verified.getExpiration() != null) {
+                verifiedTokens.put(digest, verified);
+            }
+            result = "miss";
+            return verified;
+        } finally {
+            recordVerify(result, System.nanoTime() - start);
+            event.finish(result, verified != null ? verified.getSubject() : null);
+        }
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction){
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    public String getUsernameFromToken(String token){
+        return verifyToken(token).getSubject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
 
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
+    private void recordVerify(String result, long elapsedNanos) {
+        Map<String, Timer> timers = verifyTimers;
+        if (timers != null) {
+            timers.get(result).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<String, Timer> timers = new HashMap<>();
+        for (String result : List.of("hit", "miss", "invalid")) {
+            timers.put(result, Timer.builder("jwt.verify")
+                    .tag("result", result)
+                    .register(registry));
+        }
+        verifyTimers = timers;
+        FunctionCounter.builder("jwt.verified.cache.requests", cacheHits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.verified.cache.requests", cacheMisses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+    }
 
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
 
-
-
-
-
-
+    public long getCacheMissCount() {
+        return cacheMisses.get();
+    }
 }
@@ -0,0 +1,167 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.entity.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Username keyed cache of resolved principals so an authenticated request does not have
+ * to load its user from the database. Entries expire after a fixed TTL; when the cache
+ * grows past its maximum size the least recently used tenth is evicted in one pass.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(@Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+    }
+
+    public AuthUser get(String username) {
+        Entry entry = entries.get(username);
+        long now = System.nanoTime();
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (now - entry.loadedAt >= ttlNanos) {
+            if (entries.remove(username, entry)) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.incrementAndGet();
+        return entry.authUser;
+    }
+
+    public void put(String username, AuthUser authUser) {
+        long now = System.nanoTime();
+        entries.put(username, new Entry(authUser, now));
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Drops every entry for the user, including one cached under a username that has since changed.
+     */
+    public void invalidate(User user) {
+        if (user.getUsername() != null) {
+            entries.remove(user.getUsername());
+        }
+        invalidate(user.getId());
+    }
+
+    /**
+     * Drops the entry of the user with this id, for changes known only by id.
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.authUser.getUser().getId()));
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * A detached copy with only the scalar columns, safe to share across requests and threads.
+     */
+    public static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+
+    private synchronized void evict(long now) {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        int before = entries.size();
+        entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+        int overflow = entries.size() - maxSize;
+        if (overflow > 0) {
+            int toEvict = Math.max(overflow, maxSize / 10);
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .limit(toEvict)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+        evictions.addAndGet(Math.max(0, before - entries.size()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.principal.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth.principal.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("auth.principal.cache.evictions", evictions, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("auth.principal.cache.size", entries, Map::size)
+                .register(registry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static final class Entry {
+        private final AuthUser authUser;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private Entry(AuthUser authUser, long loadedAt) {
+            this.authUser = authUser;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
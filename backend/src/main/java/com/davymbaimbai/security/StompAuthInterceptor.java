@@ -0,0 +1,133 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.config.TaskEventFilter;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Role;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Authenticates STOMP sessions with the bearer token of the REST API, sent as the
+ * Authorization header of the CONNECT frame. The session principal is named by user id, so
+ * {@code /user/queue/tasks} reaches a user's sessions on whichever instance they are connected
+ * to. The global task topic is for admins only, a task's comment and activity topics are for
+ * the users its events go to, and user queues can only be subscribed to through the
+ * {@code /user} prefix. The broker matches subscriptions as Ant patterns, so a destination
+ * with wildcards would reach around these checks and is rejected. A {@link TaskEventFilter} sent with a SUBSCRIBE frame is
+ * compiled here, so an invalid one is answered with an error frame.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String ALL_TASKS = "/topic/tasks";
+    private static final Pattern TASK_TOPIC = Pattern.compile("/topic/tasks/(\\d{1,18})/(comments|activities)");
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final JwtUtils jwtUtils;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final UserRepository userRepository;
+    private final TaskRecipientIndex taskRecipientIndex;
+
+    /**
+     * A connected user; {@link #getName()} is the user id.
+     */
+    public record StompPrincipal(Long userId, String username, boolean admin) implements Principal {
+
+        @Override
+        public String getName() {
+            return String.valueOf(userId);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            StompPrincipal principal = checkSubscription(accessor.getUser(), accessor.getDestination());
+            String filter = accessor.getFirstNativeHeader(TaskEventFilter.NATIVE_HEADER);
+            if (filter != null) {
+                accessor.setHeader(TaskEventFilter.FILTER_HEADER, compileFilter(filter, principal));
+            }
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+        AuthUser authUser;
+        try {
+            Claims claims = jwtUtils.verifyToken(header.substring(7));
+            authUser = (AuthUser) customUserDetailsService.loadUserByUsername(claims.getSubject());
+            if (!jwtUtils.isTokenValid(claims, authUser)) {
+                throw new MessageDeliveryException("Invalid token");
+            }
+        } catch (MessageDeliveryException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+        return new StompPrincipal(authUser.getUser().getId(), authUser.getUsername(),
+                authUser.getUser().getRole() == Role.ADMIN);
+    }
+
+    private StompPrincipal checkSubscription(Principal user, String destination) {
+        if (!(user instanceof StompPrincipal principal)) {
+            throw new MessageDeliveryException("Not authenticated");
+        }
+        if (destination == null || PATH_MATCHER.isPattern(destination)) {
+            throw new MessageDeliveryException("Subscribe to a single destination, without wildcards");
+        }
+        if (destination.startsWith("/queue/")) {
+            throw new MessageDeliveryException("Subscribe to user queues through /user" + destination);
+        }
+        if (principal.admin() || !destination.startsWith("/topic/")) {
+            return principal;
+        }
+        if (ALL_TASKS.equals(destination)) {
+            throw new MessageDeliveryException("Only admins can subscribe to " + ALL_TASKS);
+        }
+        Matcher task = TASK_TOPIC.matcher(destination);
+        if (!task.matches()) {
+            throw new MessageDeliveryException("Unknown destination " + destination);
+        }
+        if (!taskRecipientIndex.recipients(Long.valueOf(task.group(1))).contains(principal.userId())) {
+            throw new MessageDeliveryException("No access to task " + task.group(1));
+        }
+        return principal;
+    }
+
+    private TaskEventFilter compileFilter(String filter, StompPrincipal principal) {
+        try {
+            return TaskEventFilter.compile(filter, principal.userId(), usernames -> userRepository
+                    .findByUsernameIn(usernames).stream()
+                    .collect(Collectors.toMap(User::getUsername, User::getId)));
+        } catch (BadRequestException e) {
+            throw new MessageDeliveryException(e.getMessage());
+        }
+    }
+}
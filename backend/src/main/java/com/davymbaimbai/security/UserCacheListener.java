@@ -0,0 +1,44 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link PrincipalCache} in line with the users table. The entry is dropped as soon as
+ * the change is flushed and again after commit, so a concurrent request cannot re-cache the
+ * old row in between.
+ */
+@Component
+public class UserCacheListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserCacheListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        PrincipalCache cache = principalCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        cache.invalidate(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(user);
+                }
+            });
+        }
+    }
+}
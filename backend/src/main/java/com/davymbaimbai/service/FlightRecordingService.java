@@ -0,0 +1,17 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.dto.FlightRecordingView;
+import com.davymbaimbai.dto.Response;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface FlightRecordingService {
+    Response<FlightRecordingView> startRecording(Integer durationSeconds, String settings);
+
+    Response<FlightRecordingView> stopRecording(Long id);
+
+    Response<List<FlightRecordingView>> getRecordings();
+
+    Path getRecordingFile(Long id);
+}
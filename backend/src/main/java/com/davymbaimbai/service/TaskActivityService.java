@@ -1,5 +1,7 @@
 package com.davymbaimbai.service;
 
+import com.davymbaimbai.dto.ActivityFeedPage;
+import com.davymbaimbai.dto.TaskActivityView;
 import com.davymbaimbai.entity.TaskActivity;
 import com.davymbaimbai.enums.ActivityType;
 import com.davymbaimbai.dto.Response;
@@ -8,7 +10,9 @@ import java.util.List;
 
 public interface TaskActivityService {
     Response<TaskActivity> logActivity(Long taskId, Long userId, ActivityType activityType, String description, String oldValue, String newValue);
-    Response<List<TaskActivity>> getTaskActivities(Long taskId);
+    Response<List<TaskActivityView>> getTaskActivities(Long taskId);
+    Response<ActivityFeedPage> getActivityFeed(Long since, Integer limit);
+    Response<ActivityFeedPage> getTaskActivityFeed(Long taskId, Long since, Integer limit);
     Response<TaskActivity> logTaskCreated(Long taskId, Long userId);
     Response<TaskActivity> logTaskUpdated(Long taskId, Long userId, String description);
     Response<TaskActivity> logStatusChanged(Long taskId, Long userId, String oldStatus, String newStatus);
@@ -0,0 +1,11 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.dto.BulkTaskRequest;
+import com.davymbaimbai.dto.BulkTaskResult;
+import com.davymbaimbai.dto.Response;
+
+import java.util.List;
+
+public interface TaskBulkService {
+    Response<List<BulkTaskResult>> executeBulk(BulkTaskRequest bulkTaskRequest);
+}
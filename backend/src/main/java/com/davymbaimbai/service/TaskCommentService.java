@@ -1,5 +1,6 @@
 package com.davymbaimbai.service;
 
+import com.davymbaimbai.dto.CommentPage;
 import com.davymbaimbai.dto.CommentRequest;
 import com.davymbaimbai.dto.CommentResponse;
 import com.davymbaimbai.dto.Response;
@@ -8,6 +9,7 @@ import java.util.List;
 public interface TaskCommentService {
     Response<CommentResponse> addComment(Long taskId, CommentRequest commentRequest);
     Response<List<CommentResponse>> getTaskComments(Long taskId);
+    Response<CommentPage> getTaskCommentsPage(Long taskId, String after, Integer limit);
     Response<CommentResponse> updateComment(Long commentId, CommentRequest commentRequest);
     Response<Void> deleteComment(Long commentId);
 }
\ No newline at end of file
@@ -1,18 +1,35 @@
 package com.davymbaimbai.service;
+import com.davymbaimbai.dto.CursorPage;
 import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskFacetResult;
 import com.davymbaimbai.dto.TaskRequest;
-import com.davymbaimbai.entity.Task;
-import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.dto.TaskSearchHit;
+import com.davymbaimbai.dto.TaskSummary;
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.entity.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface TaskService {
-    Response<Task> createTask(TaskRequest taskRequest);
-    Response<List<Task>> getAllMyTasks();
-    Response<Task> getTaskById(Long id);
-    Response<Task> updateTask(TaskRequest taskRequest);
+    Response<TaskView> createTask(TaskRequest taskRequest);
+    Response<List<TaskView>> getAllMyTasks();
+    Response<TaskView> getTaskById(Long id);
+    Response<TaskView> updateTask(TaskRequest taskRequest);
     Response<Void> deleteTask(Long id);
-    Response<List<Task>> getMyTasksByCompletionStatus(boolean completed);
-    Response<List<Task>> getMyTasksByPriority(String priority);
-    Response<List<Task>> getTasksWithFilters(String status, Long assigneeId);
-    Response<List<Task>> getAllTasks();
+    Response<Void> watchTask(Long id);
+    Response<Void> unwatchTask(Long id);
+    Response<List<TaskView>> getMyTasksByCompletionStatus(boolean completed);
+    Response<List<TaskView>> getMyTasksByPriority(String priority);
+    Response<List<TaskView>> getTasksWithFilters(String status, Long assigneeId);
+    Response<TaskFacetResult> getTaskFacets(String status, String priority, Long assigneeId,
+                                            Long creatorId, Long ownerId, Long before, Integer limit);
+    Response<List<TaskView>> queryTasks(String query, Integer limit);
+    Response<List<TaskSearchHit>> searchTasks(String query, Integer limit);
+    Response<List<TaskView>> getAllTasks();
+    Response<TaskSummary> getMyTaskSummary();
+    Response<CursorPage<TaskView>> getMyTasksPage(String status, Long assigneeId, String cursor, Integer limit);
+    Response<CursorPage<TaskView>> getAllTasksPage(String cursor, Integer limit);
+    void streamTasks(User owner, OutputStream outputStream) throws IOException;
 }
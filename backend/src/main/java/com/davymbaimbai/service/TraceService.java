@@ -0,0 +1,13 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.RequestTrace;
+import com.davymbaimbai.dto.RequestTraceView;
+import com.davymbaimbai.dto.Response;
+
+import java.util.List;
+
+public interface TraceService {
+    void recordTrace(RequestTrace trace, String method, String uri, int status);
+
+    Response<List<RequestTraceView>> getSlowestTraces(String uri, int minutes, int limit);
+}
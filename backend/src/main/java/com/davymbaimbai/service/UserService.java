@@ -2,6 +2,7 @@ package com.davymbaimbai.service;
 import com.davymbaimbai.dto.Response;
 import com.davymbaimbai.dto.UserRequest;
 import com.davymbaimbai.dto.LoginRequest;
+import com.davymbaimbai.dto.UserView;
 import com.davymbaimbai.entity.User;
 import java.util.List;
 
@@ -9,5 +10,5 @@ public interface UserService {
     Response<?> signUp(UserRequest userRequest);
     Response<?> login(LoginRequest loginRequest);
     User getCurrentLoggedInUser();
-    Response<List<User>> getAllUsers();
+    Response<List<UserView>> getAllUsers();
 }
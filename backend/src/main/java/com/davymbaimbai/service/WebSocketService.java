@@ -1,11 +1,19 @@
 package com.davymbaimbai.service;
 
+import com.davymbaimbai.dto.TaskBatchEventDto;
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.TaskActivity;
 
+import java.util.Set;
+
 public interface WebSocketService {
     void broadcastTaskUpdate(Task task, String action, String username);
-    void broadcastTaskComment(Long taskId, String comment, String username);
+    void broadcastTaskComment(Task task, String comment, String username);
     void broadcastTaskStatusChange(Task task, String oldStatus, String newStatus, String username);
     void broadcastTaskActivity(TaskActivity activity);
+    /**
+     * @param recipients users the event goes to on their own queue, collected by the caller
+     *                   before the tasks were changed
+     */
+    void broadcastTaskBatch(TaskBatchEventDto batchEvent, Set<Long> recipients);
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.ActivityFeedProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives committed activities their feed sequence. An identity or sequence value taken on
+ * insert becomes visible when its transaction commits, so a feed reader could see 102 before
+ * 101 and never look back. Instead, activities are written without a sequence and stamped
+ * here in id order, inside a transaction that holds the lock on the {@code activity_sequence}
+ * row: stamping is serialized across instances and each run commits before the next one
+ * starts, so sequences become visible strictly in order.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivitySequencer {
+
+    private static final String LOCK_SQL = "SELECT last_seq FROM activity_sequence WHERE id = 1 FOR UPDATE";
+    private static final String PENDING_SQL =
+            "SELECT id FROM task_activities WHERE seq IS NULL ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String STAMP_SQL = "UPDATE task_activities SET seq = ? WHERE id = ?";
+    private static final String ADVANCE_SQL = "UPDATE activity_sequence SET last_seq = ? WHERE id = 1";
+
+    private final ActivityFeedProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${activity.feed.sequence-interval-ms:100}")
+    public void sequencePending() {
+        try {
+            // the common case: nothing new, and no need to take the lock to find out
+            if (jdbcTemplate.queryForList(PENDING_SQL, Long.class, 1).isEmpty()) {
+                return;
+            }
+            int stamped;
+            do {
+                stamped = stampBatch();
+            } while (stamped >= properties.getSequenceBatchSize());
+        } catch (RuntimeException e) {
+            log.error("Failed to sequence activities: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return how many activities were stamped
+     */
+    public int stampBatch() {
+        Integer stamped = transactionTemplate.execute(status -> {
+            Long lastSeq = jdbcTemplate.queryForObject(LOCK_SQL, Long.class);
+            List<Long> ids = jdbcTemplate.queryForList(PENDING_SQL, Long.class, properties.getSequenceBatchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            long seq = lastSeq == null ? 0 : lastSeq;
+            List<Object[]> args = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                args.add(new Object[]{++seq, id});
+            }
+            jdbcTemplate.batchUpdate(STAMP_SQL, args);
+            jdbcTemplate.update(ADVANCE_SQL, seq);
+            return ids.size();
+        });
+        return stamped == null ? 0 : stamped;
+    }
+}
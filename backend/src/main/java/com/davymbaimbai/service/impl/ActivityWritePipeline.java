@@ -0,0 +1,334 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.ActivityPipelineProperties;
+import com.davymbaimbai.dto.ActivityEvent;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.TaskActivity;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.ActivityWriteMode;
+import com.davymbaimbai.enums.BackpressurePolicy;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.service.WebSocketService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded queue plus a single background writer that persists task activities with JDBC
+ * batch inserts and broadcasts them in the same transaction. Events raised inside a
+ * transaction are only queued after it commits, so the writer never sees rolled back work.
+ * <p>
+ * Such an event never falls back to a write on the caller thread: the committed transaction
+ * still holds its connection until the commit returns, so the write would need a second one
+ * and can deadlock a saturated pool or bulkhead. It waits up to
+ * {@link ActivityPipelineProperties#getOfferTimeoutMs()} for room in the queue instead and is
+ * dropped if none frees up, trading a lost activity under sustained overload for callers that
+ * cannot hang.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityWritePipeline {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO task_activities (task_id, user_id, activity_type, description, old_value, new_value, created_at) " +
+            "SELECT t.id, ?, ?, ?, ?, ?, ? FROM tasks t WHERE t.id = ?";
+
+    private final ActivityPipelineProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WebSocketService webSocketService;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private BlockingQueue<ActivityEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (properties.getMode() != ActivityWriteMode.ASYNC) {
+            log.info("Activity pipeline running in {} mode", properties.getMode());
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        writer = new Thread(this::drainLoop, "activity-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Hands the event to the background writer.
+     *
+     * @return false when the pipeline runs in SYNC mode and the caller must write the activity itself
+     */
+    public boolean submit(ActivityEvent event) {
+        if (properties.getMode() != ActivityWriteMode.ASYNC || !running) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event, true);
+                }
+            });
+        } else {
+            enqueue(event, false);
+        }
+        return true;
+    }
+
+    private void enqueue(ActivityEvent event, boolean afterCommit) {
+        if (queue.offer(event)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        BackpressurePolicy policy = properties.getBackpressure();
+        if (policy == BackpressurePolicy.DROP) {
+            dropped.incrementAndGet();
+            log.warn("Activity queue full, dropping {} for task {}", event.getActivityType(), event.getTaskId());
+            return;
+        }
+        if (policy == BackpressurePolicy.BLOCK || afterCommit) {
+            try {
+                if (queue.offer(event, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    enqueued.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (afterCommit) {
+            dropped.incrementAndGet();
+            log.warn("Activity queue still full after {}ms, dropping {} for task {}",
+                    properties.getOfferTimeoutMs(), event.getActivityType(), event.getTaskId());
+            return;
+        }
+        callerRuns.incrementAndGet();
+        flush(new ArrayList<>(List.of(event)));
+    }
+
+    private void drainLoop() {
+        int flushSize = properties.getFlushSize();
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<ActivityEvent> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ActivityEvent first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    ActivityEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the events with one JDBC batch in the caller's transaction and skips the per
+     * activity broadcast, for callers that send a single notification of their own. The
+     * tasks must already be flushed.
+     */
+    public void writeAll(List<ActivityEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(events));
+        written.addAndGet(events.size());
+    }
+
+    private void flush(List<ActivityEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ActivityEvent> events = coalesce(batch);
+        try {
+            List<Object[]> args = toArgs(events);
+            Integer stored = transactionTemplate.execute(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                List<ActivityEvent> inserted = new ArrayList<>(events.size());
+                for (int i = 0; i < events.size(); i++) {
+                    // 0 means the task was deleted before the batch reached the database
+                    if (counts == null || counts[i] != 0) {
+                        inserted.add(events.get(i));
+                    }
+                }
+                // the broadcasts go to the outbox, so they commit with the activities
+                broadcast(inserted);
+                return inserted.size();
+            });
+            written.addAndGet(stored == null ? 0 : stored);
+        } catch (RuntimeException e) {
+            failed.addAndGet(events.size());
+            log.error("Failed to write {} activities: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private List<Object[]> toArgs(List<ActivityEvent> events) {
+        return events.stream()
+                .map(event -> new Object[]{
+                        event.getUserId(),
+                        event.getActivityType().name(),
+                        event.getDescription(),
+                        event.getOldValue(),
+                        event.getNewValue(),
+                        Timestamp.valueOf(event.getCreatedAt()),
+                        event.getTaskId()})
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops an event when it repeats the previous event queued for the same task, e.g. the
+     * "Task details updated" entry of two rapid edits.
+     */
+    private List<ActivityEvent> coalesce(List<ActivityEvent> batch) {
+        Map<Long, ActivityEvent> lastByTask = new HashMap<>();
+        List<ActivityEvent> events = new ArrayList<>(batch.size());
+        for (ActivityEvent event : batch) {
+            ActivityEvent previous = lastByTask.put(event.getTaskId(), event);
+            if (Objects.equals(previous, event)) {
+                coalesced.incrementAndGet();
+                continue;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private void broadcast(List<ActivityEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Set<Long> taskIds = events.stream().map(ActivityEvent::getTaskId).collect(Collectors.toSet());
+        Set<Long> userIds = events.stream().map(ActivityEvent::getUserId).collect(Collectors.toSet());
+        // the task's current state goes out with the event for subscription filters
+        Map<Long, Task> tasks = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, title, status, priority, assignee_id FROM tasks WHERE id IN (:ids)",
+                Map.of("ids", taskIds), rs -> {
+                    Task task = new Task();
+                    task.setId(rs.getLong("id"));
+                    task.setTitle(rs.getString("title"));
+                    task.setStatus(TaskStatus.valueOf(rs.getString("status")));
+                    task.setPriority(Priority.valueOf(rs.getString("priority")));
+                    Long assigneeId = rs.getObject("assignee_id", Long.class);
+                    if (assigneeId != null) {
+                        User assignee = new User();
+                        assignee.setId(assigneeId);
+                        task.setAssignee(assignee);
+                    }
+                    tasks.put(task.getId(), task);
+                });
+        Map<Long, String> usernames = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, username FROM users WHERE id IN (:ids)", Map.of("ids", userIds),
+                rs -> { usernames.put(rs.getLong("id"), rs.getString("username")); });
+
+        for (ActivityEvent event : events) {
+            Task task = tasks.get(event.getTaskId());
+            if (task == null) {
+                task = new Task();
+                task.setId(event.getTaskId());
+            }
+            User user = new User();
+            user.setId(event.getUserId());
+            user.setUsername(usernames.get(event.getUserId()));
+
+            TaskActivity activity = new TaskActivity();
+            activity.setTask(task);
+            activity.setUser(user);
+            activity.setActivityType(event.getActivityType());
+            activity.setDescription(event.getDescription());
+            activity.setOldValue(event.getOldValue());
+            activity.setNewValue(event.getNewValue());
+            activity.setCreatedAt(event.getCreatedAt());
+            try {
+                webSocketService.broadcastTaskActivity(activity);
+            } catch (RuntimeException e) {
+                log.warn("Failed to broadcast activity for task {}: {}", event.getTaskId(), e.getMessage());
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getCallerRunsCount() {
+        return callerRuns.get();
+    }
+}
@@ -0,0 +1,61 @@
+package com.davymbaimbai.service.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read position in a table keyed by an identity column. Identity values are taken on insert
+ * but become visible on commit, so a row can appear behind one that was already read. Skipped
+ * values are remembered and asked for again until the gap timeout passes, after which they
+ * are taken to be rolled back. Not thread safe; each reader owns its cursor.
+ */
+public class CommitOrderCursor {
+
+    private static final int MAX_GAPS = 10_000;
+
+    private final long gapTimeoutMs;
+    // values not seen yet, with the time they were first skipped
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private long last;
+
+    public CommitOrderCursor(long start, long gapTimeoutMs) {
+        this.last = start;
+        this.gapTimeoutMs = gapTimeoutMs;
+    }
+
+    /**
+     * Drops expired gaps and returns the condition matching every row not read yet, adding
+     * its parameters to {@code args}.
+     */
+    public String unread(String column, List<Object> args, long now) {
+        gaps.values().removeIf(skippedAt -> now - skippedAt > gapTimeoutMs);
+        args.add(last);
+        if (gaps.isEmpty()) {
+            return column + " > ?";
+        }
+        args.addAll(gaps.keySet());
+        return "(" + column + " > ? OR " + column + " IN ("
+                + String.join(", ", Collections.nCopies(gaps.size(), "?")) + "))";
+    }
+
+    /**
+     * Records a row as read; rows must be handed over in ascending order.
+     */
+    public void read(long value, long now) {
+        if (gaps.remove(value) == null && value > last) {
+            for (long skipped = last + 1; skipped < value && gaps.size() < MAX_GAPS; skipped++) {
+                gaps.put(skipped, now);
+            }
+            last = value;
+        }
+    }
+
+    /**
+     * Highest value below which every row has been read or given up on.
+     */
+    public long readThrough() {
+        return gaps.isEmpty() ? last : Collections.min(gaps.keySet()) - 1;
+    }
+}
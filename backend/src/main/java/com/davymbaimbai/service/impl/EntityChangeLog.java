@@ -0,0 +1,243 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.EntityCacheProperties;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the entity caches of several instances consistent through the shared database. Every
+ * insert, update and delete of a cached entity adds a row to {@code entity_changes} in the
+ * transaction that made it, written after the final flush so it commits or rolls back with
+ * the change. Each instance polls the table for rows written by the others and evicts those
+ * entities and all cached query results; its own writes already updated its cache on commit.
+ * A changed user is also dropped from the {@link PrincipalCache}, so a new role or password
+ * takes effect on every instance within one poll, and changed tasks are reloaded into the
+ * {@link TaskFacetIndex}.
+ * <p>
+ * Sequence numbers are taken on insert but become visible on commit, so the poll reads through
+ * a {@link CommitOrderCursor} that asks for skipped numbers again until
+ * {@link EntityCacheProperties#getSyncGapTimeoutMs()} passes.
+ */
+@Component
+@Slf4j
+public class EntityChangeLog implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Map<Class<?>, String> TRACKED = Map.of(Task.class, "Task", User.class, "User");
+    private static final Map<String, Class<?>> BY_NAME = Map.of("Task", Task.class, "User", User.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO entity_changes (entity_name, entity_id, origin) VALUES (?, ?, ?)";
+
+    private final EntityCacheProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final PrincipalCache principalCache;
+    private final TaskFacetIndex taskFacetIndex;
+    private final Counter remoteEvictions;
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<SharedSessionContractImplementor, Set<Change>> pending = new ConcurrentHashMap<>();
+    private volatile SessionFactoryImplementor sessionFactory;
+    private CommitOrderCursor cursor;
+
+    private record Change(String entity, Long id) {
+    }
+
+    public EntityChangeLog(EntityCacheProperties properties, JdbcTemplate jdbcTemplate,
+                           PrincipalCache principalCache, TaskFacetIndex taskFacetIndex,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.principalCache = principalCache;
+        this.taskFacetIndex = taskFacetIndex;
+        this.remoteEvictions = Counter.builder("entity.cache.remote.evictions")
+                .description("Cached entities evicted because another instance changed them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers this log as a listener of the session factory it is handed to.
+     */
+    public Integrator integrator() {
+        return new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor factory) {
+                EventListenerRegistry listeners = factory.getServiceRegistry().getService(EventListenerRegistry.class);
+                listeners.appendListeners(EventType.POST_INSERT, EntityChangeLog.this);
+                listeners.appendListeners(EventType.POST_UPDATE, EntityChangeLog.this);
+                listeners.appendListeners(EventType.POST_DELETE, EntityChangeLog.this);
+                sessionFactory = factory;
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor factory, SessionFactoryServiceRegistry registry) {
+                sessionFactory = null;
+            }
+        };
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * For writes Hibernate sees no entity events for, such as JPQL bulk deletes. Must run
+     * inside the writing transaction.
+     */
+    public void bulkChanged(Class<?> type, Collection<Long> ids) {
+        String entity = TRACKED.get(type);
+        if (entity == null || ids.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            rows.add(new Object[]{entity, id, origin});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private void changed(EventSource session, EntityPersister persister, Object id) {
+        String name = TRACKED.get(persister.getMappedClass());
+        if (name == null || !properties.isEnabled()) {
+            return;
+        }
+        Set<Change> changes = pending.computeIfAbsent(session, key -> {
+            // runs after the flush on commit, so the rows are written with the last of the changes
+            session.getActionQueue().registerProcess(this::write);
+            session.getActionQueue().registerProcess((success, s) -> pending.remove(s));
+            return new LinkedHashSet<>();
+        });
+        changes.add(new Change(name, (Long) id));
+    }
+
+    private void write(SharedSessionContractImplementor session) {
+        Set<Change> changes = pending.remove(session);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    insert.setString(1, change.entity());
+                    insert.setLong(2, change.id());
+                    insert.setString(3, origin);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${entity-cache.sync-interval-ms:1000}")
+    public synchronized void poll() {
+        SessionFactoryImplementor factory = sessionFactory;
+        if (factory == null || !properties.isEnabled()) {
+            return;
+        }
+        if (cursor == null) {
+            // the cache starts empty, so nothing written before startup needs evicting
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM entity_changes", Long.class);
+            cursor = new CommitOrderCursor(max == null ? 0 : max, properties.getSyncGapTimeoutMs());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT seq, entity_name, entity_id, origin FROM entity_changes WHERE "
+                + cursor.unread("seq", args, now) + " ORDER BY seq LIMIT ?";
+        args.add(properties.getSyncBatchSize());
+
+        Cache cache = factory.getCache();
+        int[] evicted = {0};
+        Set<Long> taskIds = new LinkedHashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            cursor.read(rs.getLong(1), now);
+            Class<?> type = BY_NAME.get(rs.getString(2));
+            if (type != null && !origin.equals(rs.getString(4))) {
+                cache.evictEntityData(type, rs.getLong(3));
+                if (type == User.class) {
+                    principalCache.invalidate(rs.getLong(3));
+                } else if (type == Task.class) {
+                    taskIds.add(rs.getLong(3));
+                }
+                evicted[0]++;
+            }
+        }, args.toArray());
+        if (evicted[0] > 0) {
+            // a changed row can move in or out of any cached list
+            cache.evictQueryRegions();
+            remoteEvictions.increment(evicted[0]);
+            log.debug("Evicted {} entities changed by other instances", evicted[0]);
+        }
+        if (!taskIds.isEmpty()) {
+            try {
+                taskFacetIndex.tasksChanged(taskIds);
+            } catch (RuntimeException e) {
+                // the next rebuild picks them up
+                log.warn("Failed to reload {} tasks into the facet index: {}", taskIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${entity-cache.prune-interval-ms:600000}",
+            fixedDelayString = "${entity-cache.prune-interval-ms:600000}")
+    public void prune() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(properties.getRetentionMinutes()));
+        int deleted = jdbcTemplate.update("DELETE FROM entity_changes WHERE changed_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("Pruned {} entity change rows", deleted);
+        }
+    }
+}
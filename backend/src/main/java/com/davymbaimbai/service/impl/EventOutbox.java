@@ -0,0 +1,472 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.OutboxProperties;
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskBatchEventDto;
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox in front of the {@link TaskEventBus}. Events raised inside a
+ * transaction are written to {@code event_outbox} with one batch just before it commits, so
+ * they exist exactly when the write that raised them does. After the commit a single
+ * dispatcher thread is woken, reads the new rows in id order and publishes them; it also
+ * polls, which is how events written by other instances reach this instance's subscribers.
+ * <p>
+ * Each instance records the id it has published everything up to in
+ * {@code event_outbox_offsets}. Ids skipped over by a transaction that has not committed yet
+ * are read again through a {@link CommitOrderCursor}, so the offset never passes an event
+ * that is still to come.
+ * <p>
+ * Every published event carries its outbox id as its {@code sequence}, and the last frames of
+ * each destination stay in an {@link EventReplayBuffer}, loaded from the table on start. A
+ * client that resubscribes with the highest sequence it has seen is sent what it missed from
+ * there, or a snapshot built from the table when the buffer no longer reaches back that far.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EventOutbox implements MeterBinder {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO event_outbox (destination, payload_type, payload, recipients) VALUES (?, ?, ?, ?)";
+    private static final Map<Class<?>, String> TYPE_NAMES = Map.of(
+            TaskActivityDto.class, "task", TaskBatchEventDto.class, "batch");
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "task", TaskActivityDto.class, "batch", TaskBatchEventDto.class);
+
+    private final OutboxProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TaskEventBus taskEventBus;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    private String consumer;
+    private CommitOrderCursor cursor;
+    private long savedOffset;
+    private EventReplayBuffer replay;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private record Frame(String destination, String type, String payload, String recipients) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        consumer = properties.getConsumerName().isBlank()
+                ? UUID.randomUUID().toString()
+                : properties.getConsumerName();
+        List<Long> offset = jdbcTemplate.queryForList(
+                "SELECT delivered_id FROM event_outbox_offsets WHERE consumer = ?", Long.class, consumer);
+        if (offset.isEmpty()) {
+            // nobody on this instance has subscribed to anything written before it started
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM event_outbox", Long.class);
+            savedOffset = -1;
+            cursor = new CommitOrderCursor(max == null ? 0 : max, properties.getGapTimeoutMs());
+        } else {
+            savedOffset = offset.get(0);
+            cursor = new CommitOrderCursor(savedOffset, properties.getGapTimeoutMs());
+        }
+        replay = warmUp(cursor.readThrough());
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (dispatcher == null) {
+            return;
+        }
+        running = false;
+        wakeups.release();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Adds an event to the current transaction's outbox batch, or writes it straight away
+     * when there is no transaction.
+     */
+    public void append(String destination, Object payload) {
+        if (!properties.isEnabled()) {
+            publishAfterCommit(List.of(destination), payload);
+            return;
+        }
+        append(new Frame(destination, TYPE_NAMES.get(payload.getClass()), toJson(payload), null));
+    }
+
+    /**
+     * Like {@link #append(String, Object)}, for an event that goes to each user's own
+     * {@code /user/queue/...} destination. Every instance sends it to the sessions of those
+     * users connected to it.
+     *
+     * @param queue the destination as the client subscribes to it, without the /user prefix
+     */
+    public void appendToUsers(Collection<Long> userIds, String queue, Object payload) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!properties.isEnabled()) {
+            publishAfterCommit(userIds.stream().map(userId -> userDestination(userId, queue)).toList(), payload);
+            return;
+        }
+        append(new Frame(queue, TYPE_NAMES.get(payload.getClass()), toJson(payload),
+                userIds.stream().map(String::valueOf).collect(Collectors.joining(","))));
+    }
+
+    private void append(Frame frame) {
+        if (frame.type() == null) {
+            throw new IllegalArgumentException("No outbox type for " + frame.destination());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(frame));
+            wakeups.release();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Frame> frames = (List<Frame>) TransactionSynchronizationManager.getResource(this);
+        if (frames == null) {
+            List<Frame> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(batch);
+                }
+
+                @Override
+                public void afterCommit() {
+                    wakeups.release();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EventOutbox.this);
+                }
+            });
+            frames = batch;
+        }
+        frames.add(frame);
+    }
+
+    private void write(List<Frame> frames) {
+        if (frames.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, frames.stream()
+                .map(frame -> new Object[]{frame.destination(), frame.type(), frame.payload(), frame.recipients()})
+                .toList());
+        appended.addAndGet(frames.size());
+    }
+
+    private void publishAfterCommit(List<String> destinations, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    destinations.forEach(destination -> publish(destination, payload));
+                }
+            });
+        } else {
+            destinations.forEach(destination -> publish(destination, payload));
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                dispatchPending();
+                wakeups.tryAcquire(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                // commits that landed while the batch was read are picked up by the next one
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Failed to dispatch outbox events: {}", e.getMessage());
+                try {
+                    Thread.sleep(properties.getPollIntervalMs());
+                } catch (InterruptedException interrupted) {
+                    running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes every committed event not published yet and records the new offset.
+     */
+    public synchronized void dispatchPending() {
+        int read;
+        do {
+            read = dispatchBatch();
+        } while (read >= properties.getBatchSize());
+        long offset = cursor.readThrough();
+        if (offset != savedOffset) {
+            saveOffset(offset);
+            savedOffset = offset;
+        }
+    }
+
+    private int dispatchBatch() {
+        long now = System.currentTimeMillis();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, destination, payload_type, payload, recipients FROM event_outbox WHERE "
+                + cursor.unread("id", args, now) + " ORDER BY id LIMIT ?";
+        args.add(properties.getBatchSize());
+        int[] read = {0};
+        jdbcTemplate.query(sql, rs -> {
+            read[0]++;
+            long id = rs.getLong(1);
+            cursor.read(id, now);
+            try {
+                Object payload = readPayload(id, rs.getString(3), rs.getString(4));
+                for (String destination : destinations(rs.getString(2), rs.getString(5))) {
+                    replay.record(destination, id, payload);
+                    publish(destination, payload);
+                }
+                dispatched.incrementAndGet();
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                failed.incrementAndGet();
+                log.warn("Skipping unreadable outbox event {}: {}", rs.getLong(1), e.getMessage());
+            }
+        }, args.toArray());
+        return read[0];
+    }
+
+    /**
+     * Fills the replay buffers with the newest events up to where dispatching starts.
+     */
+    private EventReplayBuffer warmUp(long start) {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, destination, payload_type, payload, recipients FROM event_outbox " +
+                        "WHERE id <= ? ORDER BY id DESC LIMIT ?",
+                rs -> {
+                    rows.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)});
+                }, start, properties.getReplayWarmUpEvents());
+        Collections.reverse(rows);
+        long coveredFrom = rows.isEmpty() ? start : (long) rows.get(0)[0] - 1;
+        EventReplayBuffer buffer = new EventReplayBuffer(
+                properties.getReplayBufferSize(), properties.getReplayDestinations(), coveredFrom);
+        for (Object[] row : rows) {
+            long id = (long) row[0];
+            try {
+                Object payload = readPayload(id, (String) row[2], (String) row[3]);
+                destinations((String) row[1], (String) row[4]).forEach(destination -> buffer.record(destination, id, payload));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.warn("Skipping unreadable outbox event {}: {}", id, e.getMessage());
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * What a client that subscribed to {@code destination} and has seen every event up to
+     * {@code since} has missed: the frames themselves when the replay buffer still has them,
+     * otherwise a single {@link TaskSnapshotDto}. Frames the client already has may be repeated.
+     *
+     * @param userId the subscriber, for a {@code /user/queue/...} destination; null for a topic
+     */
+    public List<Object> resume(String destination, Long userId, long since) {
+        if (replay == null) {
+            resyncs.incrementAndGet();
+            return List.of(TaskSnapshotDto.builder().action("RESYNC").timestamp(LocalDateTime.now()).build());
+        }
+        List<Object> missed = replay.since(userId != null ? userDestination(userId, destination) : destination, since);
+        if (missed != null) {
+            replayed.incrementAndGet();
+            return missed;
+        }
+        return List.of(snapshot(destination, userId, since));
+    }
+
+    private TaskSnapshotDto snapshot(String destination, Long userId, long since) {
+        Long oldest = jdbcTemplate.queryForObject("SELECT MIN(id) FROM event_outbox", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        if (oldest != null && since + 1 >= oldest) {
+            jdbcTemplate.query("SELECT id, payload_type, payload, recipients FROM event_outbox " +
+                            "WHERE id > ? AND destination = ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        rows.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)});
+                    }, since, destination, properties.getSnapshotMaxEvents() + 1);
+        }
+        if (oldest == null || since + 1 < oldest || rows.size() > properties.getSnapshotMaxEvents()) {
+            resyncs.incrementAndGet();
+            Long latest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM event_outbox", Long.class);
+            return TaskSnapshotDto.builder()
+                    .action("RESYNC")
+                    .sequence(latest)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        }
+        // one entry per task, its latest event, in the order the tasks last changed
+        Map<Long, TaskActivityDto> latest = new LinkedHashMap<>();
+        Set<Long> changed = new LinkedHashSet<>();
+        long sequence = since;
+        for (Object[] row : rows) {
+            long id = (long) row[0];
+            String recipients = (String) row[3];
+            if (userId != null && (recipients == null
+                    || !Arrays.asList(recipients.split(",")).contains(String.valueOf(userId)))) {
+                continue;
+            }
+            sequence = id;
+            try {
+                Object payload = readPayload(id, (String) row[1], (String) row[2]);
+                if (payload instanceof TaskActivityDto event) {
+                    latest.remove(event.getTaskId());
+                    latest.put(event.getTaskId(), event);
+                } else if (payload instanceof TaskBatchEventDto batch) {
+                    changed.addAll(batch.getCreatedTaskIds());
+                    changed.addAll(batch.getUpdatedTaskIds());
+                    changed.addAll(batch.getDeletedTaskIds());
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.warn("Skipping unreadable outbox event {}: {}", id, e.getMessage());
+            }
+        }
+        snapshots.incrementAndGet();
+        return TaskSnapshotDto.builder()
+                .action("SNAPSHOT")
+                .sequence(sequence)
+                .tasks(new ArrayList<>(latest.values()))
+                .changedTaskIds(new ArrayList<>(changed))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private Object readPayload(long id, String type, String json) throws JsonProcessingException {
+        Class<?> payloadType = TYPES.get(type);
+        if (payloadType == null) {
+            throw new IllegalArgumentException("Unknown payload type " + type);
+        }
+        Object payload = objectMapper.readValue(json, payloadType);
+        if (payload instanceof TaskActivityDto event) {
+            event.setSequence(id);
+        } else if (payload instanceof TaskBatchEventDto batch) {
+            batch.setSequence(id);
+        }
+        return payload;
+    }
+
+    private static List<String> destinations(String destination, String recipients) {
+        if (recipients == null) {
+            return List.of(destination);
+        }
+        return Arrays.stream(recipients.split(","))
+                .map(userId -> userDestination(Long.valueOf(userId), destination))
+                .toList();
+    }
+
+    /**
+     * What {@code SimpMessagingTemplate#convertAndSendToUser} sends to; STOMP sessions are
+     * named by user id.
+     */
+    private static String userDestination(Long userId, String queue) {
+        return "/user/" + userId + queue;
+    }
+
+    private void publish(String destination, Object payload) {
+        if (payload instanceof TaskActivityDto event) {
+            taskEventBus.publish(destination, event);
+        } else {
+            taskEventBus.publish(destination, payload);
+        }
+    }
+
+    private void saveOffset(long offset) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update(
+                "UPDATE event_outbox_offsets SET delivered_id = ?, updated_at = ? WHERE consumer = ?",
+                offset, now, consumer);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO event_outbox_offsets (consumer, delivered_id, updated_at) VALUES (?, ?, ?)",
+                    consumer, offset, now);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${websocket.outbox.prune-interval-ms:600000}",
+            fixedDelayString = "${websocket.outbox.prune-interval-ms:600000}")
+    public void prune() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(properties.getRetentionMinutes()));
+        int deleted = jdbcTemplate.update("DELETE FROM event_outbox WHERE created_at < ?", cutoff);
+        jdbcTemplate.update("DELETE FROM event_outbox_offsets WHERE updated_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("Pruned {} outbox events", deleted);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("websocket.outbox.events", appended, AtomicLong::get)
+                .tag("result", "appended")
+                .register(registry);
+        FunctionCounter.builder("websocket.outbox.events", dispatched, AtomicLong::get)
+                .tag("result", "dispatched")
+                .register(registry);
+        FunctionCounter.builder("websocket.outbox.events", failed, AtomicLong::get)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("websocket.resume.requests", replayed, AtomicLong::get)
+                .tag("result", "replayed")
+                .register(registry);
+        FunctionCounter.builder("websocket.resume.requests", snapshots, AtomicLong::get)
+                .tag("result", "snapshot")
+                .register(registry);
+        FunctionCounter.builder("websocket.resume.requests", resyncs, AtomicLong::get)
+                .tag("result", "resync")
+                .register(registry);
+    }
+}
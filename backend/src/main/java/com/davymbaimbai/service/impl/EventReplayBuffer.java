@@ -0,0 +1,91 @@
+package com.davymbaimbai.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The last frames sent to each destination, with their outbox ids, in the order they were
+ * sent. A destination's frames answer a client that resubscribes with the highest id it has
+ * seen, as long as nothing after that id has been dropped yet. Frames are kept in send order
+ * rather than id order because an event that committed late is sent after events with higher
+ * ids, and the client may not have seen it.
+ */
+public class EventReplayBuffer {
+
+    private final int perDestination;
+    private final int maxDestinations;
+    private final Map<String, Ring> rings;
+    // every destination without a ring is known to have had no frames after this id
+    private long coveredFrom;
+
+    private record Entry(long sequence, Object payload) {
+    }
+
+    private static final class Ring {
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private long coveredFrom;
+        private long last;
+
+        private Ring(long coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+    }
+
+    /**
+     * @param coveredFrom the id after which every frame will be recorded
+     */
+    public EventReplayBuffer(int perDestination, int maxDestinations, long coveredFrom) {
+        this.perDestination = perDestination;
+        this.maxDestinations = maxDestinations;
+        this.coveredFrom = coveredFrom;
+        this.rings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+                if (size() <= EventReplayBuffer.this.maxDestinations) {
+                    return false;
+                }
+                EventReplayBuffer.this.coveredFrom = Math.max(EventReplayBuffer.this.coveredFrom, eldest.getValue().last);
+                return true;
+            }
+        };
+    }
+
+    public synchronized void record(String destination, long sequence, Object payload) {
+        Ring ring = rings.computeIfAbsent(destination, key -> new Ring(coveredFrom));
+        ring.entries.addLast(new Entry(sequence, payload));
+        ring.last = Math.max(ring.last, sequence);
+        if (ring.entries.size() > perDestination) {
+            ring.coveredFrom = Math.max(ring.coveredFrom, ring.entries.removeFirst().sequence());
+        }
+    }
+
+    /**
+     * The frames a client that has seen everything up to {@code since} missed, or null when
+     * some of them have already been dropped.
+     */
+    public synchronized List<Object> since(String destination, long since) {
+        Ring ring = rings.get(destination);
+        if (since < (ring != null ? ring.coveredFrom : coveredFrom)) {
+            return null;
+        }
+        List<Object> missed = new ArrayList<>();
+        if (ring == null) {
+            return missed;
+        }
+        boolean afterSeen = false;
+        for (Entry entry : ring.entries) {
+            if (afterSeen || entry.sequence() > since) {
+                missed.add(entry.payload());
+            }
+            afterSeen |= entry.sequence() == since;
+        }
+        return missed;
+    }
+
+    public synchronized int getDestinationCount() {
+        return rings.size();
+    }
+}
@@ -0,0 +1,196 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.FlightRecordingProperties;
+import com.davymbaimbai.dto.FlightRecordingView;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.service.FlightRecordingService;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Starts Java Flight Recorder recordings on demand. Each one is bounded by its duration, so a
+ * forgotten recording stops by itself, and is dumped to {@code jfr.recording.directory} when it
+ * ends. {@code profile} settings add allocation sampling and lock contention over {@code default}.
+ * Only one recording runs at a time.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FlightRecordingServiceImpl implements FlightRecordingService {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final FlightRecordingProperties properties;
+
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+    private final Map<Long, String> recordingSettings = new LinkedHashMap<>();
+
+    @Override
+    public synchronized Response<FlightRecordingView> startRecording(Integer durationSeconds, String settings) {
+        int duration = durationSeconds != null ? durationSeconds : DEFAULT_DURATION_SECONDS;
+        if (duration < 1 || duration > properties.getMaxDurationSeconds()) {
+            throw new BadRequestException("Duration must be between 1 and " + properties.getMaxDurationSeconds() + " seconds");
+        }
+        String settingsName = settings != null ? settings : "profile";
+        if (!SETTINGS.contains(settingsName)) {
+            throw new BadRequestException("Settings must be one of " + SETTINGS);
+        }
+        if (recordings.values().stream().anyMatch(FlightRecordingServiceImpl::isActive)) {
+            throw new BadRequestException("A recording is already running");
+        }
+        Recording recording;
+        try {
+            Path directory = Path.of(properties.getDirectory());
+            Files.createDirectories(directory);
+            recording = new Recording(Configuration.getConfiguration(settingsName));
+            recording.setName("taskmanager-" + FILE_TIMESTAMP.format(Instant.now()));
+            recording.setDuration(Duration.ofSeconds(duration));
+            recording.setMaxSize(properties.getMaxSizeMb() * 1024 * 1024);
+            recording.setToDisk(true);
+            recording.setDestination(directory.resolve(recording.getName() + ".jfr"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare the recording", e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings " + settingsName, e);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        recordingSettings.put(recording.getId(), settingsName);
+        log.info("Started flight recording {} for {}s with {} settings", recording.getName(), duration, settingsName);
+        prune();
+
+        return Response.<FlightRecordingView>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Recording started")
+                .data(view(recording))
+                .build();
+    }
+
+    @Override
+    public synchronized Response<FlightRecordingView> stopRecording(Long id) {
+        Recording recording = find(id);
+        if (isActive(recording)) {
+            recording.stop();
+            log.info("Stopped flight recording {}", recording.getName());
+        }
+        return Response.<FlightRecordingView>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Recording stopped")
+                .data(view(recording))
+                .build();
+    }
+
+    @Override
+    public synchronized Response<List<FlightRecordingView>> getRecordings() {
+        List<FlightRecordingView> views = new ArrayList<>();
+        for (Recording recording : recordings.values()) {
+            views.add(view(recording));
+        }
+        views.sort(Comparator.comparingLong(FlightRecordingView::getId).reversed());
+        return Response.<List<FlightRecordingView>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Recordings retrieved successfully")
+                .data(views)
+                .build();
+    }
+
+    @Override
+    public synchronized Path getRecordingFile(Long id) {
+        Recording recording = find(id);
+        if (isActive(recording)) {
+            throw new BadRequestException("Recording is still running, stop it first");
+        }
+        Path file = recording.getDestination();
+        if (file == null || !Files.exists(file)) {
+            throw new NotFoundException("Recording file not found");
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public synchronized void stopAll() {
+        for (Recording recording : recordings.values()) {
+            if (isActive(recording)) {
+                recording.stop();
+            }
+        }
+    }
+
+    private Recording find(Long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new NotFoundException("Recording not found");
+        }
+        return recording;
+    }
+
+    private void prune() {
+        while (recordings.size() > Math.max(1, properties.getMaxFiles())) {
+            Long oldest = recordings.keySet().iterator().next();
+            Recording recording = recordings.remove(oldest);
+            recordingSettings.remove(oldest);
+            Path file = recording.getDestination();
+            recording.close();
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete old recording {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private FlightRecordingView view(Recording recording) {
+        Path file = recording.getDestination();
+        long size = recording.getSize();
+        if (!isActive(recording) && file != null && Files.exists(file)) {
+            try {
+                size = Files.size(file);
+            } catch (IOException e) {
+                log.warn("Could not read the size of {}: {}", file, e.getMessage());
+            }
+        }
+        return FlightRecordingView.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(isActive(recording) ? "RUNNING" : "STOPPED")
+                .settings(recordingSettings.get(recording.getId()))
+                .startedAt(recording.getStartTime())
+                .durationSeconds(recording.getDuration() != null ? recording.getDuration().toSeconds() : 0)
+                .sizeBytes(size)
+                .build();
+    }
+
+    private static boolean isActive(Recording recording) {
+        RecordingState state = recording.getState();
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+    }
+}
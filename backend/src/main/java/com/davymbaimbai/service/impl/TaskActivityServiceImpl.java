@@ -1,19 +1,29 @@
 package com.davymbaimbai.service.impl;
 
+import com.davymbaimbai.config.ActivityFeedProperties;
+import com.davymbaimbai.dto.ActivityEvent;
+import com.davymbaimbai.dto.ActivityFeedPage;
 import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskActivityView;
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.TaskActivity;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.jfr.ActivityLogEvent;
 import com.davymbaimbai.repository.TaskActivityRepository;
 import com.davymbaimbai.repository.TaskRepository;
 import com.davymbaimbai.repository.UserRepository;
 import com.davymbaimbai.service.TaskActivityService;
 import com.davymbaimbai.service.WebSocketService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -24,9 +34,32 @@ public class TaskActivityServiceImpl implements TaskActivityService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final WebSocketService webSocketService;
+    private final ActivityWritePipeline activityWritePipeline;
+    private final ActivityFeedProperties activityFeedProperties;
     
     @Override
     public Response<TaskActivity> logActivity(Long taskId, Long userId, ActivityType activityType, String description, String oldValue, String newValue) {
+        ActivityLogEvent logEvent = new ActivityLogEvent();
+        logEvent.begin();
+        // a delete removes the task's activities with it, so only the synchronous path can still broadcast it
+        if (activityType != ActivityType.DELETED) {
+            ActivityEvent event = ActivityEvent.builder()
+                    .taskId(taskId)
+                    .userId(userId)
+                    .activityType(activityType)
+                    .description(description)
+                    .oldValue(oldValue)
+                    .newValue(newValue)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            if (activityWritePipeline.submit(event)) {
+                logEvent.finish(activityType.name(), taskId, userId, true);
+                return Response.<TaskActivity>builder()
+                    .statusCode(HttpStatus.ACCEPTED.value())
+                    .message("Activity queued")
+                    .build();
+            }
+        }
         try {
             Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -44,7 +77,8 @@ public class TaskActivityServiceImpl implements TaskActivityService {
             
             TaskActivity savedActivity = taskActivityRepository.save(activity);
             webSocketService.broadcastTaskActivity(savedActivity);
-            
+            logEvent.finish(activityType.name(), taskId, userId, false);
+
             return Response.<TaskActivity>builder()
                 .statusCode(200)
                 .message("Activity logged successfully")
@@ -60,25 +94,74 @@ public class TaskActivityServiceImpl implements TaskActivityService {
     }
     
     @Override
-    public Response<List<TaskActivity>> getTaskActivities(Long taskId) {
+    public Response<List<TaskActivityView>> getTaskActivities(Long taskId) {
         try {
-            List<TaskActivity> activities = taskActivityRepository.findByTaskId(taskId, 
+            List<TaskActivityView> activities = taskActivityRepository.findViewsByTaskId(taskId, 
                 Sort.by(Sort.Direction.DESC, "createdAt"));
             
-            return Response.<List<TaskActivity>>builder()
+            return Response.<List<TaskActivityView>>builder()
                 .statusCode(200)
                 .message("Task activities retrieved successfully")
                 .data(activities)
                 .build();
                 
         } catch (Exception e) {
-            return Response.<List<TaskActivity>>builder()
+            return Response.<List<TaskActivityView>>builder()
                 .statusCode(500)
                 .message("Error retrieving activities: " + e.getMessage())
                 .build();
         }
     }
     
+    @Override
+    public Response<ActivityFeedPage> getActivityFeed(Long since, Integer limit) {
+        long from = validSince(since);
+        int pageSize = pageSize(limit);
+        return feedResponse(taskActivityRepository.findViewsSince(from, Limit.of(pageSize + 1)), from, pageSize);
+    }
+
+    @Override
+    public Response<ActivityFeedPage> getTaskActivityFeed(Long taskId, Long since, Integer limit) {
+        long from = validSince(since);
+        int pageSize = pageSize(limit);
+        List<TaskActivityView> rows = taskActivityRepository.findViewsByTaskIdSince(taskId, from, Limit.of(pageSize + 1));
+        if (rows.isEmpty() && !taskRepository.existsById(taskId)) {
+            throw new NotFoundException("Task not found");
+        }
+        return feedResponse(rows, from, pageSize);
+    }
+
+    private static long validSince(Long since) {
+        if (since == null) {
+            return 0;
+        }
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        return since;
+    }
+
+    private int pageSize(Integer limit) {
+        int maxLimit = activityFeedProperties.getMaxLimit();
+        return limit == null ? Math.min(activityFeedProperties.getDefaultLimit(), maxLimit)
+                : Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    private static Response<ActivityFeedPage> feedResponse(List<TaskActivityView> rows, long since, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskActivityView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        ActivityFeedPage page = ActivityFeedPage.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextSince(items.isEmpty() ? since : items.get(items.size() - 1).getSeq())
+                .build();
+        return Response.<ActivityFeedPage>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Activities retrieved successfully")
+                .data(page)
+                .build();
+    }
+
     @Override
     public Response<TaskActivity> logTaskCreated(Long taskId, Long userId) {
         return logActivity(taskId, userId, ActivityType.CREATED, 
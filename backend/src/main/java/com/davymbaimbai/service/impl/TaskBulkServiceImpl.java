@@ -0,0 +1,413 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.dto.ActivityEvent;
+import com.davymbaimbai.dto.BulkTaskOperation;
+import com.davymbaimbai.dto.BulkTaskRequest;
+import com.davymbaimbai.dto.BulkTaskResult;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskBatchEventDto;
+import com.davymbaimbai.dto.TaskRequest;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.enums.BulkOperationType;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.repository.TaskActivityRepository;
+import com.davymbaimbai.repository.TaskCommentRepository;
+import com.davymbaimbai.repository.TaskRepository;
+import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.service.TaskBulkService;
+import com.davymbaimbai.service.UserService;
+import com.davymbaimbai.service.WebSocketService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of create/update/delete operations in one transaction. Tasks and assignees
+ * are loaded with one query each, inserts and updates go out as JDBC batches on flush,
+ * deletes are single IN statements, and the whole request produces one activity batch and
+ * one WebSocket notification. An operation that fails validation is reported in its result
+ * without affecting the others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBulkServiceImpl implements TaskBulkService {
+    private static final int MAX_OPERATIONS = 1000;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskCommentRepository taskCommentRepository;
+    private final TaskActivityRepository taskActivityRepository;
+    private final UserService userService;
+    private final ActivityWritePipeline activityWritePipeline;
+    private final WebSocketService webSocketService;
+    private final EntityManager entityManager;
+    private final TaskCounterStore taskCounterStore;
+    private final TaskFacetIndex taskFacetIndex;
+    private final TaskSearchIndex taskSearchIndex;
+    private final EntityChangeLog entityChangeLog;
+    private final TaskRecipientIndex taskRecipientIndex;
+    private final Validator validator;
+
+    @Override
+    @Transactional
+    public Response<List<BulkTaskResult>> executeBulk(BulkTaskRequest bulkTaskRequest) {
+        log.info("inside executeBulk()");
+        List<BulkTaskOperation> operations = bulkTaskRequest == null ? null : bulkTaskRequest.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("At least one operation is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("A bulk request is limited to " + MAX_OPERATIONS + " operations");
+        }
+        User currentUser = userService.getCurrentLoggedInUser();
+        Map<Long, Task> tasks = loadTasks(operations);
+        Map<Long, User> assignees = loadAssignees(operations);
+
+        Batch batch = new Batch(currentUser, LocalDateTime.now());
+        List<BulkTaskResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BulkTaskOperation operation = operations.get(i);
+            try {
+                Task task = apply(operation, tasks, assignees, batch);
+                results.add(BulkTaskResult.builder()
+                        .index(i)
+                        .operation(operation.getOperation())
+                        .taskId(task.getId())
+                        .success(true)
+                        .build());
+            } catch (BadRequestException | NotFoundException e) {
+                results.add(BulkTaskResult.builder()
+                        .index(i)
+                        .operation(operation.getOperation())
+                        .taskId(operation.getId())
+                        .success(false)
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+
+        // push the batched inserts and updates before the IN deletes and the activity insert
+        entityManager.flush();
+        if (!batch.deleted.isEmpty()) {
+            taskCommentRepository.deleteByTaskIds(batch.deleted);
+            taskActivityRepository.deleteByTaskIds(batch.deleted);
+            taskRepository.deleteAllByIdInBatch(batch.deleted);
+            // a JPQL delete fires no entity events, so other instances are told here
+            entityChangeLog.bulkChanged(Task.class, batch.deleted);
+        }
+        activityWritePipeline.writeAll(batch.activities());
+        taskCounterStore.apply(batch.counterDelta());
+        taskFacetIndex.tasksSaved(batch.created.values());
+        taskFacetIndex.tasksSaved(batch.updated.values());
+        taskFacetIndex.tasksDeleted(batch.deleted);
+        taskSearchIndex.tasksChanged(batch.created.keySet());
+        taskSearchIndex.tasksChanged(batch.updated.keySet());
+        taskSearchIndex.tasksChanged(batch.deleted);
+        taskRecipientIndex.tasksChanged(batch.updated.keySet());
+        taskRecipientIndex.tasksChanged(batch.deleted);
+        broadcast(batch);
+
+        long succeeded = results.stream().filter(BulkTaskResult::isSuccess).count();
+        return Response.<List<BulkTaskResult>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message(String.format("%d of %d operations succeeded", succeeded, results.size()))
+                .data(results)
+                .build();
+    }
+
+    private Task apply(BulkTaskOperation operation, Map<Long, Task> tasks, Map<Long, User> assignees, Batch batch) {
+        if (operation == null || operation.getOperation() == null) {
+            throw new BadRequestException("Operation type is required");
+        }
+        if (operation.getOperation() == BulkOperationType.CREATE) {
+            Task task = create(operation, assignees, batch);
+            tasks.put(task.getId(), task);
+            return task;
+        }
+        if (operation.getId() == null) {
+            throw new BadRequestException("Task id is required for " + operation.getOperation());
+        }
+        Task task = tasks.get(operation.getId());
+        if (task == null) {
+            throw new NotFoundException("Task not found");
+        }
+        if (operation.getOperation() == BulkOperationType.DELETE) {
+            if (batch.created.containsKey(task.getId())) {
+                throw new BadRequestException("A task created in this request cannot be deleted in it");
+            }
+            tasks.remove(task.getId());
+            // the index can no longer load a deleted task, so its recipients are taken now
+            batch.recipients.addAll(taskRecipientIndex.recipients(task));
+            batch.delete(task);
+            // keep the flush from updating a row that is about to be deleted
+            entityManager.detach(task);
+            return task;
+        }
+        update(task, operation, assignees, batch);
+        return task;
+    }
+
+    private Task create(BulkTaskOperation operation, Map<Long, User> assignees, Batch batch) {
+        if (operation.getTitle() == null || operation.getTitle().isBlank()) {
+            throw new BadRequestException("Title cannot be empty");
+        }
+        if (operation.getPriority() == null) {
+            throw new BadRequestException("Priority is required");
+        }
+        validateFields(operation);
+        Task task = Task.builder()
+                .title(operation.getTitle())
+                .description(operation.getDescription())
+                .status(operation.getStatus() != null ? operation.getStatus() : TaskStatus.TODO)
+                .priority(operation.getPriority())
+                .createdAt(batch.now)
+                .updatedAt(batch.now)
+                .creator(batch.user)
+                .assignee(findAssignee(operation.getAssigneeId(), assignees))
+                .user(batch.user)
+                .build();
+        // the sequence hands out the id here; the INSERT itself is batched on flush
+        Task saved = taskRepository.save(task);
+        batch.created.put(saved.getId(), saved);
+        return saved;
+    }
+
+    private void update(Task task, BulkTaskOperation operation, Map<Long, User> assignees, Batch batch) {
+        User currentUser = batch.user;
+        if (!task.getCreator().getId().equals(currentUser.getId()) &&
+            (task.getAssignee() == null || !task.getAssignee().getId().equals(currentUser.getId()))) {
+            throw new BadRequestException("You don't have permission to update this task");
+        }
+        validateFields(operation);
+        TaskStatus status = operation.getStatus();
+        if (status != null && task.getStatus() != status && !task.getStatus().canTransitionTo(status)) {
+            throw new BadRequestException("Invalid status transition from " + task.getStatus() + " to " + status);
+        }
+        User assignee = findAssignee(operation.getAssigneeId(), assignees);
+
+        // before the change, so a previous assignee still hears about it
+        batch.recipients.addAll(taskRecipientIndex.recipients(task));
+        batch.touch(task);
+        if (operation.getTitle() != null || operation.getDescription() != null) {
+            batch.detailsChanged.add(task.getId());
+        }
+        if (operation.getTitle() != null) task.setTitle(operation.getTitle());
+        if (operation.getDescription() != null) task.setDescription(operation.getDescription());
+        if (status != null) task.setStatus(status);
+        if (operation.getPriority() != null) task.setPriority(operation.getPriority());
+        if (assignee != null) task.setAssignee(assignee);
+        task.setUpdatedAt(batch.now);
+        if (!batch.created.containsKey(task.getId())) {
+            batch.updated.put(task.getId(), task);
+        }
+    }
+
+    /**
+     * Checks the fields the operation sets against the constraints of {@link TaskRequest}, so a
+     * bulk request accepts the same values as the single task endpoints.
+     */
+    private void validateFields(BulkTaskOperation operation) {
+        validate("title", operation.getTitle());
+        validate("description", operation.getDescription());
+    }
+
+    private void validate(String property, String value) {
+        if (value == null) {
+            return;
+        }
+        validator.validateValue(TaskRequest.class, property, value).stream().findFirst().ifPresent(violation -> {
+            throw new BadRequestException(violation.getMessage());
+        });
+    }
+
+    private User findAssignee(Long assigneeId, Map<Long, User> assignees) {
+        if (assigneeId == null) {
+            return null;
+        }
+        User assignee = assignees.get(assigneeId);
+        if (assignee == null) {
+            throw new NotFoundException("Assignee not found");
+        }
+        return assignee;
+    }
+
+    private Map<Long, Task> loadTasks(List<BulkTaskOperation> operations) {
+        Set<Long> ids = operations.stream()
+                .filter(Objects::nonNull)
+                .filter(operation -> operation.getOperation() != BulkOperationType.CREATE)
+                .map(BulkTaskOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private Map<Long, User> loadAssignees(List<BulkTaskOperation> operations) {
+        Set<Long> ids = operations.stream()
+                .filter(Objects::nonNull)
+                .map(BulkTaskOperation::getAssigneeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private void broadcast(Batch batch) {
+        if (batch.created.isEmpty() && batch.updated.isEmpty() && batch.deleted.isEmpty()) {
+            return;
+        }
+        TaskBatchEventDto event = TaskBatchEventDto.builder()
+                .action("TASKS_BULK_UPDATED")
+                .username(batch.user.getUsername())
+                .createdTaskIds(new ArrayList<>(batch.created.keySet()))
+                .updatedTaskIds(new ArrayList<>(batch.updated.keySet()))
+                .deletedTaskIds(new ArrayList<>(batch.deleted))
+                .timestamp(batch.now)
+                .build();
+        batch.created.values().forEach(task -> batch.recipients.addAll(taskRecipientIndex.recipients(task)));
+        batch.updated.values().forEach(task -> batch.recipients.addAll(taskRecipientIndex.recipients(task)));
+        // goes out through the outbox, so only once the batch commits
+        webSocketService.broadcastTaskBatch(event, batch.recipients);
+    }
+
+    /**
+     * What the request has done so far.
+     */
+    private static final class Batch {
+        private final User user;
+        private final LocalDateTime now;
+        private final Map<Long, Task> created = new LinkedHashMap<>();
+        private final Map<Long, Task> updated = new LinkedHashMap<>();
+        private final Map<Long, Original> originals = new HashMap<>();
+        private final Set<Long> detailsChanged = new HashSet<>();
+        private final Map<Long, TaskCounterStore.Snapshot> counted = new HashMap<>();
+        private final Set<Long> deleted = new LinkedHashSet<>();
+        private final Set<Long> recipients = new LinkedHashSet<>();
+
+        private Batch(User user, LocalDateTime now) {
+            this.user = user;
+            this.now = now;
+        }
+
+        /**
+         * Remembers the state of a stored task before this request first changes it.
+         */
+        private void touch(Task task) {
+            if (!created.containsKey(task.getId())) {
+                originals.putIfAbsent(task.getId(),
+                        new Original(task.getStatus(), task.getPriority(), task.getAssignee()));
+                counted.putIfAbsent(task.getId(), TaskCounterStore.snapshot(task));
+            }
+        }
+
+        private void delete(Task task) {
+            touch(task);
+            deleted.add(task.getId());
+            updated.remove(task.getId());
+        }
+
+        private TaskCounterStore.Delta counterDelta() {
+            TaskCounterStore.Delta delta = new TaskCounterStore.Delta();
+            created.values().forEach(delta::created);
+            updated.values().forEach(task -> delta.changed(counted.get(task.getId()), task));
+            deleted.forEach(id -> delta.removed(counted.get(id)));
+            return delta;
+        }
+
+        private List<ActivityEvent> activities() {
+            List<ActivityEvent> events = new ArrayList<>(created.size() + updated.size());
+            for (Task task : created.values()) {
+                events.add(event(task, ActivityType.CREATED, "Task was created", null, null));
+            }
+            for (Task task : updated.values()) {
+                updateEvents(task, events);
+            }
+            return events;
+        }
+
+        /**
+         * The same activities the single task update logs.
+         */
+        private void updateEvents(Task task, List<ActivityEvent> events) {
+            Original original = originals.get(task.getId());
+            boolean changed = false;
+            if (original.status() != task.getStatus()) {
+                events.add(event(task, ActivityType.STATUS_CHANGED,
+                        String.format("Status changed from %s to %s", original.status(), task.getStatus()),
+                        original.status().toString(), task.getStatus().toString()));
+                changed = true;
+            }
+            if (original.priority() != task.getPriority()) {
+                String oldPriority = original.priority() != null ? original.priority().toString() : "None";
+                String newPriority = task.getPriority() != null ? task.getPriority().toString() : "None";
+                events.add(event(task, ActivityType.PRIORITY_CHANGED,
+                        String.format("Priority changed from %s to %s", oldPriority, newPriority),
+                        oldPriority, newPriority));
+                changed = true;
+            }
+            User oldAssignee = original.assignee();
+            User newAssignee = task.getAssignee();
+            if (!Objects.equals(oldAssignee != null ? oldAssignee.getId() : null,
+                    newAssignee != null ? newAssignee.getId() : null)) {
+                if (oldAssignee != null) {
+                    events.add(event(task, ActivityType.UNASSIGNED,
+                            String.format("Task unassigned from %s", oldAssignee.getUsername()),
+                            oldAssignee.getUsername(), null));
+                }
+                if (newAssignee != null) {
+                    events.add(event(task, ActivityType.ASSIGNED,
+                            String.format("Task assigned to %s", newAssignee.getUsername()),
+                            null, newAssignee.getUsername()));
+                }
+                changed = true;
+            }
+            if (changed || detailsChanged.contains(task.getId())) {
+                events.add(event(task, ActivityType.UPDATED, "Task details updated", null, null));
+            }
+        }
+
+        private record Original(TaskStatus status, Priority priority, User assignee) {
+        }
+
+        private ActivityEvent event(Task task, ActivityType type, String description, String oldValue, String newValue) {
+            return ActivityEvent.builder()
+                    .taskId(task.getId())
+                    .userId(user.getId())
+                    .activityType(type)
+                    .description(description)
+                    .oldValue(oldValue)
+                    .newValue(newValue)
+                    .createdAt(now)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.repository.TaskCommentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Comment count per task, counted once over the task's index range and then served from
+ * memory. A comment write drops the task's entry instead of adjusting it, so a count loaded
+ * while the write was in flight can never be off by one; the next read recounts. Writes made
+ * by other instances are picked up when the entry expires.
+ */
+@Component
+public class TaskCommentCounts implements MeterBinder {
+
+    private final TaskCommentRepository commentRepository;
+    private final Cache<Long, Long> counts;
+
+    public TaskCommentCounts(TaskCommentRepository commentRepository,
+                             @Value("${tasks.comments.count-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${tasks.comments.count-cache.max-size:10000}") long maxSize) {
+        this.commentRepository = commentRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public long count(Long taskId) {
+        return counts.get(taskId, commentRepository::countByTaskId);
+    }
+
+    /**
+     * Drops the count now and again once the surrounding transaction commits, so a read
+     * between the two cannot put back the count from before the write.
+     */
+    public void commentsChanged(Long taskId) {
+        counts.invalidate(taskId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.invalidate(taskId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(counts, "task.comment.counts", List.of()).bindTo(registry);
+    }
+}
@@ -1,5 +1,7 @@
 package com.davymbaimbai.service.impl;
 
+import com.davymbaimbai.dto.CommentCursor;
+import com.davymbaimbai.dto.CommentPage;
 import com.davymbaimbai.dto.CommentRequest;
 import com.davymbaimbai.dto.CommentResponse;
 import com.davymbaimbai.dto.Response;
@@ -8,6 +10,7 @@ import com.davymbaimbai.entity.TaskComment;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.exceptions.BadRequestException;
 import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.jfr.CommentOperationEvent;
 import com.davymbaimbai.repository.TaskCommentRepository;
 import com.davymbaimbai.repository.TaskRepository;
 import com.davymbaimbai.service.TaskCommentService;
@@ -16,17 +19,20 @@ import com.davymbaimbai.service.UserService;
 import com.davymbaimbai.service.WebSocketService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class TaskCommentServiceImpl implements TaskCommentService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Autowired
     private TaskCommentRepository commentRepository;
@@ -43,9 +49,18 @@ public class TaskCommentServiceImpl implements TaskCommentService {
     @Autowired
     private TaskActivityService taskActivityService;
 
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskCommentCounts taskCommentCounts;
+
     @Override
+    @Transactional
     public Response<CommentResponse> addComment(Long taskId, CommentRequest commentRequest) {
         log.info("Adding comment to task: {}", taskId);
+        CommentOperationEvent event = new CommentOperationEvent("ADD");
+        event.begin();
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Task not found"));
         User currentUser = userService.getCurrentLoggedInUser();
@@ -54,9 +69,12 @@ public class TaskCommentServiceImpl implements TaskCommentService {
         comment.setUser(currentUser);
         comment.setComment(commentRequest.getComment());
         TaskComment savedComment = commentRepository.save(comment);
+        taskCommentCounts.commentsChanged(taskId);
+        taskSearchIndex.taskChanged(taskId);
         taskActivityService.logCommentAdded(taskId, currentUser.getId(), commentRequest.getComment());
         
-        webSocketService.broadcastTaskComment(taskId, commentRequest.getComment(), currentUser.getUsername());
+        webSocketService.broadcastTaskComment(task, commentRequest.getComment(), currentUser.getUsername());
+        event.finish(savedComment.getId(), taskId, currentUser.getId());
         CommentResponse response = CommentResponse.builder()
                 .id(savedComment.getId())
                 .comment(savedComment.getComment())
@@ -74,19 +92,12 @@ public class TaskCommentServiceImpl implements TaskCommentService {
     @Override
     public Response<List<CommentResponse>> getTaskComments(Long taskId) {
         log.info("Getting comments for task: {}", taskId);
-        taskRepository.findById(taskId)
-                .orElseThrow(() -> new NotFoundException("Task not found"));
-        List<TaskComment> comments = commentRepository.findByTaskId(taskId, 
+        List<CommentResponse> commentResponses = commentRepository.findResponsesByTaskId(taskId, 
                 Sort.by(Sort.Direction.ASC, "createdAt"));
-        List<CommentResponse> commentResponses = comments.stream()
-                .map(comment -> CommentResponse.builder()
-                        .id(comment.getId())
-                        .comment(comment.getComment())
-                        .username(comment.getUser().getUsername())
-                        .createdAt(comment.getCreatedAt())
-                        .updatedAt(comment.getUpdatedAt())
-                        .build())
-                .collect(Collectors.toList());
+        // comments can only exist on a task that exists
+        if (commentResponses.isEmpty() && !taskRepository.existsById(taskId)) {
+            throw new NotFoundException("Task not found");
+        }
         return Response.<List<CommentResponse>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Comments retrieved successfully")
@@ -95,8 +106,41 @@ public class TaskCommentServiceImpl implements TaskCommentService {
     }
 
     @Override
+    public Response<CommentPage> getTaskCommentsPage(Long taskId, String after, Integer limit) {
+        log.info("Getting comment page for task: {}", taskId);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<CommentResponse> rows;
+        if (after != null && !after.isEmpty()) {
+            CommentCursor cursor = CommentCursor.decode(after);
+            rows = commentRepository.findResponsePageAfter(taskId, cursor.getCreatedAt(), cursor.getId(),
+                    Limit.of(pageSize + 1));
+        } else {
+            rows = commentRepository.findResponsePage(taskId, Limit.of(pageSize + 1));
+            if (rows.isEmpty() && !taskRepository.existsById(taskId)) {
+                throw new NotFoundException("Task not found");
+            }
+        }
+        boolean hasMore = rows.size() > pageSize;
+        List<CommentResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        CommentPage page = CommentPage.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? CommentCursor.of(items.get(items.size() - 1)).encode() : null)
+                .totalCount(taskCommentCounts.count(taskId))
+                .build();
+        return Response.<CommentPage>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Comments retrieved successfully")
+                .data(page)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public Response<CommentResponse> updateComment(Long commentId, CommentRequest commentRequest) {
         log.info("Updating comment: {}", commentId);
+        CommentOperationEvent event = new CommentOperationEvent("UPDATE");
+        event.begin();
         TaskComment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new NotFoundException("Comment not found"));
         
@@ -109,9 +153,11 @@ public class TaskCommentServiceImpl implements TaskCommentService {
         comment.setComment(commentRequest.getComment());
         comment.setUpdatedAt(LocalDateTime.now());
         TaskComment updatedComment = commentRepository.save(comment);
-        webSocketService.broadcastTaskComment(comment.getTask().getId(), 
+        taskSearchIndex.taskChanged(comment.getTask().getId());
+        webSocketService.broadcastTaskComment(comment.getTask(), 
                 commentRequest.getComment(), currentUser.getUsername());
-        
+        event.finish(commentId, comment.getTask().getId(), currentUser.getId());
+
         CommentResponse response = CommentResponse.builder()
                 .id(updatedComment.getId())
                 .comment(updatedComment.getComment())
@@ -128,8 +174,11 @@ public class TaskCommentServiceImpl implements TaskCommentService {
     }
 
     @Override
+    @Transactional
     public Response<Void> deleteComment(Long commentId) {
         log.info("Deleting comment: {}", commentId);
+        CommentOperationEvent event = new CommentOperationEvent("DELETE");
+        event.begin();
         TaskComment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new NotFoundException("Comment not found"));
         
@@ -140,11 +189,13 @@ public class TaskCommentServiceImpl implements TaskCommentService {
         }
         
         Long taskId = comment.getTask().getId();
-        webSocketService.broadcastTaskComment(taskId, 
-                "Comment deleted", currentUser.getUsername());
-        
         commentRepository.deleteById(commentId);
-        
+        taskCommentCounts.commentsChanged(taskId);
+        taskSearchIndex.taskChanged(taskId);
+        webSocketService.broadcastTaskComment(comment.getTask(), 
+                "Comment deleted", currentUser.getUsername());
+        event.finish(commentId, taskId, currentUser.getId());
+
         return Response.<Void>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Comment deleted successfully")
@@ -0,0 +1,291 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.dto.TaskSummary;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.TaskCounter;
+import com.davymbaimbai.enums.CounterScope;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.repository.TaskCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Denormalized task counts per owner and per assignee, broken down by status and priority.
+ * Every task write applies its delta in the writer's transaction, so reading a summary costs
+ * at most one row per status/priority pair no matter how many tasks a user has. A periodic
+ * reconcile recounts from the tasks table and repairs rows that have drifted, e.g. after
+ * seeding or a cascade delete of a user.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCounterStore {
+
+    // one statement per counter, so a row created by a concurrent writer never fails the caller's transaction
+    private static final String POSTGRES_INCREMENT_SQL =
+            "INSERT INTO task_counters (scope, user_id, status, priority, task_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (scope, user_id, status, priority) " +
+            "DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count";
+    private static final String MERGE_INCREMENT_SQL =
+            "MERGE INTO task_counters t USING (SELECT CAST(? AS VARCHAR(32)) AS scope, CAST(? AS BIGINT) AS user_id, " +
+            "CAST(? AS VARCHAR(32)) AS status, CAST(? AS VARCHAR(32)) AS priority, CAST(? AS BIGINT) AS delta) s " +
+            "ON t.scope = s.scope AND t.user_id = s.user_id AND t.status = s.status AND t.priority = s.priority " +
+            "WHEN MATCHED THEN UPDATE SET task_count = t.task_count + s.delta " +
+            "WHEN NOT MATCHED THEN INSERT (scope, user_id, status, priority, task_count) " +
+            "VALUES (s.scope, s.user_id, s.status, s.priority, s.delta)";
+    private static final String LOCK_SQL =
+            "SELECT scope, user_id, status, priority, task_count FROM task_counters " +
+            "ORDER BY scope, user_id, status, priority FOR UPDATE";
+    private static final String SET_SQL =
+            "UPDATE task_counters SET task_count = ? " +
+            "WHERE scope = ? AND user_id = ? AND status = ? AND priority = ?";
+
+    private final TaskCounterRepository taskCounterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile String incrementSql;
+
+    /**
+     * The counted columns of a task, taken before it is modified.
+     */
+    @Value
+    public static class Snapshot {
+        Long ownerId;
+        Long assigneeId;
+        TaskStatus status;
+        Priority priority;
+    }
+
+    /**
+     * Counter changes collected over one or more task writes and applied together.
+     */
+    public static class Delta {
+        private final Map<Key, Long> changes = new HashMap<>();
+
+        public Delta created(Task task) {
+            return add(snapshot(task), 1);
+        }
+
+        public Delta deleted(Task task) {
+            return removed(snapshot(task));
+        }
+
+        public Delta removed(Snapshot before) {
+            return add(before, -1);
+        }
+
+        public Delta changed(Snapshot before, Task after) {
+            return add(before, -1).add(snapshot(after), 1);
+        }
+
+        private Delta add(Snapshot snapshot, long sign) {
+            if (snapshot.getStatus() == null || snapshot.getPriority() == null) {
+                return this;
+            }
+            if (snapshot.getOwnerId() != null) {
+                changes.merge(new Key(CounterScope.OWNER, snapshot.getOwnerId(),
+                        snapshot.getStatus(), snapshot.getPriority()), sign, Long::sum);
+            }
+            if (snapshot.getAssigneeId() != null) {
+                changes.merge(new Key(CounterScope.ASSIGNEE, snapshot.getAssigneeId(),
+                        snapshot.getStatus(), snapshot.getPriority()), sign, Long::sum);
+            }
+            return this;
+        }
+    }
+
+    @Value
+    private static class Key {
+        // the order the reconcile locks rows in, so a writer never waits on it while holding one it needs
+        static final Comparator<Key> LOCK_ORDER = Comparator.<Key, String>comparing(key -> key.getScope().name())
+                .thenComparing(Key::getUserId)
+                .thenComparing(key -> key.getStatus().name())
+                .thenComparing(key -> key.getPriority().name());
+
+        CounterScope scope;
+        Long userId;
+        TaskStatus status;
+        Priority priority;
+    }
+
+    public static Snapshot snapshot(Task task) {
+        return new Snapshot(
+                task.getUser() != null ? task.getUser().getId() : null,
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getStatus(),
+                task.getPriority());
+    }
+
+    public void taskCreated(Task task) {
+        apply(new Delta().created(task));
+    }
+
+    public void taskChanged(Snapshot before, Task after) {
+        apply(new Delta().changed(before, after));
+    }
+
+    public void taskDeleted(Task task) {
+        apply(new Delta().deleted(task));
+    }
+
+    /**
+     * Applies the delta in the caller's transaction with one upsert per counter that moved, so
+     * the row is created the first time a combination is seen. Rows are written in the order
+     * the reconcile locks them.
+     */
+    public void apply(Delta delta) {
+        delta.changes.entrySet().stream().sorted(Map.Entry.comparingByKey(Key.LOCK_ORDER)).forEach(entry -> {
+            if (entry.getValue() != 0) {
+                increment(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private void increment(Key key, long change) {
+        jdbcTemplate.update(incrementSql(), key.getScope().name(), key.getUserId(), key.getStatus().name(),
+                key.getPriority().name(), change);
+    }
+
+    /**
+     * PostgreSQL's upsert is atomic against concurrent inserts; elsewhere, such as H2 in
+     * development, the standard MERGE is used.
+     */
+    private String incrementSql() {
+        if (incrementSql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            incrementSql = "PostgreSQL".equals(product) ? POSTGRES_INCREMENT_SQL : MERGE_INCREMENT_SQL;
+        }
+        return incrementSql;
+    }
+
+    public TaskSummary summarize(Long userId) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        Map<TaskStatus, Map<Priority, Long>> byStatusAndPriority = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, Long> assignedByStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, 0L);
+            assignedByStatus.put(status, 0L);
+            Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                priorities.put(priority, 0L);
+            }
+            byStatusAndPriority.put(status, priorities);
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, 0L);
+        }
+
+        long total = 0;
+        for (TaskCounter counter : taskCounterRepository.findByScopeAndUserId(CounterScope.OWNER, userId)) {
+            long count = Math.max(0, counter.getTaskCount());
+            total += count;
+            byStatus.merge(counter.getStatus(), count, Long::sum);
+            byPriority.merge(counter.getPriority(), count, Long::sum);
+            byStatusAndPriority.get(counter.getStatus()).merge(counter.getPriority(), count, Long::sum);
+        }
+        long assignedTotal = 0;
+        for (TaskCounter counter : taskCounterRepository.findByScopeAndUserId(CounterScope.ASSIGNEE, userId)) {
+            long count = Math.max(0, counter.getTaskCount());
+            assignedTotal += count;
+            assignedByStatus.merge(counter.getStatus(), count, Long::sum);
+        }
+        return TaskSummary.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .byStatusAndPriority(byStatusAndPriority)
+                .assignedTotal(assignedTotal)
+                .assignedByStatus(assignedByStatus)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        int repaired = reconcile();
+        log.info("Task counters rebuilt, {} counters written", repaired);
+    }
+
+    @Scheduled(initialDelayString = "${tasks.counters.reconcile-interval-ms:900000}",
+            fixedDelayString = "${tasks.counters.reconcile-interval-ms:900000}")
+    public void scheduledReconcile() {
+        int repaired = reconcile();
+        if (repaired > 0) {
+            log.warn("Task counter reconcile repaired {} counters", repaired);
+        }
+    }
+
+    /**
+     * Recounts every counter from the tasks table and overwrites the ones that differ. The
+     * counter rows are locked before the tasks are counted, so a write that commits in between
+     * has either been counted or applies its delta after the overwrite, never neither.
+     *
+     * @return the number of counters that were corrected
+     */
+    public int reconcile() {
+        Integer repaired = transactionTemplate.execute(status -> {
+            Map<Key, Long> stored = new HashMap<>();
+            jdbcTemplate.query(LOCK_SQL, rs -> {
+                stored.put(new Key(CounterScope.valueOf(rs.getString("scope")), rs.getLong("user_id"),
+                        TaskStatus.valueOf(rs.getString("status")), Priority.valueOf(rs.getString("priority"))),
+                        rs.getLong("task_count"));
+            });
+
+            Map<Key, Long> actual = new HashMap<>();
+            countFromTasks(actual, CounterScope.OWNER, "user_id");
+            countFromTasks(actual, CounterScope.ASSIGNEE, "assignee_id");
+
+            Set<Key> keys = new HashSet<>(actual.keySet());
+            keys.addAll(stored.keySet());
+            int fixed = 0;
+            for (Key key : keys) {
+                long expected = actual.getOrDefault(key, 0L);
+                Long current = stored.get(key);
+                if (current != null && current == expected) {
+                    continue;
+                }
+                if (current == null) {
+                    // a row a writer created after the lock keeps its delta on top; checked again next time
+                    increment(key, expected);
+                } else {
+                    jdbcTemplate.update(SET_SQL, expected, key.getScope().name(), key.getUserId(),
+                            key.getStatus().name(), key.getPriority().name());
+                }
+                fixed++;
+            }
+            return fixed;
+        });
+        return repaired == null ? 0 : repaired;
+    }
+
+    private void countFromTasks(Map<Key, Long> counts, CounterScope scope, String column) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT " + column + " AS user_id, status, priority, COUNT(*) AS task_count FROM tasks " +
+                "WHERE " + column + " IS NOT NULL AND status IS NOT NULL AND priority IS NOT NULL " +
+                "GROUP BY " + column + ", status, priority");
+        for (Map<String, Object> row : rows) {
+            counts.put(new Key(scope, ((Number) row.get("user_id")).longValue(),
+                            TaskStatus.valueOf((String) row.get("status")), Priority.valueOf((String) row.get("priority"))),
+                    ((Number) row.get("task_count")).longValue());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.RequestTrace;
+import com.davymbaimbai.config.TaskEventFilter;
+import com.davymbaimbai.config.WebSocketBusProperties;
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import com.davymbaimbai.jfr.WebSocketBroadcastEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound side of the STOMP broadcasts. Events are parked per destination and task for one
+ * window, merged into a single frame and sent from a background thread, so a burst of edits
+ * to one task reaches each subscriber as one frame per topic and never blocks the request.
+ * Only consecutive updates with the same action merge; a creation, deletion or comment goes out
+ * as its own frame. A destination
+ * that lost frames to the pending limit gets a {@code RESYNC} once the window is flushed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TaskEventBus implements MeterBinder {
+
+    private final WebSocketBusProperties properties;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Actions that only change an existing task, so a burst of them can go out as one frame.
+     */
+    private static final Set<String> MERGEABLE_ACTIONS = Set.of(
+            "TASK_UPDATED", "UPDATED", "STATUS_CHANGED", "PRIORITY_CHANGED", "ASSIGNED", "UNASSIGNED",
+            "DUE_DATE_CHANGED");
+
+    private final Object lock = new Object();
+    private Map<FrameKey, Object> pending = new LinkedHashMap<>();
+    private final Map<FrameKey, FrameKey> lastFrames = new HashMap<>();
+    private Set<String> lostDestinations = new LinkedHashSet<>();
+    private long uncoalescedSequence;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, properties.getWindowMs(), properties.getWindowMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Queues a task event. An update is merged into the task's last frame for the destination
+     * in the current window when that frame has the same action; anything else starts a new
+     * frame, so the task's frames keep the order of its events.
+     */
+    public void publish(String destination, TaskActivityDto event) {
+        long start = System.nanoTime();
+        try {
+            published.incrementAndGet();
+            if (flusher == null) {
+                send(destination, event);
+                return;
+            }
+            FrameKey task = new FrameKey(destination, event.getTaskId(), 0);
+            synchronized (lock) {
+                FrameKey last = lastFrames.get(task);
+                if (last != null && MERGEABLE_ACTIONS.contains(event.getAction())
+                        && pending.get(last) instanceof TaskActivityDto previous
+                        && event.getAction().equals(previous.getAction())) {
+                    pending.put(last, merge(previous, event));
+                    coalesced.incrementAndGet();
+                    return;
+                }
+                FrameKey key = new FrameKey(destination, null, ++uncoalescedSequence);
+                if (offer(key, event)) {
+                    lastFrames.put(task, key);
+                } else {
+                    lastFrames.remove(task);
+                }
+            }
+        } finally {
+            RequestTrace.record(RequestTrace.WEBSOCKET, destination, start, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Queues a payload that is sent as is, in order with the other frames of its window.
+     */
+    public void publish(String destination, Object payload) {
+        long start = System.nanoTime();
+        try {
+            published.incrementAndGet();
+            if (flusher == null) {
+                send(destination, payload);
+                return;
+            }
+            synchronized (lock) {
+                offer(new FrameKey(destination, null, ++uncoalescedSequence), payload);
+            }
+        } finally {
+            RequestTrace.record(RequestTrace.WEBSOCKET, destination, start, System.nanoTime() - start);
+        }
+    }
+
+    private boolean offer(FrameKey key, Object payload) {
+        if (pending.size() >= properties.getMaxPendingFrames()) {
+            dropped.incrementAndGet();
+            lostDestinations.add(key.destination);
+            return false;
+        }
+        pending.put(key, payload);
+        return true;
+    }
+
+    private void flush() {
+        Map<FrameKey, Object> frames;
+        Set<String> lost;
+        synchronized (lock) {
+            if (pending.isEmpty() && lostDestinations.isEmpty()) {
+                return;
+            }
+            frames = pending;
+            pending = new LinkedHashMap<>();
+            lastFrames.clear();
+            lost = lostDestinations;
+            lostDestinations = new LinkedHashSet<>();
+        }
+        frames.forEach((key, payload) -> send(key.destination, payload));
+        if (!lost.isEmpty()) {
+            // after the frames that made it, so the reload sees at least what they carried
+            log.warn("Frames over the pending limit were dropped, sending RESYNC to {} destinations", lost.size());
+            for (String destination : lost) {
+                send(destination, TaskSnapshotDto.builder().action("RESYNC").timestamp(LocalDateTime.now()).build());
+                resyncs.incrementAndGet();
+            }
+        }
+    }
+
+    private void send(String destination, Object payload) {
+        WebSocketBroadcastEvent event = new WebSocketBroadcastEvent();
+        event.begin();
+        boolean delivered = false;
+        try {
+            Map<String, Object> headers = payload instanceof TaskActivityDto activity
+                    ? TaskEventFilter.headers(activity) : null;
+            if (headers != null) {
+                messagingTemplate.convertAndSend(destination, payload, headers);
+            } else {
+                messagingTemplate.convertAndSend(destination, payload);
+            }
+            sent.incrementAndGet();
+            delivered = true;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Failed to send frame to {}: {}", destination, e.getMessage());
+        } finally {
+            if (payload instanceof TaskActivityDto activity) {
+                event.finish(destination, activity.getTaskId(), activity.getUsername(),
+                        activity.getMergedEvents() != null ? activity.getMergedEvents() : 1, !delivered);
+            } else {
+                event.finish(destination, null, null, 1, !delivered);
+            }
+        }
+    }
+
+    /**
+     * Merges two events with the same action. Each field comes from the newer event when it
+     * carries it, except that the first old status, previous assignee and previous priority are
+     * kept so a TODO -> IN_PROGRESS -> DONE burst arrives as TODO -> DONE. An assignee missing from an event that carries the task's
+     * state means the task is unassigned. The sequence is the higher of the two.
+     */
+    static TaskActivityDto merge(TaskActivityDto older, TaskActivityDto newer) {
+        int olderCount = older.getMergedEvents() == null ? 1 : older.getMergedEvents();
+        int newerCount = newer.getMergedEvents() == null ? 1 : newer.getMergedEvents();
+        return TaskActivityDto.builder()
+                .taskId(newer.getTaskId())
+                .action(newer.getAction())
+                .username(newer.getUsername() != null ? newer.getUsername() : older.getUsername())
+                .taskTitle(newer.getTaskTitle() != null ? newer.getTaskTitle() : older.getTaskTitle())
+                .comment(newer.getComment() != null ? newer.getComment() : older.getComment())
+                .oldStatus(older.getOldStatus() != null ? older.getOldStatus() : newer.getOldStatus())
+                .newStatus(newer.getNewStatus() != null ? newer.getNewStatus() : older.getNewStatus())
+                .timestamp(newer.getTimestamp() != null ? newer.getTimestamp() : older.getTimestamp())
+                .status(newer.getStatus() != null ? newer.getStatus() : older.getStatus())
+                .priority(newer.getPriority() != null ? newer.getPriority() : older.getPriority())
+                .assigneeId(carriesState(newer) ? newer.getAssigneeId() : older.getAssigneeId())
+                .previousAssigneeId(older.getPreviousAssigneeId() != null
+                        ? older.getPreviousAssigneeId() : newer.getPreviousAssigneeId())
+                .previousPriority(older.getPreviousPriority() != null
+                        ? older.getPreviousPriority() : newer.getPreviousPriority())
+                .sequence(higher(older.getSequence(), newer.getSequence()))
+                .mergedEvents(olderCount + newerCount)
+                .build();
+    }
+
+    private static boolean carriesState(TaskActivityDto event) {
+        return event.getStatus() != null || event.getPriority() != null || event.getAssigneeId() != null;
+    }
+
+    private static Long higher(Long a, Long b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        return Math.max(a, b);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("websocket.bus.events", published, AtomicLong::get)
+                .tag("result", "published")
+                .register(registry);
+        FunctionCounter.builder("websocket.bus.events", coalesced, AtomicLong::get)
+                .tag("result", "coalesced")
+                .register(registry);
+        FunctionCounter.builder("websocket.bus.events", dropped, AtomicLong::get)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("websocket.bus.frames", sent, AtomicLong::get)
+                .tag("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("websocket.bus.frames", failed, AtomicLong::get)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("websocket.bus.frames", resyncs, AtomicLong::get)
+                .tag("result", "resync")
+                .register(registry);
+        Gauge.builder("websocket.bus.queue.depth", this, TaskEventBus::getQueueDepth)
+                .register(registry);
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getResyncCount() {
+        return resyncs.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private static final class FrameKey {
+        private final String destination;
+        private final Long taskId;
+        private final long sequence;
+
+        private FrameKey(String destination, Long taskId, long sequence) {
+            this.destination = destination;
+            this.taskId = taskId;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FrameKey other)) {
+                return false;
+            }
+            return sequence == other.sequence
+                    && destination.equals(other.destination)
+                    && Objects.equals(taskId, other.taskId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(destination, taskId, sequence);
+        }
+    }
+}
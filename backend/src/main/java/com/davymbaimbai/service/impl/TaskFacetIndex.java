@@ -0,0 +1,512 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.FacetIndexProperties;
+import com.davymbaimbai.dto.TaskFacetCounts;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process facet index over the tasks table: one compressed bitmap of task ids per status,
+ * priority, assignee, creator and owner. A filter is an intersection of a few bitmaps and the
+ * facet counts are intersection cardinalities, so neither grows with the number of tasks.
+ * The services report their writes after commit, {@link EntityChangeLog} reports the tasks
+ * other instances changed, and a periodic rebuild from the tasks table repairs anything
+ * written around them. While the first build runs, or when the index is
+ * disabled, the same query is answered from the rows the database returns for the filter.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TaskFacetIndex {
+
+    private static final String SELECT_FACTS =
+            "SELECT id, status, priority, user_id, creator_id, assignee_id FROM tasks";
+
+    private final FacetIndexProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Bitmaps bitmaps;
+    private List<Consumer<Bitmaps>> journal;
+
+    /**
+     * The indexed columns of one task, captured when the write happens.
+     */
+    @Value
+    public static class Facts {
+        long id;
+        TaskStatus status;
+        Priority priority;
+        Long ownerId;
+        Long creatorId;
+        Long assigneeId;
+
+        public static Facts of(Task task) {
+            return new Facts(task.getId(), task.getStatus(), task.getPriority(),
+                    task.getUser() != null ? task.getUser().getId() : null,
+                    task.getCreator() != null ? task.getCreator().getId() : null,
+                    task.getAssignee() != null ? task.getAssignee().getId() : null);
+        }
+    }
+
+    /**
+     * Facets to filter on; null means any value.
+     */
+    @Value
+    @Builder
+    public static class Query {
+        TaskStatus status;
+        Priority priority;
+        Long assigneeId;
+        Long creatorId;
+        Long ownerId;
+    }
+
+    /**
+     * One page of matching ids, newest (highest id) first, with the facet counts of the whole match.
+     */
+    @Value
+    public static class Match {
+        long total;
+        List<Long> pageIds;
+        Long nextBefore;
+        TaskFacetCounts facets;
+        boolean indexed;
+    }
+
+    public void taskSaved(Task task) {
+        Facts facts = Facts.of(task);
+        afterCommit(() -> apply(index -> index.put(facts)));
+    }
+
+    public void tasksSaved(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Facts> facts = tasks.stream().map(Facts::of).toList();
+        afterCommit(() -> apply(index -> facts.forEach(index::put)));
+    }
+
+    public void taskDeleted(Long id) {
+        afterCommit(() -> apply(index -> index.remove(id)));
+    }
+
+    public void tasksDeleted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> removed = new ArrayList<>(ids);
+        afterCommit(() -> apply(index -> removed.forEach(index::remove)));
+    }
+
+    /**
+     * Reloads tasks changed by another instance from the tasks table; an id that is no longer
+     * there is removed.
+     */
+    public void tasksChanged(Collection<Long> ids) {
+        if (ids.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        Map<Long, Facts> current = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query(SELECT_FACTS + " WHERE id IN (" + placeholders + ")", (RowCallbackHandler) rs -> {
+            Facts facts = readFacts(rs);
+            current.put(facts.getId(), facts);
+        }, ids.toArray());
+        List<Long> changed = new ArrayList<>(ids);
+        apply(index -> changed.forEach(id -> {
+            Facts facts = current.get(id);
+            if (facts != null) {
+                index.put(facts);
+            } else {
+                index.remove(id);
+            }
+        }));
+    }
+
+    /**
+     * Runs the query against the index, or against the matching rows of the tasks table when
+     * the index is not available.
+     *
+     * @param before only ids below this one, for paging; null for the first page
+     */
+    public Match search(Query query, Long before, int limit) {
+        if (properties.isEnabled()) {
+            lock.readLock().lock();
+            try {
+                if (bitmaps != null) {
+                    return bitmaps.search(query, before, limit, true);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return load(query).search(query, before, limit, false);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return bitmaps != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${tasks.facet-index.rebuild-interval-ms:900000}",
+            fixedDelayString = "${tasks.facet-index.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reads the tasks table into a fresh index and swaps it in. Writes committed during the
+     * read are journaled and replayed on the fresh index before the swap.
+     */
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Bitmaps fresh;
+        try {
+            fresh = load(null);
+        } catch (RuntimeException e) {
+            log.warn("Task facet index rebuild failed, queries stay on the database: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                journal = null;
+                bitmaps = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            journal.forEach(change -> change.accept(fresh));
+            journal = null;
+            bitmaps = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Task facet index built with {} tasks in {} ms", fresh.all.getLongCardinality(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void apply(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.add(change);
+            }
+            if (bitmaps != null) {
+                change.accept(bitmaps);
+            }
+        } catch (IllegalStateException e) {
+            // an id outside the int range; give up on the index rather than serve wrong answers
+            log.warn("Task facet index disabled: {}", e.getMessage());
+            bitmaps = null;
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Bitmaps load(Query query) {
+        StringBuilder sql = new StringBuilder(SELECT_FACTS);
+        List<Object> args = new ArrayList<>();
+        if (query != null) {
+            List<String> where = new ArrayList<>();
+            if (query.getStatus() != null) {
+                where.add("status = ?");
+                args.add(query.getStatus().name());
+            }
+            if (query.getPriority() != null) {
+                where.add("priority = ?");
+                args.add(query.getPriority().name());
+            }
+            if (query.getOwnerId() != null) {
+                where.add("user_id = ?");
+                args.add(query.getOwnerId());
+            }
+            if (query.getCreatorId() != null) {
+                where.add("creator_id = ?");
+                args.add(query.getCreatorId());
+            }
+            if (query.getAssigneeId() != null) {
+                where.add("assignee_id = ?");
+                args.add(query.getAssigneeId());
+            }
+            if (!where.isEmpty()) {
+                sql.append(" WHERE ").append(String.join(" AND ", where));
+            }
+        }
+        Bitmaps loaded = new Bitmaps();
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> loaded.put(readFacts(rs)), args.toArray());
+        return loaded;
+    }
+
+    private static Facts readFacts(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String priority = rs.getString("priority");
+        return new Facts(rs.getLong("id"),
+                status != null ? TaskStatus.valueOf(status) : null,
+                priority != null ? Priority.valueOf(priority) : null,
+                rs.getObject("user_id", Long.class),
+                rs.getObject("creator_id", Long.class),
+                rs.getObject("assignee_id", Long.class));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * The bitmaps plus one column per facet, indexed by task id, so that a task can be taken
+     * out of the bitmaps it is in without keeping an object per task.
+     */
+    private static final class Bitmaps {
+        private static final TaskStatus[] STATUSES = TaskStatus.values();
+        private static final Priority[] PRIORITIES = Priority.values();
+        private static final long NONE = 0;
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap unassigned = new RoaringBitmap();
+        private final Map<TaskStatus, RoaringBitmap> byStatus = new EnumMap<>(TaskStatus.class);
+        private final Map<Priority, RoaringBitmap> byPriority = new EnumMap<>(Priority.class);
+        private final Map<Long, RoaringBitmap> byOwner = new HashMap<>();
+        private final Map<Long, RoaringBitmap> byCreator = new HashMap<>();
+        private final Map<Long, RoaringBitmap> byAssignee = new HashMap<>();
+
+        private byte[] statusColumn = new byte[0];
+        private byte[] priorityColumn = new byte[0];
+        private long[] ownerColumn = new long[0];
+        private long[] creatorColumn = new long[0];
+        private long[] assigneeColumn = new long[0];
+
+        void put(Facts facts) {
+            int id = toIndex(facts.getId());
+            remove(id);
+            ensureCapacity(id);
+            all.add(id);
+            statusColumn[id] = (byte) (facts.getStatus() == null ? -1 : facts.getStatus().ordinal());
+            if (facts.getStatus() != null) {
+                byStatus.computeIfAbsent(facts.getStatus(), key -> new RoaringBitmap()).add(id);
+            }
+            priorityColumn[id] = (byte) (facts.getPriority() == null ? -1 : facts.getPriority().ordinal());
+            if (facts.getPriority() != null) {
+                byPriority.computeIfAbsent(facts.getPriority(), key -> new RoaringBitmap()).add(id);
+            }
+            ownerColumn[id] = add(byOwner, facts.getOwnerId(), id);
+            creatorColumn[id] = add(byCreator, facts.getCreatorId(), id);
+            assigneeColumn[id] = add(byAssignee, facts.getAssigneeId(), id);
+            if (facts.getAssigneeId() == null) {
+                unassigned.add(id);
+            }
+        }
+
+        void remove(Long taskId) {
+            remove(toIndex(taskId));
+        }
+
+        private void remove(int id) {
+            if (!all.contains(id)) {
+                return;
+            }
+            all.remove(id);
+            unassigned.remove(id);
+            if (statusColumn[id] >= 0) {
+                byStatus.get(STATUSES[statusColumn[id]]).remove(id);
+            }
+            if (priorityColumn[id] >= 0) {
+                byPriority.get(PRIORITIES[priorityColumn[id]]).remove(id);
+            }
+            removeFrom(byOwner, ownerColumn[id], id);
+            removeFrom(byCreator, creatorColumn[id], id);
+            removeFrom(byAssignee, assigneeColumn[id], id);
+        }
+
+        Match search(Query query, Long before, int limit, boolean indexed) {
+            RoaringBitmap matched = match(query);
+            int upper;
+            if (before == null) {
+                upper = matched.getCardinality();
+            } else if (before <= 0) {
+                upper = 0;
+            } else {
+                upper = (int) matched.rankLong(before > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) (before - 1));
+            }
+            List<Long> page = new ArrayList<>(Math.min(limit, upper));
+            for (int rank = upper - 1; rank >= 0 && page.size() < limit; rank--) {
+                page.add((long) matched.select(rank));
+            }
+            Long nextBefore = upper > page.size() && !page.isEmpty() ? page.get(page.size() - 1) : null;
+            return new Match(matched.getLongCardinality(), page, nextBefore, count(matched), indexed);
+        }
+
+        private RoaringBitmap match(Query query) {
+            List<RoaringBitmap> clauses = new ArrayList<>();
+            if (query.getStatus() != null) {
+                clauses.add(byStatus.get(query.getStatus()));
+            }
+            if (query.getPriority() != null) {
+                clauses.add(byPriority.get(query.getPriority()));
+            }
+            if (query.getOwnerId() != null) {
+                clauses.add(byOwner.get(query.getOwnerId()));
+            }
+            if (query.getCreatorId() != null) {
+                clauses.add(byCreator.get(query.getCreatorId()));
+            }
+            if (query.getAssigneeId() != null) {
+                clauses.add(byAssignee.get(query.getAssigneeId()));
+            }
+            if (clauses.isEmpty()) {
+                return all;
+            }
+            if (clauses.contains(null)) {
+                return new RoaringBitmap();
+            }
+            // start from the most selective facet so every AND shrinks an already small bitmap
+            clauses.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap matched = clauses.get(0).clone();
+            for (int i = 1; i < clauses.size() && !matched.isEmpty(); i++) {
+                matched.and(clauses.get(i));
+            }
+            return matched;
+        }
+
+        private TaskFacetCounts count(RoaringBitmap matched) {
+            Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : STATUSES) {
+                RoaringBitmap bitmap = byStatus.get(status);
+                statusCounts.put(status, bitmap == null ? 0L : RoaringBitmap.andCardinality(matched, bitmap));
+            }
+            Map<Priority, Long> priorityCounts = new EnumMap<>(Priority.class);
+            for (Priority priority : PRIORITIES) {
+                RoaringBitmap bitmap = byPriority.get(priority);
+                priorityCounts.put(priority, bitmap == null ? 0L : RoaringBitmap.andCardinality(matched, bitmap));
+            }
+            return TaskFacetCounts.builder()
+                    .byStatus(statusCounts)
+                    .byPriority(priorityCounts)
+                    .byAssignee(countUsers(matched, byAssignee, assigneeColumn))
+                    .unassigned(RoaringBitmap.andCardinality(matched, unassigned))
+                    .byCreator(countUsers(matched, byCreator, creatorColumn))
+                    .byOwner(countUsers(matched, byOwner, ownerColumn))
+                    .build();
+        }
+
+        /**
+         * Walks the matched ids when there are fewer of them than users, otherwise intersects
+         * the match with each user's bitmap.
+         */
+        private static Map<Long, Long> countUsers(RoaringBitmap matched, Map<Long, RoaringBitmap> index, long[] column) {
+            Map<Long, Long> counts = new TreeMap<>();
+            if (matched.getLongCardinality() < index.size()) {
+                matched.forEach((int id) -> {
+                    if (column[id] != NONE) {
+                        counts.merge(column[id], 1L, Long::sum);
+                    }
+                });
+                return counts;
+            }
+            index.forEach((userId, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(matched, bitmap);
+                if (count > 0) {
+                    counts.put(userId, count);
+                }
+            });
+            return counts;
+        }
+
+        private static long add(Map<Long, RoaringBitmap> index, Long userId, int id) {
+            if (userId == null) {
+                return NONE;
+            }
+            index.computeIfAbsent(userId, key -> new RoaringBitmap()).add(id);
+            return userId;
+        }
+
+        private static void removeFrom(Map<Long, RoaringBitmap> index, long userId, int id) {
+            if (userId == NONE) {
+                return;
+            }
+            RoaringBitmap bitmap = index.get(userId);
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(userId);
+            }
+        }
+
+        private void ensureCapacity(int id) {
+            if (id < statusColumn.length) {
+                return;
+            }
+            int length = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(id + 1L, statusColumn.length * 3L / 2 + 1024));
+            statusColumn = Arrays.copyOf(statusColumn, length);
+            priorityColumn = Arrays.copyOf(priorityColumn, length);
+            ownerColumn = Arrays.copyOf(ownerColumn, length);
+            creatorColumn = Arrays.copyOf(creatorColumn, length);
+            assigneeColumn = Arrays.copyOf(assigneeColumn, length);
+        }
+
+        private static int toIndex(long taskId) {
+            if (taskId < 0 || taskId >= Integer.MAX_VALUE - 8L) {
+                throw new IllegalStateException("task id " + taskId + " does not fit the facet index");
+            }
+            return (int) taskId;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.davymbaimbai.service.impl;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Parsed form of a task query such as {@code status:TODO,IN_PROGRESS assignee:alice created>2026-01-01 sort:-updatedAt}.
+ * Values are kept as written; {@link TaskQueryPlanner} resolves and binds them.
+ */
+@Value
+public class TaskQuery {
+    List<Condition> conditions;
+    List<Order> orders;
+
+    public enum Field {
+        STATUS, PRIORITY, ASSIGNEE, CREATOR, OWNER, CREATED, UPDATED
+    }
+
+    public enum Operator {
+        /**
+         * {@code field:a,b}; for a date field, a single day.
+         */
+        IN, GT, GTE, LT, LTE
+    }
+
+    public enum SortKey {
+        CREATED_AT, UPDATED_AT, TITLE, ID
+    }
+
+    @Value
+    public static class Condition {
+        Field field;
+        Operator operator;
+        List<String> values;
+    }
+
+    @Value
+    public static class Order {
+        SortKey key;
+        boolean descending;
+    }
+}
@@ -0,0 +1,103 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.exceptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the text of {@code GET /api/tasks/query?q=} into a {@link TaskQuery}. Terms are separated
+ * by whitespace and all have to hold; {@code field:a,b} matches any of the values and the date
+ * fields also take {@code > >= < <=}. {@code sort:-updatedAt,title} orders the result.
+ */
+public final class TaskQueryParser {
+
+    private static final Pattern TERM = Pattern.compile("([A-Za-z]+)(>=|<=|:|>|<)(.+)");
+
+    private static final Map<String, TaskQuery.Field> FIELDS = Map.of(
+            "status", TaskQuery.Field.STATUS,
+            "priority", TaskQuery.Field.PRIORITY,
+            "assignee", TaskQuery.Field.ASSIGNEE,
+            "creator", TaskQuery.Field.CREATOR,
+            "owner", TaskQuery.Field.OWNER,
+            "created", TaskQuery.Field.CREATED,
+            "updated", TaskQuery.Field.UPDATED);
+
+    private static final Map<String, TaskQuery.SortKey> SORT_KEYS = Map.of(
+            "createdat", TaskQuery.SortKey.CREATED_AT,
+            "created", TaskQuery.SortKey.CREATED_AT,
+            "updatedat", TaskQuery.SortKey.UPDATED_AT,
+            "updated", TaskQuery.SortKey.UPDATED_AT,
+            "title", TaskQuery.SortKey.TITLE,
+            "id", TaskQuery.SortKey.ID);
+
+    private static final Map<String, TaskQuery.Operator> OPERATORS = Map.of(
+            ":", TaskQuery.Operator.IN,
+            ">", TaskQuery.Operator.GT,
+            ">=", TaskQuery.Operator.GTE,
+            "<", TaskQuery.Operator.LT,
+            "<=", TaskQuery.Operator.LTE);
+
+    private TaskQueryParser() {
+    }
+
+    public static TaskQuery parse(String text) {
+        List<TaskQuery.Condition> conditions = new ArrayList<>();
+        List<TaskQuery.Order> orders = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return new TaskQuery(conditions, orders);
+        }
+        for (String term : text.trim().split("\\s+")) {
+            Matcher matcher = TERM.matcher(term);
+            if (!matcher.matches()) {
+                throw new BadRequestException("Invalid query term: " + term);
+            }
+            String name = matcher.group(1).toLowerCase(Locale.ROOT);
+            TaskQuery.Operator operator = OPERATORS.get(matcher.group(2));
+            List<String> values = values(matcher.group(3), term);
+            if (name.equals("sort")) {
+                if (operator != TaskQuery.Operator.IN || !orders.isEmpty()) {
+                    throw new BadRequestException("Invalid sort: " + term);
+                }
+                values.forEach(value -> orders.add(order(value)));
+                continue;
+            }
+            TaskQuery.Field field = FIELDS.get(name);
+            if (field == null) {
+                throw new BadRequestException("Unknown query field: " + matcher.group(1));
+            }
+            boolean dateField = field == TaskQuery.Field.CREATED || field == TaskQuery.Field.UPDATED;
+            if (operator != TaskQuery.Operator.IN && !dateField) {
+                throw new BadRequestException("Only ':' is supported for " + name);
+            }
+            if (dateField && values.size() > 1) {
+                throw new BadRequestException("A date condition takes a single value: " + term);
+            }
+            conditions.add(new TaskQuery.Condition(field, operator, values));
+        }
+        return new TaskQuery(conditions, orders);
+    }
+
+    private static List<String> values(String raw, String term) {
+        List<String> values = Arrays.stream(raw.split(",", -1)).map(String::trim).toList();
+        if (values.isEmpty() || values.stream().anyMatch(String::isEmpty)) {
+            throw new BadRequestException("Missing value in query term: " + term);
+        }
+        return new ArrayList<>(values);
+    }
+
+    private static TaskQuery.Order order(String value) {
+        boolean descending = value.startsWith("-");
+        String name = descending || value.startsWith("+") ? value.substring(1) : value;
+        TaskQuery.SortKey key = SORT_KEYS.get(name.toLowerCase(Locale.ROOT));
+        if (key == null) {
+            throw new BadRequestException("Cannot sort by " + name);
+        }
+        return new TaskQuery.Order(key, descending);
+    }
+}
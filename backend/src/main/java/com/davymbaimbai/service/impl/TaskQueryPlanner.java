@@ -0,0 +1,303 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.TaskQueryProperties;
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.Role;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles a {@link TaskQuery} into one JPQL statement with a predicate per condition present,
+ * so the filtered columns line up with the composite indexes. The statement depends only on
+ * the shape of the query (fields, operators and sort), never on its values, and is cached per
+ * shape; the identical string also lets Hibernate reuse its own parsed plan for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskQueryPlanner implements MeterBinder {
+
+    // constructor expression in TaskView's argument order
+    private static final String SELECT_VIEW = "SELECT new com.davymbaimbai.dto.TaskView(t.id, t.title, " +
+            "t.description, t.status, t.priority, t.createdAt, t.updatedAt, u.id, u.username, " +
+            "c.id, c.username, a.id, a.username) FROM Task t JOIN t.user u JOIN t.creator c LEFT JOIN t.assignee a";
+
+    private static final List<TaskQuery.Order> DEFAULT_ORDER = List.of(
+            new TaskQuery.Order(TaskQuery.SortKey.CREATED_AT, true));
+
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final TaskQueryProperties properties;
+
+    private final Map<String, String> plans = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Runs the query for the user. Anyone but an admin only sees the tasks they created, the
+     * same scope as the status and assignee filters of {@code GET /api/tasks}.
+     */
+    public List<TaskView> execute(TaskQuery query, User currentUser, int limit) {
+        List<Clause> clauses = bind(query, currentUser);
+        List<TaskQuery.Order> orders = query.getOrders().isEmpty() ? DEFAULT_ORDER : query.getOrders();
+        String jpql = plan(shape(clauses, orders), clauses, orders);
+        TypedQuery<TaskView> typed = entityManager.createQuery(jpql, TaskView.class);
+        for (int i = 0; i < clauses.size(); i++) {
+            if (clauses.get(i).value != null) {
+                typed.setParameter("p" + i, clauses.get(i).value);
+            }
+        }
+        return typed.setMaxResults(limit).getResultList();
+    }
+
+    private String plan(String shape, List<Clause> clauses, List<TaskQuery.Order> orders) {
+        synchronized (plans) {
+            String jpql = plans.get(shape);
+            if (jpql != null) {
+                hits.incrementAndGet();
+                return jpql;
+            }
+            misses.incrementAndGet();
+            jpql = compile(clauses, orders);
+            plans.put(shape, jpql);
+            if (plans.size() > properties.getPlanCacheSize()) {
+                plans.remove(plans.keySet().iterator().next());
+            }
+            return jpql;
+        }
+    }
+
+    private static String compile(List<Clause> clauses, List<TaskQuery.Order> orders) {
+        StringBuilder jpql = new StringBuilder(SELECT_VIEW);
+        for (int i = 0; i < clauses.size(); i++) {
+            jpql.append(i == 0 ? " WHERE " : " AND ").append(clauses.get(i).render("p" + i));
+        }
+        jpql.append(" ORDER BY ");
+        boolean byId = false;
+        for (TaskQuery.Order order : orders) {
+            jpql.append(path(order.getKey())).append(order.isDescending() ? " DESC" : " ASC").append(", ");
+            byId |= order.getKey() == TaskQuery.SortKey.ID;
+        }
+        if (!byId) {
+            // ties on the sort columns come back in a stable order
+            jpql.append("t.id ").append(orders.get(orders.size() - 1).isDescending() ? "DESC" : "ASC");
+        } else {
+            jpql.setLength(jpql.length() - 2);
+        }
+        return jpql.toString();
+    }
+
+    private static String shape(List<Clause> clauses, List<TaskQuery.Order> orders) {
+        StringBuilder shape = new StringBuilder();
+        clauses.forEach(clause -> shape.append(clause.path).append(' ').append(clause.kind).append(';'));
+        orders.forEach(order -> shape.append(order.isDescending() ? '-' : '+').append(order.getKey()).append(';'));
+        return shape.toString();
+    }
+
+    private List<Clause> bind(TaskQuery query, User currentUser) {
+        Map<String, Long> usernames = resolveUsernames(query);
+        List<Clause> clauses = new ArrayList<>();
+        for (TaskQuery.Condition condition : query.getConditions()) {
+            switch (condition.getField()) {
+                case STATUS -> clauses.add(Clause.in("t.status",
+                        enumValues(condition.getValues(), TaskStatus::valueOf, "status")));
+                case PRIORITY -> clauses.add(Clause.in("t.priority",
+                        enumValues(condition.getValues(), Priority::valueOf, "priority")));
+                case ASSIGNEE -> clauses.add(userClause("t.assignee.id", condition, currentUser, usernames, true));
+                case CREATOR -> clauses.add(userClause("t.creator.id", condition, currentUser, usernames, false));
+                case OWNER -> clauses.add(userClause("t.user.id", condition, currentUser, usernames, false));
+                case CREATED -> clauses.addAll(dateClauses("t.createdAt", condition));
+                case UPDATED -> clauses.addAll(dateClauses("t.updatedAt", condition));
+            }
+        }
+        if (currentUser.getRole() != Role.ADMIN) {
+            clauses.add(Clause.in("t.creator.id", List.of(currentUser.getId())));
+        }
+        return clauses;
+    }
+
+    private Map<String, Long> resolveUsernames(TaskQuery query) {
+        Set<String> names = new HashSet<>();
+        for (TaskQuery.Condition condition : query.getConditions()) {
+            if (condition.getField() == TaskQuery.Field.ASSIGNEE || condition.getField() == TaskQuery.Field.CREATOR
+                    || condition.getField() == TaskQuery.Field.OWNER) {
+                condition.getValues().stream().filter(value -> !isKeywordOrId(value)).forEach(names::add);
+            }
+        }
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> ids = userRepository.findByUsernameIn(names).stream()
+                .collect(Collectors.toMap(User::getUsername, User::getId));
+        names.stream().filter(name -> !ids.containsKey(name)).findFirst().ifPresent(name -> {
+            throw new BadRequestException("Unknown user: " + name);
+        });
+        return ids;
+    }
+
+    private static Clause userClause(String path, TaskQuery.Condition condition, User currentUser,
+                                     Map<String, Long> usernames, boolean nullable) {
+        List<Long> ids = new ArrayList<>();
+        boolean none = false;
+        for (String value : condition.getValues()) {
+            String keyword = value.toLowerCase(Locale.ROOT);
+            if (keyword.equals("me")) {
+                ids.add(currentUser.getId());
+            } else if (keyword.equals("none")) {
+                if (!nullable) {
+                    // every task has a creator and an owner, so there is nothing to match
+                    throw new BadRequestException(
+                            "'none' is not supported for " + condition.getField().name().toLowerCase(Locale.ROOT));
+                }
+                none = true;
+            } else if (value.chars().allMatch(Character::isDigit)) {
+                ids.add(Long.parseLong(value));
+            } else {
+                ids.add(usernames.get(value));
+            }
+        }
+        if (ids.isEmpty()) {
+            return new Clause(path, Kind.IS_NULL, null);
+        }
+        return new Clause(path, none ? Kind.IN_OR_NULL : Kind.IN, ids);
+    }
+
+    private static List<Clause> dateClauses(String path, TaskQuery.Condition condition) {
+        String value = condition.getValues().get(0);
+        try {
+            if (value.contains("T")) {
+                LocalDateTime instant = LocalDateTime.parse(value);
+                return List.of(switch (condition.getOperator()) {
+                    case IN -> new Clause(path, Kind.EQ, instant);
+                    case GT -> new Clause(path, Kind.GT, instant);
+                    case GTE -> new Clause(path, Kind.GTE, instant);
+                    case LT -> new Clause(path, Kind.LT, instant);
+                    case LTE -> new Clause(path, Kind.LTE, instant);
+                });
+            }
+            // a bare date means the whole day: created>2026-01-01 starts on the 2nd
+            LocalDate day = LocalDate.parse(value);
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime next = day.plusDays(1).atStartOfDay();
+            return switch (condition.getOperator()) {
+                case IN -> List.of(new Clause(path, Kind.GTE, start), new Clause(path, Kind.LT, next));
+                case GT -> List.of(new Clause(path, Kind.GTE, next));
+                case GTE -> List.of(new Clause(path, Kind.GTE, start));
+                case LT -> List.of(new Clause(path, Kind.LT, start));
+                case LTE -> List.of(new Clause(path, Kind.LT, next));
+            };
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> List<E> enumValues(List<String> values, Function<String, E> parser, String name) {
+        List<E> parsed = new ArrayList<>(values.size());
+        for (String value : values) {
+            try {
+                parsed.add(parser.apply(value.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid " + name + ": " + value);
+            }
+        }
+        return parsed;
+    }
+
+    private static boolean isKeywordOrId(String value) {
+        return value.equalsIgnoreCase("me") || value.equalsIgnoreCase("none")
+                || value.chars().allMatch(Character::isDigit);
+    }
+
+    private static String path(TaskQuery.SortKey key) {
+        return switch (key) {
+            case CREATED_AT -> "t.createdAt";
+            case UPDATED_AT -> "t.updatedAt";
+            case TITLE -> "t.title";
+            case ID -> "t.id";
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tasks.query.plans", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("tasks.query.plans", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("tasks.query.plans.cached", this, TaskQueryPlanner::getCachedPlanCount)
+                .register(registry);
+    }
+
+    public int getCachedPlanCount() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    public long getPlanCacheHits() {
+        return hits.get();
+    }
+
+    public long getPlanCacheMisses() {
+        return misses.get();
+    }
+
+    private enum Kind {
+        IN, IN_OR_NULL, IS_NULL, EQ, GT, GTE, LT, LTE
+    }
+
+    private static final class Clause {
+        private final String path;
+        private final Kind kind;
+        private final Object value;
+
+        private Clause(String path, Kind kind, Object value) {
+            this.path = path;
+            this.kind = kind;
+            this.value = value;
+        }
+
+        private static Clause in(String path, Collection<?> values) {
+            return new Clause(path, Kind.IN, values);
+        }
+
+        private String render(String parameter) {
+            return switch (kind) {
+                case IN -> path + " IN :" + parameter;
+                case IN_OR_NULL -> "(" + path + " IN :" + parameter + " OR " + path + " IS NULL)";
+                case IS_NULL -> path + " IS NULL";
+                case EQ -> path + " = :" + parameter;
+                case GT -> path + " > :" + parameter;
+                case GTE -> path + " >= :" + parameter;
+                case LT -> path + " < :" + parameter;
+                case LTE -> path + " <= :" + parameter;
+            };
+        }
+    }
+}
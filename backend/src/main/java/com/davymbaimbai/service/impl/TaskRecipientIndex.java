@@ -0,0 +1,183 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.entity.Task;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Who receives a task's events on their own queue: its owner, creator, assignee and watchers.
+ * Entries are loaded from the tasks and task_watchers tables on first use and then served from
+ * memory. Task writes update the entry after commit and watcher changes drop it, so a task's
+ * next event sees them; changes made by other instances are picked up when the entry expires.
+ */
+@Component
+public class TaskRecipientIndex implements MeterBinder {
+
+    private static final String WATCH_SQL = "INSERT INTO task_watchers (task_id, user_id) " +
+            "SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM task_watchers WHERE task_id = ? AND user_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadingCache<Long, Recipients> recipients;
+
+    /**
+     * The users a task's events go to.
+     */
+    public record Recipients(Long ownerId, Long creatorId, Long assigneeId, Set<Long> watcherIds) {
+
+        static Recipients of(Task task) {
+            return new Recipients(
+                    task.getUser() != null ? task.getUser().getId() : null,
+                    task.getCreator() != null ? task.getCreator().getId() : null,
+                    task.getAssignee() != null ? task.getAssignee().getId() : null,
+                    Set.of());
+        }
+
+        void addTo(Set<Long> userIds) {
+            if (ownerId != null) {
+                userIds.add(ownerId);
+            }
+            if (creatorId != null) {
+                userIds.add(creatorId);
+            }
+            if (assigneeId != null) {
+                userIds.add(assigneeId);
+            }
+            userIds.addAll(watcherIds);
+        }
+    }
+
+    public TaskRecipientIndex(JdbcTemplate jdbcTemplate,
+                              @Value("${tasks.recipients.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${tasks.recipients.max-size:100000}") long maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recipients = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * Recipients of an event about a task the caller holds. The task's own columns are
+     * combined with the indexed entry, so a user who was just unassigned still hears about it.
+     */
+    public Set<Long> recipients(Task task) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Recipients indexed = recipients.get(task.getId());
+        if (indexed != null) {
+            indexed.addTo(userIds);
+        }
+        Recipients.of(task).addTo(userIds);
+        return userIds;
+    }
+
+    public Set<Long> recipients(Long taskId) {
+        Recipients indexed = recipients.get(taskId);
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (indexed != null) {
+            indexed.addTo(userIds);
+        }
+        return userIds;
+    }
+
+    public void taskSaved(Task task) {
+        Long id = task.getId();
+        Recipients updated = Recipients.of(task);
+        afterCommit(() -> recipients.asMap().computeIfPresent(id, (key, current) ->
+                new Recipients(updated.ownerId(), updated.creatorId(), updated.assigneeId(), current.watcherIds())));
+    }
+
+    /**
+     * For writes that touch many tasks at once; their entries are loaded again on next use.
+     */
+    public void tasksChanged(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> changed = List.copyOf(ids);
+        afterCommit(() -> recipients.invalidateAll(changed));
+    }
+
+    public void taskDeleted(Long id) {
+        afterCommit(() -> recipients.invalidate(id));
+    }
+
+    /**
+     * @return false when the user was already watching the task
+     */
+    public boolean addWatcher(Long taskId, Long userId) {
+        boolean added = jdbcTemplate.update(WATCH_SQL, taskId, userId, taskId, userId) > 0;
+        watchersChanged(taskId);
+        return added;
+    }
+
+    /**
+     * @return false when the user was not watching the task
+     */
+    public boolean removeWatcher(Long taskId, Long userId) {
+        boolean removed = jdbcTemplate.update(
+                "DELETE FROM task_watchers WHERE task_id = ? AND user_id = ?", taskId, userId) > 0;
+        watchersChanged(taskId);
+        return removed;
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits, so a read
+     * between the two cannot put back the watchers from before the change.
+     */
+    private void watchersChanged(Long taskId) {
+        recipients.invalidate(taskId);
+        afterCommit(() -> recipients.invalidate(taskId));
+    }
+
+    private Recipients load(Long taskId) {
+        List<Recipients> rows = jdbcTemplate.query(
+                "SELECT user_id, creator_id, assignee_id FROM tasks WHERE id = ?",
+                (rs, rowNum) -> new Recipients(
+                        rs.getObject("user_id", Long.class),
+                        rs.getObject("creator_id", Long.class),
+                        rs.getObject("assignee_id", Long.class),
+                        Set.of()),
+                taskId);
+        if (rows.isEmpty()) {
+            // not cached, the task may not be committed yet
+            return null;
+        }
+        List<Long> watcherIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM task_watchers WHERE task_id = ?", Long.class, taskId);
+        Recipients row = rows.get(0);
+        return new Recipients(row.ownerId(), row.creatorId(), row.assigneeId(), Set.copyOf(watcherIds));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(recipients, "task.recipients", List.of()).bindTo(registry);
+    }
+}
@@ -0,0 +1,409 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.SearchIndexProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.apache.lucene.util.Bits;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text index over task titles, descriptions and comments, kept as Lucene segments on local
+ * disk and ranked with BM25. Writes mark their task dirty after commit; a background thread
+ * reloads dirty tasks in batches, replaces their documents and refreshes the searcher. Every
+ * document carries a version built from the task and comment timestamps, so after a restart
+ * the committed segments are reused and only tasks whose version changed are reindexed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TaskSearchIndex {
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String COMMENTS = "comments";
+    private static final String OWNER = "owner";
+    private static final String CREATOR = "creator";
+    private static final String ASSIGNEE = "assignee";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 2.0f, DESCRIPTION, 1.0f, COMMENTS, 0.5f);
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private static final String SELECT_VERSIONS =
+            "SELECT t.id, t.updated_at, COUNT(c.id) AS comment_count, MAX(c.updated_at) AS comment_updated_at " +
+            "FROM tasks t LEFT JOIN task_comments c ON c.task_id = t.id GROUP BY t.id, t.updated_at";
+
+    private final SearchIndexProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Object lock = new Object();
+    private Set<Long> dirty = new LinkedHashSet<>();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService indexer;
+
+    @Value
+    public static class Hit {
+        long taskId;
+        float score;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        openWriter();
+        searcherManager = new SearcherManager(writer, null);
+        indexer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        indexer.scheduleWithFixedDelay(this::flush, properties.getRefreshIntervalMs(),
+                properties.getRefreshIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("Task search index opened with {} documents", writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public void taskChanged(Long taskId) {
+        tasksChanged(List.of(taskId));
+    }
+
+    /**
+     * Queues the tasks for reindexing once the surrounding transaction commits.
+     */
+    public void tasksChanged(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(taskIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(ids);
+                }
+            });
+        } else {
+            enqueue(ids);
+        }
+    }
+
+    /**
+     * Finds tasks matching every word of the text in the title, description or comments. The
+     * last word also matches as a prefix unless the text ends with a space, for type-ahead.
+     *
+     * @param visibleTo only tasks this user owns, created or is assigned to; null for all tasks
+     */
+    public List<Hit> search(String text, Long visibleTo, int limit) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        boolean prefixLast = !Character.isWhitespace(text.charAt(text.length() - 1));
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            boolean prefix = prefixLast && i == terms.size() - 1;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term term = new Term(field.getKey(), terms.get(i));
+                anyField.add(new BoostQuery(new TermQuery(term), field.getValue()), BooleanClause.Occur.SHOULD);
+                if (prefix) {
+                    anyField.add(new BoostQuery(new PrefixQuery(term), field.getValue() * PREFIX_WEIGHT),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (visibleTo != null) {
+            query.add(visibleTo(visibleTo), BooleanClause.Occur.FILTER);
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            StoredFields storedFields = searcher.storedFields();
+            List<Hit> hits = new ArrayList<>();
+            for (ScoreDoc scoreDoc : searcher.search(query.build(), limit).scoreDocs) {
+                String id = storedFields.document(scoreDoc.doc, Set.of(ID)).get(ID);
+                hits.add(new Hit(Long.parseLong(id), scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Writes the queued tasks to the index and makes them searchable. Runs on the indexer
+     * thread; failed batches are queued again for the next round.
+     */
+    public synchronized void flush() {
+        Set<Long> batch;
+        synchronized (lock) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            batch = dirty;
+            dirty = new LinkedHashSet<>();
+        }
+        try {
+            List<Long> ids = new ArrayList<>(batch);
+            for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+                write(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to index {} tasks, retrying: {}", batch.size(), e.getMessage());
+            synchronized (lock) {
+                dirty.addAll(batch);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.search.commit-interval-ms:10000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${tasks.search.reconcile-interval-ms:900000}",
+            fixedDelayString = "${tasks.search.reconcile-interval-ms:900000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Queues every task whose indexed version differs from the tables, and every indexed task
+     * that no longer exists. The indexer then reloads them like any other change.
+     */
+    public void reconcile() {
+        try {
+            Map<Long, String> indexed = indexedVersions();
+            Set<Long> stale = new LinkedHashSet<>();
+            jdbcTemplate.query(SELECT_VERSIONS, (RowCallbackHandler) rs -> {
+                long id = rs.getLong("id");
+                String version = version(rs.getTimestamp("updated_at"), rs.getLong("comment_count"),
+                        rs.getTimestamp("comment_updated_at"));
+                if (!version.equals(indexed.remove(id))) {
+                    stale.add(id);
+                }
+            });
+            stale.addAll(indexed.keySet());
+            enqueue(stale);
+            if (!stale.isEmpty()) {
+                log.info("Task search index reconcile queued {} tasks", stale.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Task search index reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public int getDocumentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    private void enqueue(Collection<Long> ids) {
+        synchronized (lock) {
+            dirty.addAll(ids);
+        }
+    }
+
+    private void write(List<Long> ids) throws IOException {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<Long, Document> documents = new HashMap<>();
+        Map<Long, Timestamp> taskUpdatedAt = new HashMap<>();
+        jdbcTemplate.query("SELECT id, title, description, user_id, creator_id, assignee_id, updated_at " +
+                "FROM tasks WHERE id IN (" + placeholders + ")", (RowCallbackHandler) rs -> {
+            long id = rs.getLong("id");
+            Document document = new Document();
+            document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+            addText(document, TITLE, rs.getString("title"));
+            addText(document, DESCRIPTION, rs.getString("description"));
+            addKeyword(document, OWNER, rs.getObject("user_id", Long.class));
+            addKeyword(document, CREATOR, rs.getObject("creator_id", Long.class));
+            addKeyword(document, ASSIGNEE, rs.getObject("assignee_id", Long.class));
+            documents.put(id, document);
+            taskUpdatedAt.put(id, rs.getTimestamp("updated_at"));
+        }, ids.toArray());
+
+        Map<Long, Long> commentCounts = new HashMap<>();
+        Map<Long, Timestamp> commentUpdatedAt = new HashMap<>();
+        jdbcTemplate.query("SELECT task_id, comment, updated_at FROM task_comments WHERE task_id IN (" +
+                placeholders + ")", (RowCallbackHandler) rs -> {
+            long taskId = rs.getLong("task_id");
+            Document document = documents.get(taskId);
+            if (document == null) {
+                return;
+            }
+            addText(document, COMMENTS, rs.getString("comment"));
+            commentCounts.merge(taskId, 1L, Long::sum);
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            if (updatedAt != null) {
+                commentUpdatedAt.merge(taskId, updatedAt, (a, b) -> a.after(b) ? a : b);
+            }
+        }, ids.toArray());
+
+        for (Long id : ids) {
+            Term key = new Term(ID, String.valueOf(id));
+            Document document = documents.get(id);
+            if (document == null) {
+                writer.deleteDocuments(key);
+                continue;
+            }
+            document.add(new StoredField(VERSION, version(taskUpdatedAt.get(id),
+                    commentCounts.getOrDefault(id, 0L), commentUpdatedAt.get(id))));
+            writer.updateDocument(key, document);
+        }
+    }
+
+    private Map<Long, String> indexedVersions() throws IOException {
+        Map<Long, String> versions = new HashMap<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                StoredFields storedFields = leaf.reader().storedFields();
+                for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    Document document = storedFields.document(doc, Set.of(ID, VERSION));
+                    versions.put(Long.parseLong(document.get(ID)), document.get(VERSION));
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return versions;
+    }
+
+    private Query visibleTo(Long userId) {
+        String id = String.valueOf(userId);
+        return new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(OWNER, id)), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(CREATOR, id)), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(ASSIGNEE, id)), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private void openWriter() throws IOException {
+        String path = properties.getDirectory();
+        if (path != null && !path.isBlank()) {
+            FSDirectory onDisk = FSDirectory.open(Path.of(path));
+            try {
+                directory = onDisk;
+                writer = new IndexWriter(onDisk, new IndexWriterConfig(analyzer));
+                return;
+            } catch (LockObtainFailedException e) {
+                // another instance owns the directory; serve from memory and let reconcile fill it
+                log.warn("Task search index at {} is locked, using an in-memory index", path);
+                onDisk.close();
+            }
+        }
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addKeyword(Document document, String field, Long value) {
+        if (value != null) {
+            document.add(new StringField(field, String.valueOf(value), Field.Store.NO));
+        }
+    }
+
+    private static String version(Timestamp updatedAt, long commentCount, Timestamp commentUpdatedAt) {
+        return millis(updatedAt) + "/" + commentCount + "/" + millis(commentUpdatedAt);
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp == null ? 0 : timestamp.getTime();
+    }
+}
@@ -1,39 +1,82 @@
 package com.davymbaimbai.service.impl;
+import com.davymbaimbai.config.FacetIndexProperties;
+import com.davymbaimbai.config.SearchIndexProperties;
+import com.davymbaimbai.dto.CursorPage;
 import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskCursor;
+import com.davymbaimbai.dto.TaskFacetResult;
 import com.davymbaimbai.dto.TaskRequest;
+import com.davymbaimbai.dto.TaskSearchHit;
+import com.davymbaimbai.dto.TaskSummary;
+import com.davymbaimbai.dto.TaskView;
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.Role;
 import com.davymbaimbai.enums.TaskStatus;
 import com.davymbaimbai.exceptions.BadRequestException;
 import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.jfr.TaskOperationEvent;
 import com.davymbaimbai.repository.TaskRepository;
+import com.davymbaimbai.repository.TaskSpecifications;
 import com.davymbaimbai.repository.UserRepository;
 import com.davymbaimbai.service.TaskService;
 import com.davymbaimbai.service.TaskActivityService;
 import com.davymbaimbai.service.UserService;
 import com.davymbaimbai.service.WebSocketService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TasksServiceImpl implements TaskService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int STREAM_FLUSH_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final WebSocketService webSocketService;
     private final TaskActivityService taskActivityService;
+    private final ObjectMapper objectMapper;
+    private final TaskCounterStore taskCounterStore;
+    private final TaskFacetIndex taskFacetIndex;
+    private final FacetIndexProperties facetIndexProperties;
+    private final TaskSearchIndex taskSearchIndex;
+    private final SearchIndexProperties searchIndexProperties;
+    private final TaskQueryPlanner taskQueryPlanner;
+    private final TaskRecipientIndex taskRecipientIndex;
     @Override
-    public Response<Task> createTask(TaskRequest taskRequest) {
+    @Transactional
+    public Response<TaskView> createTask(TaskRequest taskRequest) {
         log.info("INSIDE createTask()");
+        TaskOperationEvent event = new TaskOperationEvent("CREATE");
+        event.begin();
         User creator = userService.getCurrentLoggedInUser();
         TaskStatus status = taskRequest.getStatus();
         if (status == null && taskRequest.getCompleted() != null) {
@@ -60,6 +103,10 @@ public class TasksServiceImpl implements TaskService {
                 .user(creator)
                 .build();
         Task savedTask = taskRepository.save(taskToSave);
+        taskCounterStore.taskCreated(savedTask);
+        taskFacetIndex.taskSaved(savedTask);
+        taskSearchIndex.taskChanged(savedTask.getId());
+        taskRecipientIndex.taskSaved(savedTask);
 
         taskActivityService.logTaskCreated(savedTask.getId(), creator.getId());
         if (assignee != null) {
@@ -67,22 +114,23 @@ public class TasksServiceImpl implements TaskService {
         }
 
         webSocketService.broadcastTaskUpdate(savedTask, "TASK_CREATED", creator.getUsername());
-        
-        return Response.<Task>builder()
+        event.finish(savedTask.getId(), creator.getId());
+
+        return Response.<TaskView>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Task Created Successfully")
-                .data(savedTask)
+                .data(TaskView.of(savedTask))
                 .build();
 
     }
 
     @Override
-    @Transactional
-    public Response<List<Task>> getAllMyTasks() {
+    public Response<List<TaskView>> getAllMyTasks() {
         log.info("inside getAllMyTasks()");
         User currentUser = userService.getCurrentLoggedInUser();
-        List<Task> tasks = taskRepository.findByUser(currentUser, Sort.by(Sort.Direction.DESC, "id"));
-        return Response.<List<Task>>builder()
+        List<TaskView> tasks = taskRepository.findViews(TaskSpecifications.ownedBy(currentUser),
+                Sort.by(Sort.Direction.DESC, "id"));
+        return Response.<List<TaskView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Tasks retrieved successfully")
                 .data(tasks)
@@ -90,19 +138,22 @@ public class TasksServiceImpl implements TaskService {
     }
 
     @Override
-    public Response<Task> getTaskById(Long id) {
+    public Response<TaskView> getTaskById(Long id) {
         log.info("inside getTaskById()");
-        Task task = taskRepository.findById(id)
+        TaskView task = taskRepository.findViewById(id)
                 .orElseThrow(()-> new NotFoundException("Tasks not found"));
-        return Response.<Task>builder()
+        return Response.<TaskView>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Task retrieved successfully")
                 .data(task)
                 .build();
     }
     @Override
-    public Response<Task> updateTask(TaskRequest taskRequest) {
+    @Transactional
+    public Response<TaskView> updateTask(TaskRequest taskRequest) {
         log.info("inside updateTask()");
+        TaskOperationEvent event = new TaskOperationEvent("UPDATE");
+        event.begin();
         Task task = taskRepository.findById(taskRequest.getId())
                 .orElseThrow(()-> new NotFoundException("Tasks not found"));
         
@@ -111,6 +162,7 @@ public class TasksServiceImpl implements TaskService {
             (task.getAssignee() == null || !task.getAssignee().getId().equals(currentUser.getId()))) {
             throw new BadRequestException("You don't have permission to update this task");
         }
+        TaskCounterStore.Snapshot counted = TaskCounterStore.snapshot(task);
         TaskStatus originalStatus = task.getStatus();
         Priority originalPriority = task.getPriority();
         User originalAssignee = task.getAssignee();
@@ -141,6 +193,10 @@ public class TasksServiceImpl implements TaskService {
         
         task.setUpdatedAt(LocalDateTime.now());
         Task updatedTask = taskRepository.save(task);
+        taskCounterStore.taskChanged(counted, updatedTask);
+        taskFacetIndex.taskSaved(updatedTask);
+        taskSearchIndex.taskChanged(updatedTask.getId());
+        taskRecipientIndex.taskSaved(updatedTask);
         boolean hasChanges = false;
         if (!originalStatus.equals(updatedTask.getStatus())) {
             taskActivityService.logStatusChanged(updatedTask.getId(), currentUser.getId(), 
@@ -181,25 +237,34 @@ public class TasksServiceImpl implements TaskService {
         } else {
             webSocketService.broadcastTaskUpdate(updatedTask, "TASK_UPDATED", currentUser.getUsername());
         }
-        
-        return Response.<Task>builder()
+        event.finish(updatedTask.getId(), currentUser.getId());
+
+        return Response.<TaskView>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Task updated successfully")
-                .data(updatedTask)
+                .data(TaskView.of(updatedTask))
                 .build();
     }
 
     @Override
+    @Transactional
     public Response<Void> deleteTask(Long id) {
         log.info("inside delete task");
+        TaskOperationEvent event = new TaskOperationEvent("DELETE");
+        event.begin();
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Task does not exists"));
         
         User currentUser = userService.getCurrentLoggedInUser();
         taskActivityService.logTaskDeleted(task.getId(), currentUser.getId());
-        webSocketService.broadcastTaskUpdate(task, "TASK_DELETED", currentUser.getUsername());
         
         taskRepository.deleteById(id);
+        taskCounterStore.taskDeleted(task);
+        taskFacetIndex.taskDeleted(id);
+        taskSearchIndex.taskChanged(id);
+        taskRecipientIndex.taskDeleted(id);
+        webSocketService.broadcastTaskUpdate(task, "TASK_DELETED", currentUser.getUsername());
+        event.finish(id, currentUser.getId());
         return Response.<Void>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("task deleted successfully")
@@ -208,13 +273,45 @@ public class TasksServiceImpl implements TaskService {
 
     @Override
     @Transactional
-    public Response<List<Task>> getMyTasksByCompletionStatus(boolean completed) {
+    public Response<Void> watchTask(Long id) {
+        log.info("inside watchTask()");
+        if (!taskRepository.existsById(id)) {
+            throw new NotFoundException("Task not found");
+        }
+        User currentUser = userService.getCurrentLoggedInUser();
+        if (currentUser.getRole() != Role.ADMIN && !taskRecipientIndex.recipients(id).contains(currentUser.getId())) {
+            throw new BadRequestException("You don't have permission to watch this task");
+        }
+        boolean added = taskRecipientIndex.addWatcher(id, currentUser.getId());
+        return Response.<Void>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message(added ? "Watching task" : "Already watching task")
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Response<Void> unwatchTask(Long id) {
+        log.info("inside unwatchTask()");
+        User currentUser = userService.getCurrentLoggedInUser();
+        if (!taskRecipientIndex.removeWatcher(id, currentUser.getId()) && !taskRepository.existsById(id)) {
+            throw new NotFoundException("Task not found");
+        }
+        return Response.<Void>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Stopped watching task")
+                .build();
+    }
+
+    @Override
+    public Response<List<TaskView>> getMyTasksByCompletionStatus(boolean completed) {
         log.info("inside getMyTasksByCompletionStatus()");
         User currentUser = userService.getCurrentLoggedInUser();
         TaskStatus status = completed ? TaskStatus.DONE : TaskStatus.TODO;
-        List<Task> tasks = taskRepository.findByStatusAndCreator(status, currentUser, 
+        List<TaskView> tasks = taskRepository.findViews(
+                TaskSpecifications.hasStatus(status).and(TaskSpecifications.createdBy(currentUser)),
                 Sort.by(Sort.Direction.DESC, "createdAt"));
-        return Response.<List<Task>>builder()
+        return Response.<List<TaskView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Tasks filtered by completion status for user")
                 .data(tasks)
@@ -223,13 +320,14 @@ public class TasksServiceImpl implements TaskService {
     }
 
     @Override
-    public Response<List<Task>> getMyTasksByPriority(String priority) {
+    public Response<List<TaskView>> getMyTasksByPriority(String priority) {
         log.info("inside getMyTasksByPriority()");
         User currentUser = userService.getCurrentLoggedInUser();
         Priority priorityEnum = Priority.valueOf(priority.toUpperCase());
-        List<Task> tasks = taskRepository.
-                findByPriorityAndUser(priorityEnum, currentUser, Sort.by(Sort.Direction.DESC, "id"));
-        return Response.<List<Task>>builder()
+        List<TaskView> tasks = taskRepository.findViews(
+                TaskSpecifications.hasPriority(priorityEnum).and(TaskSpecifications.ownedBy(currentUser)),
+                Sort.by(Sort.Direction.DESC, "id"));
+        return Response.<List<TaskView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Tasks filtered by priority for user")
                 .data(tasks)
@@ -238,17 +336,10 @@ public class TasksServiceImpl implements TaskService {
     }
     
     @Override
-    public Response<List<Task>> getTasksWithFilters(String status, Long assigneeId) {
+    public Response<List<TaskView>> getTasksWithFilters(String status, Long assigneeId) {
         log.info("inside getTasksWithFilters()");
         
-        TaskStatus taskStatus = null;
-        if (status != null && !status.isEmpty()) {
-            try {
-                taskStatus = TaskStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new BadRequestException("Invalid status: " + status);
-            }
-        }
+        TaskStatus taskStatus = parseStatus(status);
         
         User assignee = null;
         if (assigneeId != null) {
@@ -257,10 +348,10 @@ public class TasksServiceImpl implements TaskService {
         }
         
         User currentUser = userService.getCurrentLoggedInUser();
-        List<Task> tasks = taskRepository.findTasksWithFilters(taskStatus, assignee, currentUser, 
+        List<TaskView> tasks = taskRepository.findTasksWithFilters(taskStatus, assignee, currentUser, 
                 Sort.by(Sort.Direction.DESC, "createdAt"));
         
-        return Response.<List<Task>>builder()
+        return Response.<List<TaskView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Tasks filtered successfully")
                 .data(tasks)
@@ -268,13 +359,206 @@ public class TasksServiceImpl implements TaskService {
     }
     
     @Override
-    public Response<List<Task>> getAllTasks() {
+    public Response<TaskFacetResult> getTaskFacets(String status, String priority, Long assigneeId,
+                                                   Long creatorId, Long ownerId, Long before, Integer limit) {
+        log.info("inside getTaskFacets()");
+        User currentUser = userService.getCurrentLoggedInUser();
+        if (currentUser.getRole() != Role.ADMIN) {
+            // same scope as getTasksWithFilters: everyone else only sees the tasks they created
+            creatorId = currentUser.getId();
+        }
+        TaskFacetIndex.Query query = TaskFacetIndex.Query.builder()
+                .status(parseStatus(status))
+                .priority(parsePriority(priority))
+                .assigneeId(assigneeId)
+                .creatorId(creatorId)
+                .ownerId(ownerId)
+                .build();
+        int maxPageSize = facetIndexProperties.getMaxPageSize();
+        int pageSize = limit == null ? Math.min(DEFAULT_PAGE_SIZE, maxPageSize) : Math.max(0, Math.min(limit, maxPageSize));
+        TaskFacetIndex.Match match = taskFacetIndex.search(query, before, pageSize);
+        List<TaskView> items = match.getPageIds().isEmpty()
+                ? List.of()
+                : taskRepository.findViews(TaskSpecifications.idIn(match.getPageIds()), Sort.by(Sort.Direction.DESC, "id"));
+        return Response.<TaskFacetResult>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Tasks filtered successfully")
+                .data(TaskFacetResult.builder()
+                        .total(match.getTotal())
+                        .items(items)
+                        .nextBefore(match.getNextBefore())
+                        .facets(match.getFacets())
+                        .indexed(match.isIndexed())
+                        .build())
+                .build();
+    }
+
+    @Override
+    public Response<List<TaskView>> queryTasks(String query, Integer limit) {
+        log.info("inside queryTasks()");
+        TaskQuery parsed = TaskQueryParser.parse(query);
+        User currentUser = userService.getCurrentLoggedInUser();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Response.<List<TaskView>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Tasks retrieved successfully")
+                .data(taskQueryPlanner.execute(parsed, currentUser, pageSize))
+                .build();
+    }
+
+    @Override
+    public Response<List<TaskSearchHit>> searchTasks(String query, Integer limit) {
+        log.info("inside searchTasks()");
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        User currentUser = userService.getCurrentLoggedInUser();
+        Long visibleTo = currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
+        int maxResults = searchIndexProperties.getMaxResults();
+        int size = limit == null ? Math.min(DEFAULT_SEARCH_SIZE, maxResults) : Math.max(1, Math.min(limit, maxResults));
+        List<TaskSearchIndex.Hit> hits;
+        try {
+            hits = taskSearchIndex.search(query, visibleTo, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (hits.isEmpty()) {
+            return searchResponse(List.of());
+        }
+        // hits for a task deleted since the last refresh simply find no view
+        Map<Long, TaskView> views = taskRepository.findViews(
+                        TaskSpecifications.idIn(hits.stream().map(TaskSearchIndex.Hit::getTaskId).toList()),
+                        Sort.by(Sort.Direction.DESC, "id"))
+                .stream()
+                .collect(Collectors.toMap(TaskView::getId, Function.identity()));
+        return searchResponse(hits.stream()
+                .filter(hit -> views.containsKey(hit.getTaskId()))
+                .map(hit -> TaskSearchHit.builder()
+                        .task(views.get(hit.getTaskId()))
+                        .score(hit.getScore())
+                        .build())
+                .toList());
+    }
+
+    @Override
+    public Response<List<TaskView>> getAllTasks() {
         log.info("inside getAllTasks()");
-        List<Task> tasks = taskRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        return Response.<List<Task>>builder()
+        List<TaskView> tasks = taskRepository.findViews(Specification.allOf(), Sort.by(Sort.Direction.DESC, "createdAt"));
+        return Response.<List<TaskView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("All tasks retrieved successfully")
                 .data(tasks)
                 .build();
     }
+
+    @Override
+    public Response<TaskSummary> getMyTaskSummary() {
+        log.info("inside getMyTaskSummary()");
+        User currentUser = userService.getCurrentLoggedInUser();
+        return Response.<TaskSummary>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Task summary retrieved successfully")
+                .data(taskCounterStore.summarize(currentUser.getId()))
+                .build();
+    }
+
+    @Override
+    public Response<CursorPage<TaskView>> getMyTasksPage(String status, Long assigneeId, String cursor, Integer limit) {
+        log.info("inside getMyTasksPage()");
+        User currentUser = userService.getCurrentLoggedInUser();
+        List<Specification<Task>> clauses = new ArrayList<>();
+        if (status == null && assigneeId == null) {
+            clauses.add(TaskSpecifications.ownedBy(currentUser));
+        } else {
+            clauses.add(TaskSpecifications.createdBy(currentUser));
+            TaskStatus taskStatus = parseStatus(status);
+            if (taskStatus != null) {
+                clauses.add(TaskSpecifications.hasStatus(taskStatus));
+            }
+            if (assigneeId != null) {
+                clauses.add(TaskSpecifications.assignedTo(assigneeId));
+            }
+        }
+        return Response.<CursorPage<TaskView>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Tasks retrieved successfully")
+                .data(fetchPage(clauses, cursor, limit))
+                .build();
+    }
+
+    @Override
+    public Response<CursorPage<TaskView>> getAllTasksPage(String cursor, Integer limit) {
+        log.info("inside getAllTasksPage()");
+        return Response.<CursorPage<TaskView>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("All tasks retrieved successfully")
+                .data(fetchPage(new ArrayList<>(), cursor, limit))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTasks(User owner, OutputStream outputStream) throws IOException {
+        log.info("inside streamTasks()");
+        Specification<Task> spec = owner == null ? Specification.allOf() : TaskSpecifications.ownedBy(owner);
+        try (Stream<TaskView> tasks = taskRepository.streamViews(spec, KEYSET_SORT);
+             SequenceWriter writer = objectMapper.writerFor(TaskView.class)
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(outputStream)) {
+            int written = 0;
+            Iterator<TaskView> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % STREAM_FLUSH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    private CursorPage<TaskView> fetchPage(List<Specification<Task>> clauses, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (cursor != null && !cursor.isEmpty()) {
+            clauses.add(TaskSpecifications.after(TaskCursor.decode(cursor)));
+        }
+        List<TaskView> rows = taskRepository.findViews(Specification.allOf(clauses), KEYSET_SORT, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPage.<TaskView>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? TaskCursor.of(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private Response<List<TaskSearchHit>> searchResponse(List<TaskSearchHit> hits) {
+        return Response.<List<TaskSearchHit>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Tasks searched successfully")
+                .data(hits)
+                .build();
+    }
+
+    private Priority parsePriority(String priority) {
+        if (priority == null || priority.isEmpty()) {
+            return null;
+        }
+        try {
+            return Priority.valueOf(priority.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid priority: " + priority);
+        }
+    }
+
+    private TaskStatus parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        try {
+            return TaskStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid status: " + status);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.davymbaimbai.service.impl;
+
+import com.davymbaimbai.config.RequestTrace;
+import com.davymbaimbai.config.TraceProperties;
+import com.davymbaimbai.dto.RequestTraceView;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TraceSpanView;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.service.TraceService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps a sampled subset of request traces in a fixed ring buffer: a share of all requests
+ * picked at random plus every request over the slow threshold, so the slowest requests of
+ * the last minutes are there even when the sample rate is low.
+ */
+@Service
+public class TraceServiceImpl implements TraceService {
+
+    private static final int MAX_MINUTES = 60;
+    private static final int MAX_LIMIT = 100;
+
+    private final TraceProperties properties;
+    private final AtomicReferenceArray<RequestTraceView> buffer;
+    private final AtomicLong next = new AtomicLong();
+
+    public TraceServiceImpl(TraceProperties properties) {
+        this.properties = properties;
+        this.buffer = new AtomicReferenceArray<>(Math.max(1, properties.getBufferSize()));
+    }
+
+    @Override
+    public void recordTrace(RequestTrace trace, String method, String uri, int status) {
+        long durationNanos = trace.getElapsedNanos();
+        boolean slow = durationNanos >= properties.getSlowThresholdMs() * 1_000_000;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return;
+        }
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        for (String category : List.of(RequestTrace.AUTH, RequestTrace.DB, RequestTrace.SERVICE,
+                RequestTrace.SERIALIZATION, RequestTrace.WEBSOCKET)) {
+            if (trace.getCount(category) > 0) {
+                breakdown.put(category, millis(trace.getTotalNanos(category)));
+            }
+        }
+        List<TraceSpanView> spans = new ArrayList<>(trace.getSpans().size());
+        for (RequestTrace.Span span : trace.getSpans()) {
+            spans.add(TraceSpanView.builder()
+                    .category(span.category())
+                    .detail(span.detail())
+                    .offsetMs(millis(span.offsetNanos()))
+                    .durationMs(millis(span.durationNanos()))
+                    .build());
+        }
+        RequestTraceView view = RequestTraceView.builder()
+                .method(method)
+                .uri(uri)
+                .status(status)
+                .username(trace.getUsername())
+                .startedAt(Instant.ofEpochMilli(trace.getStartedAt()))
+                .durationMs(millis(durationNanos))
+                .breakdownMs(breakdown)
+                .spans(spans)
+                .droppedSpans(trace.getDroppedSpans())
+                .build();
+        buffer.set((int) (next.getAndIncrement() % buffer.length()), view);
+    }
+
+    @Override
+    public Response<List<RequestTraceView>> getSlowestTraces(String uri, int minutes, int limit) {
+        if (minutes < 1 || minutes > MAX_MINUTES) {
+            throw new BadRequestException("minutes must be between 1 and " + MAX_MINUTES);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Instant since = Instant.now().minusSeconds(minutes * 60L);
+        Map<String, List<RequestTraceView>> byEndpoint = new LinkedHashMap<>();
+        for (int i = 0; i < buffer.length(); i++) {
+            RequestTraceView trace = buffer.get(i);
+            if (trace == null || trace.getStartedAt().isBefore(since) || (uri != null && !uri.equals(trace.getUri()))) {
+                continue;
+            }
+            byEndpoint.computeIfAbsent(trace.getMethod() + " " + trace.getUri(), key -> new ArrayList<>()).add(trace);
+        }
+        Comparator<RequestTraceView> slowestFirst = Comparator.comparingDouble(RequestTraceView::getDurationMs).reversed();
+        List<RequestTraceView> slowest = new ArrayList<>();
+        for (List<RequestTraceView> traces : byEndpoint.values()) {
+            traces.sort(slowestFirst);
+            slowest.addAll(traces.subList(0, Math.min(limit, traces.size())));
+        }
+        slowest.sort(slowestFirst);
+
+        return Response.<List<RequestTraceView>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Traces retrieved successfully")
+                .data(slowest)
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
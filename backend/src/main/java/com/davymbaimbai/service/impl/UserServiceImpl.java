@@ -4,16 +4,20 @@ package com.davymbaimbai.service.impl;
 import com.davymbaimbai.dto.Response;
 import com.davymbaimbai.dto.UserRequest;
 import com.davymbaimbai.dto.LoginRequest;
+import com.davymbaimbai.dto.UserView;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.enums.Role;
 import com.davymbaimbai.exceptions.BadRequestException;
 import com.davymbaimbai.exceptions.NotFoundException;
 import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.security.AuthUser;
 import com.davymbaimbai.security.JwtUtils;
 import com.davymbaimbai.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -72,16 +76,21 @@ public class UserServiceImpl implements UserService {
     }
     @Override
     public User getCurrentLoggedInUser() {
-        String  username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // AuthFilter already resolved the user, no need to load it again
+        if (authentication.getPrincipal() instanceof AuthUser authUser) {
+            return authUser.getUser();
+        }
+        String  username = authentication.getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(()-> new NotFoundException("User not found"));
     }
     
     @Override
-    public Response<List<User>> getAllUsers() {
+    public Response<List<UserView>> getAllUsers() {
         log.info("Inside getAllUsers()");
-        List<User> users = userRepository.findAll();
-        return Response.<List<User>>builder()
+        List<UserView> users = userRepository.findAllViews(Sort.by(Sort.Direction.ASC, "id"));
+        return Response.<List<UserView>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Users retrieved successfully")
                 .data(users)
@@ -2,75 +2,131 @@ package com.davymbaimbai.service.impl;
 
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.TaskActivity;
+import com.davymbaimbai.entity.User;
 import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskBatchEventDto;
+import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.repository.UserRepository;
 import com.davymbaimbai.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Service
 public class WebSocketServiceImpl implements WebSocketService {
 
+    private static final String ALL_TASKS = "/topic/tasks";
+    private static final String MY_TASKS = "/queue/tasks";
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private TaskRecipientIndex taskRecipientIndex;
+
+    @Autowired
+    private UserRepository userRepository;
 
     @Override
     public void broadcastTaskUpdate(Task task, String action, String username) {
-        TaskActivityDto activity = TaskActivityDto.builder()
-                .taskId(task.getId())
+        TaskActivityDto activity = taskEvent(task)
                 .action(action)
                 .username(username)
                 .timestamp(LocalDateTime.now())
-                .taskTitle(task.getTitle())
                 .build();
         
-        messagingTemplate.convertAndSend("/topic/tasks", activity);
+        toTaskAudience(taskRecipientIndex.recipients(task), activity);
     }
 
     @Override
-    public void broadcastTaskComment(Long taskId, String comment, String username) {
-        TaskActivityDto activity = TaskActivityDto.builder()
-                .taskId(taskId)
+    public void broadcastTaskComment(Task task, String comment, String username) {
+        Long taskId = task.getId();
+        TaskActivityDto activity = taskEvent(task)
                 .action("COMMENT_ADDED")
                 .username(username)
                 .comment(comment)
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        messagingTemplate.convertAndSend("/topic/tasks/" + taskId + "/comments", activity);
-        messagingTemplate.convertAndSend("/topic/tasks", activity);
+        eventOutbox.append("/topic/tasks/" + taskId + "/comments", activity);
+        toTaskAudience(taskRecipientIndex.recipients(task), activity);
     }
 
     @Override
     public void broadcastTaskStatusChange(Task task, String oldStatus, String newStatus, String username) {
-        TaskActivityDto activity = TaskActivityDto.builder()
-                .taskId(task.getId())
+        TaskActivityDto activity = taskEvent(task)
                 .action("STATUS_CHANGED")
                 .username(username)
                 .oldStatus(oldStatus)
                 .newStatus(newStatus)
-                .taskTitle(task.getTitle())
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        messagingTemplate.convertAndSend("/topic/tasks", activity);
+        toTaskAudience(taskRecipientIndex.recipients(task), activity);
     }
 
     @Override
     public void broadcastTaskActivity(TaskActivity activity) {
-        TaskActivityDto activityDto = TaskActivityDto.builder()
-                .taskId(activity.getTask().getId())
+        TaskActivityDto activityDto = taskEvent(activity.getTask())
                 .action(activity.getActivityType().toString())
                 .username(activity.getUser().getUsername())
-                .taskTitle(activity.getTask().getTitle())
                 .timestamp(activity.getCreatedAt())
                 .oldStatus(activity.getOldValue())
                 .newStatus(activity.getNewValue())
                 .comment(activity.getNewValue())
+                .previousAssigneeId(previousAssigneeId(activity))
+                .previousPriority(previousPriority(activity))
                 .build();
-        messagingTemplate.convertAndSend("/topic/tasks/" + activity.getTask().getId() + "/activities", activityDto);
-        messagingTemplate.convertAndSend("/topic/tasks", activityDto);
+        eventOutbox.append("/topic/tasks/" + activity.getTask().getId() + "/activities", activityDto);
+        toTaskAudience(taskRecipientIndex.recipients(activity.getTask()), activityDto);
+    }
+
+    @Override
+    public void broadcastTaskBatch(TaskBatchEventDto batchEvent, Set<Long> recipients) {
+        toTaskAudience(recipients, batchEvent);
+    }
+
+    /**
+     * The user an unassignment removed, logged by username. A reassignment is logged as an
+     * unassignment followed by an assignment, so this also covers the assignee it replaced.
+     */
+    private Long previousAssigneeId(TaskActivity activity) {
+        if (activity.getActivityType() != ActivityType.UNASSIGNED || activity.getOldValue() == null) {
+            return null;
+        }
+        return userRepository.findByUsername(activity.getOldValue()).map(User::getId).orElse(null);
+    }
+
+    private static String previousPriority(TaskActivity activity) {
+        if (activity.getActivityType() != ActivityType.PRIORITY_CHANGED || activity.getOldValue() == null) {
+            return null;
+        }
+        // "None" when the task had no priority
+        try {
+            return Priority.valueOf(activity.getOldValue()).name();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static TaskActivityDto.TaskActivityDtoBuilder taskEvent(Task task) {
+        return TaskActivityDto.builder()
+                .taskId(task.getId())
+                .taskTitle(task.getTitle())
+                .status(task.getStatus() != null ? task.getStatus().name() : null)
+                .priority(task.getPriority() != null ? task.getPriority().name() : null)
+                .assigneeId(task.getAssignee() != null ? task.getAssignee().getId() : null);
+    }
+
+    /**
+     * The global topic is for admins; everyone else gets the events of the tasks they own,
+     * created, are assigned to or watch on their own queue.
+     */
+    private void toTaskAudience(Set<Long> recipients, Object event) {
+        eventOutbox.append(ALL_TASKS, event);
+        eventOutbox.appendToUsers(recipients, MY_TASKS, event);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+-- Schema as previously generated by Hibernate from the entity mappings.
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username    VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(32),
+    created_at  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tasks (
+    id           BIGINT NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(1000),
+    status       VARCHAR(32) NOT NULL,
+    priority     VARCHAR(32) NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    assignee_id  BIGINT,
+    creator_id   BIGINT NOT NULL,
+    user_id      BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_assignee FOREIGN KEY (assignee_id) REFERENCES users (id),
+    CONSTRAINT fk_tasks_creator FOREIGN KEY (creator_id) REFERENCES users (id),
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE task_comments (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    comment     VARCHAR(1000) NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    task_id     BIGINT NOT NULL,
+    user_id     BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_comments_task FOREIGN KEY (task_id) REFERENCES tasks (id),
+    CONSTRAINT fk_task_comments_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE task_activities (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    activity_type  VARCHAR(32) NOT NULL,
+    description    VARCHAR(500),
+    old_value      VARCHAR(255),
+    new_value      VARCHAR(255),
+    created_at     TIMESTAMP(6),
+    task_id        BIGINT NOT NULL,
+    user_id        BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_activities_task FOREIGN KEY (task_id) REFERENCES tasks (id),
+    CONSTRAINT fk_task_activities_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE task_counters (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    scope       VARCHAR(32) NOT NULL,
+    user_id     BIGINT NOT NULL,
+    status      VARCHAR(32) NOT NULL,
+    priority    VARCHAR(32) NOT NULL,
+    task_count  BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_task_counters_key UNIQUE (scope, user_id, status, priority)
+);
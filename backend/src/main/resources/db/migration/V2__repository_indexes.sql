@@ -0,0 +1,24 @@
+-- Composite indexes for the repository access patterns. Equality columns come first and the
+-- sort columns (created_at, id) last, so filtered lists are read in index order without a sort.
+
+-- findByUser, streamByUserOrderByCreatedAtDesc, keyset pages of "my tasks"
+CREATE INDEX idx_tasks_user_created ON tasks (user_id, created_at, id);
+
+-- findByPriorityAndUser
+CREATE INDEX idx_tasks_priority_user ON tasks (priority, user_id, id);
+
+-- findByCreator, findByStatusAndCreator, findTasksWithFilters by status
+CREATE INDEX idx_tasks_creator_status_created ON tasks (creator_id, status, created_at, id);
+
+-- findByAssignee, findByStatusAndAssignee, findByAssigneeAndCreator
+CREATE INDEX idx_tasks_assignee_status_created ON tasks (assignee_id, status, created_at, id);
+
+-- findByStatus
+CREATE INDEX idx_tasks_status_created ON tasks (status, created_at, id);
+
+-- findAll sorted by createdAt, streamAllOrderByCreatedAtDesc, keyset pages of all tasks
+CREATE INDEX idx_tasks_created ON tasks (created_at, id);
+
+-- findByTaskId sorted by createdAt, deleteByTaskIds
+CREATE INDEX idx_task_activities_task_created ON task_activities (task_id, created_at, id);
+CREATE INDEX idx_task_comments_task_created ON task_comments (task_id, created_at, id);
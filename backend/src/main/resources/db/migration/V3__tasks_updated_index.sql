@@ -0,0 +1,2 @@
+-- Query language sorts and ranges on updated_at (sort:-updatedAt, updated>2026-01-01)
+CREATE INDEX idx_tasks_updated ON tasks (updated_at, id);
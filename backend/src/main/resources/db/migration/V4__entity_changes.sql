@@ -0,0 +1,14 @@
+-- Change log for the entity cache. Every committed write to tasks or users adds a row here in
+-- the same transaction; each instance polls for rows past the last sequence it has seen and
+-- evicts the entities that other instances changed.
+CREATE TABLE entity_changes (
+    seq         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    entity_name VARCHAR(50) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    origin      VARCHAR(36) NOT NULL,
+    changed_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (seq)
+);
+
+-- pruning by age
+CREATE INDEX idx_entity_changes_changed_at ON entity_changes (changed_at);
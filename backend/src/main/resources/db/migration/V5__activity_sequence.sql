@@ -0,0 +1,20 @@
+-- Feed position of each activity. It is stamped after the activity commits, by one
+-- sequencer at a time holding the activity_sequence row lock, so a reader that has seen
+-- seq N can never later find a row below N appear.
+ALTER TABLE task_activities ADD COLUMN seq BIGINT;
+
+UPDATE task_activities SET seq = id;
+
+CREATE TABLE activity_sequence (
+    id        INT    NOT NULL,
+    last_seq  BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO activity_sequence (id, last_seq) SELECT 1, COALESCE(MAX(seq), 0) FROM task_activities;
+
+-- global feed (seq > ?), and the unstamped rows (seq IS NULL) the sequencer picks up
+CREATE UNIQUE INDEX idx_task_activities_seq ON task_activities (seq);
+
+-- per-task feed
+CREATE INDEX idx_task_activities_task_seq ON task_activities (task_id, seq);
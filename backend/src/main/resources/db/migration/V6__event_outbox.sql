@@ -0,0 +1,21 @@
+-- WebSocket events, written in the transaction that raised them and published by every
+-- instance's dispatcher once they commit.
+CREATE TABLE event_outbox (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    destination  VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(32)  NOT NULL,
+    payload      CLOB         NOT NULL,
+    created_at   TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+-- pruning by age
+CREATE INDEX idx_event_outbox_created_at ON event_outbox (created_at);
+
+-- Highest outbox id each dispatcher has published everything up to.
+CREATE TABLE event_outbox_offsets (
+    consumer     VARCHAR(64) NOT NULL,
+    delivered_id BIGINT      NOT NULL,
+    updated_at   TIMESTAMP   NOT NULL,
+    PRIMARY KEY (consumer)
+);
@@ -0,0 +1,16 @@
+-- Users following a task's events besides its owner, creator and assignee.
+CREATE TABLE task_watchers (
+    task_id    BIGINT    NOT NULL,
+    user_id    BIGINT    NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (task_id, user_id),
+    CONSTRAINT fk_task_watchers_task FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE,
+    CONSTRAINT fk_task_watchers_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- user deletes
+CREATE INDEX idx_task_watchers_user ON task_watchers (user_id);
+
+-- User ids an outbox event is delivered to on their own queue, comma separated; null for a
+-- topic event.
+ALTER TABLE event_outbox ADD COLUMN recipients VARCHAR(2000);
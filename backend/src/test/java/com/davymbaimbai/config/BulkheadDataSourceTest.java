@@ -0,0 +1,62 @@
+package com.davymbaimbai.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void getConnection_AllPermitsTaken_FailsAfterTimeout() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, 20);
+
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getActiveCount());
+        assertEquals(1, dataSource.getRejectedCount());
+        held.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void close_Twice_ReleasesThePermitOnce() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 2, 20);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.getActiveCount());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_PoolFails_ReturnsThePermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, 20);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.getActiveCount());
+    }
+}
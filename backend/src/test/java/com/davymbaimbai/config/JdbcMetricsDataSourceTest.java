@@ -0,0 +1,72 @@
+package com.davymbaimbai.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcMetricsDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void statements_AreTimedByKindAndTracedWithTheirSql() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JdbcMetricsDataSource dataSource = new JdbcMetricsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:jdbc-metrics;DB_CLOSE_DELAY=-1", "sa", ""));
+        dataSource.bindTo(registry);
+        RequestTrace trace = RequestTrace.begin(10);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS items (id INT)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?)")) {
+                insert.setInt(1, 1);
+                insert.addBatch();
+                insert.executeBatch();
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM items")) {
+                assertTrue(rows.next());
+            }
+        }
+
+        assertEquals(3, trace.getCount(RequestTrace.DB));
+        assertTrue(trace.getTotalNanos(RequestTrace.DB) > 0);
+        assertEquals("INSERT INTO items VALUES (?)", trace.getSpans().get(1).detail());
+        assertEquals(1, registry.get("jdbc.statements").tag("kind", "update").timer().count());
+        assertEquals(1, registry.get("jdbc.statements").tag("kind", "batch").timer().count());
+        assertEquals(1, registry.get("jdbc.statements").tag("kind", "query").timer().count());
+    }
+
+    @Test
+    void statements_OutsideARequest_AreOnlyTimed() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JdbcMetricsDataSource dataSource = new JdbcMetricsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:jdbc-metrics;DB_CLOSE_DELAY=-1", "sa", ""));
+        dataSource.bindTo(registry);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+
+        assertNull(RequestTrace.current());
+        assertEquals(1, registry.get("jdbc.statements").tag("kind", "execute").timer().count());
+    }
+
+    @Test
+    void destinationPrefix_FoldsNumericSegments() {
+        assertEquals("/topic/tasks", WebSocketMetricsInterceptor.prefix("/topic/tasks"));
+        assertEquals("/topic/tasks/{id}/comments", WebSocketMetricsInterceptor.prefix("/topic/tasks/42/comments"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowConsumerGuardTest {
+
+    private static final TextMessage MESSAGE_FRAME = new TextMessage("MESSAGE\ndestination:/topic/tasks\n\n{}\u0000");
+
+    @Mock
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    @Mock
+    private ObjectProvider<MessageChannel> clientOutboundChannel;
+    @Mock
+    private MessageChannel channel;
+    @Mock
+    private WebSocketHandler handler;
+    @Mock
+    private WebSocketSession socket;
+
+    private WebSocketTransportProperties properties;
+    private SlowConsumerGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebSocketTransportProperties();
+        properties.setSlowConsumerFrames(4);
+        guard = new SlowConsumerGuard(properties, messagingTemplate, clientOutboundChannel);
+        lenient().when(socket.getId()).thenReturn("s1");
+    }
+
+    @Test
+    void slowSession_KeepsTheLatestEventPerTaskAndResyncsWhatWasDropped() throws Exception {
+        WebSocketSession session = connect();
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        MessageConverter converter = mock(MessageConverter.class);
+        when(messagingTemplate.getObject()).thenReturn(template);
+        when(template.getMessageConverter()).thenReturn(converter);
+        when(converter.toMessage(any(), any())).thenAnswer(call ->
+                MessageBuilder.createMessage(call.getArgument(0), call.getArgument(1)));
+        when(clientOutboundChannel.getObject()).thenReturn(channel);
+
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(guard.preSend(frame("sub-0", 1L), channel));
+        }
+        assertEquals(1, guard.getSlowSessionCount());
+
+        Message<?> older = frame("sub-0", 1L);
+        Message<?> latest = frame("sub-0", 1L);
+        assertNull(guard.preSend(older, channel));
+        assertNull(guard.preSend(frame("sub-0", 2L), channel));
+        assertNull(guard.preSend(latest, channel));
+        // no task to coalesce on, such as a bulk event
+        assertNull(guard.preSend(frame("sub-1", null), channel));
+        assertEquals(1, guard.getCoalescedCount());
+        assertEquals(1, guard.getDroppedCount());
+        verifyNoInteractions(channel);
+
+        session.sendMessage(MESSAGE_FRAME);
+        verifyNoInteractions(channel);
+        session.sendMessage(MESSAGE_FRAME);
+
+        ArgumentCaptor<Message<?>> resent = ArgumentCaptor.forClass(Message.class);
+        verify(channel, times(3)).send(resent.capture());
+        List<Message<?>> frames = resent.getAllValues();
+        TaskSnapshotDto resync = (TaskSnapshotDto) frames.get(0).getPayload();
+        assertEquals("RESYNC", resync.getAction());
+        assertEquals("sub-1", SimpMessageHeaderAccessor.getSubscriptionId(frames.get(0).getHeaders()));
+        assertEquals(2L, frames.get(1).getHeaders().get(SlowConsumerGuard.COALESCE_HEADER));
+        assertSame(latest, frames.get(2));
+        assertEquals(0, guard.getSlowSessionCount());
+        assertEquals(2, guard.getPendingFrames("s1"));
+    }
+
+    @Test
+    void sweep_ClosesSessionsThatStaySlowOrHoldTooMuch() throws Exception {
+        properties.setSlowConsumerTimeoutMs(60_000);
+        properties.setMaxHeldFrames(2);
+        connect();
+
+        for (int i = 0; i < 4; i++) {
+            guard.preSend(frame("sub-0", 1L), channel);
+        }
+        guard.preSend(frame("sub-0", 1L), channel);
+        guard.preSend(frame("sub-0", 2L), channel);
+        guard.sweep();
+        verify(socket, never()).close(any());
+
+        guard.preSend(frame("sub-0", 3L), channel);
+        guard.sweep();
+        verify(socket).close(SlowConsumerGuard.TOO_SLOW);
+        assertEquals(1, guard.getDisconnectCount());
+        assertEquals(0, guard.getPendingFrames("s1"));
+    }
+
+    @Test
+    void isMessageFrame_CountsOnlyFramesCarryingEvents() {
+        assertTrue(SlowConsumerGuard.isMessageFrame(MESSAGE_FRAME));
+        assertFalse(SlowConsumerGuard.isMessageFrame(new TextMessage("CONNECTED\nversion:1.2\n\n\u0000")));
+        assertFalse(SlowConsumerGuard.isMessageFrame(new TextMessage("\n")));
+    }
+
+    private WebSocketSession connect() throws Exception {
+        guard.decorate(handler).afterConnectionEstablished(socket);
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+        return decorated.getValue();
+    }
+
+    private static Message<?> frame(String subscriptionId, Long taskId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination("/topic/tasks");
+        if (taskId != null) {
+            accessor.setHeader(SlowConsumerGuard.COALESCE_HEADER, taskId);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
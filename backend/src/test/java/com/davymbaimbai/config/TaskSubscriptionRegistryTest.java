@@ -0,0 +1,140 @@
+package com.davymbaimbai.config;
+
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSubscriptionRegistryTest {
+
+    private static final String TOPIC = "/topic/tasks";
+
+    private final TaskSubscriptionRegistry registry = new TaskSubscriptionRegistry();
+
+    @Test
+    void findSubscriptions_DeliversEachEventOnlyToTheFiltersItSatisfies() {
+        subscribe("s0", "sub", null);
+        subscribe("s1", "sub", "status:TODO,in_progress");
+        subscribe("s2", "sub", "priority:HIGH assignee:me");
+        subscribe("s3", "sub", "assignee:none");
+
+        // moving out of IN_PROGRESS still reaches the subscription filtered on it
+        assertEquals(Set.of("s0", "s1", "s2"), sessions(event("DONE", "IN_PROGRESS", "HIGH", 7L)));
+        assertEquals(Set.of("s0", "s1", "s3"), sessions(event("TODO", null, "LOW", null)));
+        assertEquals(Set.of("s0"), sessions(event("DONE", null, "HIGH", 8L)));
+        // a frame without task state, such as a bulk event, is not filtered
+        assertEquals(Set.of("s0", "s1", "s2", "s3"), sessions(message(TOPIC, null)));
+        assertEquals(3, registry.getFilteredCount());
+    }
+
+    @Test
+    void findSubscriptions_DeliversTheEventThatMovesATaskOutOfAFilter() {
+        subscribe("s1", "sub", "assignee:me");
+        subscribe("s2", "sub", "priority:HIGH");
+
+        TaskActivityDto unassigned = TaskActivityDto.builder()
+                .taskId(1L)
+                .action("UNASSIGNED")
+                .status("TODO")
+                .priority("LOW")
+                .previousAssigneeId(7L)
+                .build();
+        assertEquals(Set.of("s1"), sessions(message(TOPIC, unassigned)));
+
+        TaskActivityDto reassigned = TaskActivityDto.builder()
+                .taskId(1L)
+                .action("UNASSIGNED")
+                .status("TODO")
+                .priority("LOW")
+                .assigneeId(8L)
+                .previousAssigneeId(7L)
+                .build();
+        assertEquals(Set.of("s1"), sessions(message(TOPIC, reassigned)));
+
+        TaskActivityDto lowered = TaskActivityDto.builder()
+                .taskId(1L)
+                .action("PRIORITY_CHANGED")
+                .status("TODO")
+                .priority("LOW")
+                .previousPriority("HIGH")
+                .build();
+        assertEquals(Set.of("s2"), sessions(message(TOPIC, lowered)));
+        assertEquals(Set.of(), sessions(event("TODO", null, "LOW", 8L)));
+    }
+
+    @Test
+    void unregister_RemovesTheFilteredSubscriptionFromTheIndex() {
+        subscribe("s1", "a", "status:TODO");
+        subscribe("s1", "b", "priority:HIGH");
+        subscribe("s2", "a", "status:TODO");
+
+        SimpMessageHeaderAccessor unsubscribe = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        unsubscribe.setSessionId("s2");
+        unsubscribe.setSubscriptionId("a");
+        registry.unregisterSubscription(MessageBuilder.createMessage(new byte[0], unsubscribe.getMessageHeaders()));
+        MultiValueMap<String, String> subscriptions = registry.findSubscriptions(event("TODO", null, "HIGH", null));
+        assertEquals(Set.of("s1"), subscriptions.keySet());
+        assertEquals(Set.of("a", "b"), Set.copyOf(subscriptions.get("s1")));
+
+        registry.unregisterAllSubscriptions("s1");
+        assertTrue(registry.findSubscriptions(event("TODO", null, "HIGH", null)).isEmpty());
+        assertEquals(0, registry.getFilteredCount());
+    }
+
+    @Test
+    void compile_RejectsWhatCannotBeMatchedOnAnEvent() {
+        Map<String, Long> users = Map.of("alice", 7L);
+
+        TaskEventFilter byName = TaskEventFilter.compile("assignee:alice,9", 1L, names -> users);
+        assertEquals(Set.of("7", "9"), byName.values(TaskEventFilter.Attribute.ASSIGNEE));
+        assertThrows(BadRequestException.class, () -> TaskEventFilter.compile("assignee:bob", 1L, names -> users));
+        assertThrows(BadRequestException.class, () -> TaskEventFilter.compile("status:LATE", 1L, names -> users));
+        assertThrows(BadRequestException.class, () -> TaskEventFilter.compile("creator:me", 1L, names -> users));
+        assertThrows(BadRequestException.class, () -> TaskEventFilter.compile("status:TODO sort:title", 1L, names -> users));
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String filter) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(TOPIC);
+        if (filter != null) {
+            accessor.setHeader(TaskEventFilter.FILTER_HEADER, TaskEventFilter.compile(filter, 7L, names -> Map.of()));
+        }
+        registry.registerSubscription(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private Set<String> sessions(Message<?> message) {
+        MultiValueMap<String, String> subscriptions = registry.findSubscriptions(message);
+        return subscriptions.keySet();
+    }
+
+    private static Message<?> event(String status, String oldStatus, String priority, Long assigneeId) {
+        return message(TOPIC, TaskActivityDto.builder()
+                .taskId(1L)
+                .action("TASK_UPDATED")
+                .status(status)
+                .oldStatus(oldStatus)
+                .priority(priority)
+                .assigneeId(assigneeId)
+                .build());
+    }
+
+    private static Message<?> message(String destination, TaskActivityDto event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (event != null) {
+            accessor.setHeader(TaskEventFilter.ATTRIBUTES_HEADER, TaskEventFilter.attributes(event));
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,40 @@
+package com.davymbaimbai.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketMetricsInterceptorTest {
+
+    @Test
+    void prefix_FoldsIdsAndSessionSuffixes() {
+        assertEquals("/topic/tasks/{id}/comments", WebSocketMetricsInterceptor.prefix("/topic/tasks/42/comments"));
+        assertEquals("/queue/tasks-user{session}", WebSocketMetricsInterceptor.prefix("/queue/tasks-userk3v9xq2a"));
+        assertEquals("/topic/tasks", WebSocketMetricsInterceptor.prefix("/topic/tasks"));
+    }
+
+    @Test
+    void postSend_UserDestination_IsReportedUnderTheSubscribedDestination() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WebSocketMetricsInterceptor interceptor = new WebSocketMetricsInterceptor(registry);
+
+        interceptor.postSend(frame("/queue/tasks-usera1"), null, true);
+        interceptor.postSend(frame("/queue/tasks-userb2"), null, true);
+
+        assertEquals(1, registry.find("websocket.messages.sent").summaries().size());
+        assertEquals(2, registry.get("websocket.messages.sent").tag("destination", "/user/queue/tasks")
+                .summary().count());
+    }
+
+    private static Message<byte[]> frame(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, "/user/queue/tasks");
+        return MessageBuilder.createMessage(new byte[]{'{', '}'}, accessor.getMessageHeaders());
+    }
+}
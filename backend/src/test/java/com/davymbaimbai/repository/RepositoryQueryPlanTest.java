@@ -0,0 +1,187 @@
+package com.davymbaimbai.repository;
+
+import com.davymbaimbai.config.TaskQueryProperties;
+import com.davymbaimbai.dto.TaskCursor;
+import com.davymbaimbai.dto.TaskView;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.Role;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.service.impl.TaskQueryParser;
+import com.davymbaimbai.service.impl.TaskQueryPlanner;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every repository query against the migrated schema and checks with EXPLAIN that H2
+ * reads it through an index instead of scanning the table.
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.davymbaimbai.repository.RepositoryQueryPlanTest$CapturingInspector")
+class RepositoryQueryPlanTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskActivityRepository taskActivityRepository;
+
+    @Autowired
+    private TaskCommentRepository taskCommentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .username("planner")
+                .email("planner@example.com")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+        entityManager.flush();
+    }
+
+    @Test
+    void taskRepositoryQueries_UseIndexes() {
+        assertIndexed(() -> taskRepository.findViews(TaskSpecifications.ownedBy(user), NEWEST_FIRST));
+        assertIndexed(() -> taskRepository.findViews(
+                TaskSpecifications.hasPriority(Priority.HIGH).and(TaskSpecifications.ownedBy(user)),
+                Sort.by(Sort.Direction.DESC, "id")));
+        assertIndexed(() -> taskRepository.findViews(
+                TaskSpecifications.hasStatus(TaskStatus.TODO).and(TaskSpecifications.createdBy(user)),
+                NEWEST_FIRST));
+        assertIndexed(() -> taskRepository.findViews(Specification.allOf(), NEWEST_FIRST, 51));
+        assertIndexed(() -> taskRepository.findViews(TaskSpecifications.createdBy(user)
+                .and(TaskSpecifications.after(new TaskCursor(LocalDateTime.now(), 100L))), NEWEST_FIRST, 51));
+        assertIndexed(() -> taskRepository.findViewById(1L));
+        assertIndexed(() -> taskRepository.findTasksWithFilters(TaskStatus.TODO, null, user, NEWEST_FIRST));
+        assertIndexed(() -> taskRepository.findTasksWithFilters(null, user, user, NEWEST_FIRST));
+        assertIndexed(() -> taskRepository.findTasksWithFilters(TaskStatus.TODO, user, user, NEWEST_FIRST));
+        assertIndexed(() -> {
+            try (Stream<TaskView> tasks = taskRepository.streamViews(Specification.allOf(), NEWEST_FIRST)) {
+                tasks.count();
+            }
+        });
+        assertIndexed(() -> {
+            try (Stream<TaskView> tasks = taskRepository.streamViews(TaskSpecifications.ownedBy(user), NEWEST_FIRST)) {
+                tasks.count();
+            }
+        });
+    }
+
+    @Test
+    void taskQueryPlans_UseIndexes() {
+        TaskQueryPlanner planner = new TaskQueryPlanner(entityManager, userRepository, new TaskQueryProperties());
+        User admin = User.builder().id(user.getId()).username(user.getUsername()).role(Role.ADMIN).build();
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse(
+                "status:TODO,IN_PROGRESS priority:HIGH assignee:planner created>2026-01-01 sort:-updatedAt"), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("sort:-updatedAt"), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse(""), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("owner:me updated>=2026-01-01"), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("assignee:none,me"), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("priority:LOW"), admin, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("status:DONE sort:title"), user, 50));
+        assertIndexed(() -> planner.execute(TaskQueryParser.parse("created:2026-03-01"), user, 50));
+
+        planner.execute(TaskQueryParser.parse("status:DONE,TODO sort:title"), user, 50);
+        assertEquals(1, planner.getPlanCacheHits());
+    }
+
+    @Test
+    void taskQuery_NoneForCreatorOrOwner_IsRejected() {
+        TaskQueryPlanner planner = new TaskQueryPlanner(entityManager, userRepository, new TaskQueryProperties());
+
+        assertThrows(BadRequestException.class,
+                () -> planner.execute(TaskQueryParser.parse("creator:none"), user, 50));
+        assertThrows(BadRequestException.class,
+                () -> planner.execute(TaskQueryParser.parse("owner:me,none"), user, 50));
+    }
+
+    @Test
+    void activityAndCommentQueries_UseIndexes() {
+        assertIndexed(() -> taskActivityRepository.findViewsByTaskId(1L, Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertIndexed(() -> taskActivityRepository.deleteByTaskIds(Set.of(1L, 2L)));
+        assertIndexed(() -> taskActivityRepository.findViewsSince(100L, Limit.of(101)));
+        assertIndexed(() -> taskActivityRepository.findViewsByTaskIdSince(1L, 100L, Limit.of(101)));
+        assertIndexed(() -> taskCommentRepository.findResponsesByTaskId(1L, Sort.by(Sort.Direction.ASC, "createdAt")));
+        assertIndexed(() -> taskCommentRepository.deleteByTaskIds(Set.of(1L, 2L)));
+        assertIndexed(() -> taskCommentRepository.findResponsePage(1L, Limit.of(51)));
+        assertIndexed(() -> taskCommentRepository.findResponsePageAfter(1L, LocalDateTime.now(), 10L, Limit.of(51)));
+        assertIndexed(() -> taskCommentRepository.countByTaskId(1L));
+    }
+
+    private void assertIndexed(Runnable query) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(CapturingInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "query did not reach the database");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "table scan for: " + sql + "\nplan: " + plan);
+        }
+    }
+
+    private String explain(String sql) {
+                return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.trim().toLowerCase();
+            if (normalized.startsWith("select") || normalized.startsWith("delete")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
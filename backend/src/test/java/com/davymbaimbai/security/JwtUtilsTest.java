@@ -0,0 +1,73 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", "wpembytrwcvnryxksdbqwjebruyGHyudqgwveytrtrCSnwifoesarjbwe");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+    }
+
+    @Test
+    void verifyToken_RepeatedTokenIsServedFromCache() {
+        String token = jwtUtils.generateToken("alice");
+
+        Claims first = jwtUtils.verifyToken(token);
+        Claims second = jwtUtils.verifyToken(token);
+
+        assertEquals("alice", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, jwtUtils.getCacheMissCount());
+        assertEquals(1, jwtUtils.getCacheHitCount());
+    }
+
+    @Test
+    void verifyToken_FullCacheStillTakesNewTokens() {
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaxSize", 2);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        for (String username : new String[]{"alice", "bob", "carol", "dave"}) {
+            jwtUtils.verifyToken(jwtUtils.generateToken(username));
+        }
+        String token = jwtUtils.generateToken("erin");
+
+        jwtUtils.verifyToken(token);
+        jwtUtils.verifyToken(token);
+
+        assertEquals(5, jwtUtils.getCacheMissCount());
+        assertEquals(1, jwtUtils.getCacheHitCount());
+    }
+
+    @Test
+    void verifyToken_TamperedTokenIsRejected() {
+        String token = jwtUtils.generateToken("alice");
+        jwtUtils.verifyToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtils.verifyToken(tampered));
+    }
+
+    @Test
+    void isTokenValid_ChecksSubjectAgainstUser() {
+        Claims claims = jwtUtils.verifyToken(jwtUtils.generateToken("alice"));
+        AuthUser alice = AuthUser.builder().user(User.builder().username("alice").role(Role.USER).build()).build();
+        AuthUser bob = AuthUser.builder().user(User.builder().username("bob").role(Role.USER).build()).build();
+
+        assertTrue(jwtUtils.isTokenValid(claims, alice));
+        assertFalse(jwtUtils.isTokenValid(claims, bob));
+    }
+}
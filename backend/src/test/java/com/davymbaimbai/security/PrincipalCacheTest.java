@@ -0,0 +1,81 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        PrincipalCache cache = new PrincipalCache(300, 10);
+        AuthUser alice = authUser(1L, "alice");
+
+        assertNull(cache.get("alice"));
+        cache.put("alice", alice);
+
+        assertSame(alice, cache.get("alice"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_ExpiredEntryIsEvicted() {
+        PrincipalCache cache = new PrincipalCache(0, 10);
+        cache.put("alice", authUser(1L, "alice"));
+
+        assertNull(cache.get("alice"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_OverCapacityEvictsLeastRecentlyUsed() {
+        PrincipalCache cache = new PrincipalCache(300, 2);
+        cache.put("alice", authUser(1L, "alice"));
+        cache.put("bob", authUser(2L, "bob"));
+        cache.get("alice");
+
+        cache.put("carol", authUser(3L, "carol"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("bob"));
+        assertNotNull(cache.get("alice"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void invalidate_RemovesEntriesForRenamedUser() {
+        PrincipalCache cache = new PrincipalCache(300, 10);
+        cache.put("alice", authUser(1L, "alice"));
+
+        User renamed = User.builder().id(1L).username("alice2").build();
+        cache.invalidate(renamed);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void snapshot_CopiesScalarColumnsOnly() {
+        User user = authUser(1L, "alice").getUser();
+        User snapshot = PrincipalCache.snapshot(user);
+
+        assertNotSame(user, snapshot);
+        assertEquals(user.getId(), snapshot.getId());
+        assertEquals(user.getRole(), snapshot.getRole());
+        assertNull(snapshot.getTasks());
+    }
+
+    private AuthUser authUser(Long id, String username) {
+        User user = User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@example.com")
+                .password("encoded")
+                .role(Role.USER)
+                .build();
+        return AuthUser.builder().user(user).build();
+    }
+}
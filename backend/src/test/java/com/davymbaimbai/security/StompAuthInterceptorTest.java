@@ -0,0 +1,138 @@
+package com.davymbaimbai.security;
+
+import com.davymbaimbai.config.TaskEventFilter;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Role;
+import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StompAuthInterceptorTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private JwtUtils jwtUtils;
+    private StompAuthInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", "wpembytrwcvnryxksdbqwjebruyGHyudqgwveytrtrCSnwifoesarjbwe");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheEnabled", false);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(authUser(7L, "alice", Role.USER));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsernameIn(any())).thenReturn(List.of(authUser(7L, "alice", Role.USER).getUser()));
+        TaskRecipientIndex taskRecipientIndex = mock(TaskRecipientIndex.class);
+        when(taskRecipientIndex.recipients(3L)).thenReturn(Set.of(7L));
+        when(taskRecipientIndex.recipients(4L)).thenReturn(Set.of(1L));
+        interceptor = new StompAuthInterceptor(jwtUtils, userDetailsService, userRepository, taskRecipientIndex);
+    }
+
+    @Test
+    void connect_ValidToken_NamesTheSessionByUserId() {
+        StompHeaderAccessor accessor = frame(StompCommand.CONNECT, null, null);
+        accessor.setNativeHeader("Authorization", "Bearer " + jwtUtils.generateToken("alice"));
+
+        interceptor.preSend(message(accessor), channel);
+
+        assertEquals("7", accessor.getUser().getName());
+    }
+
+    @Test
+    void connect_MissingOrForgedToken_IsRejected() {
+        StompHeaderAccessor anonymous = frame(StompCommand.CONNECT, null, null);
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(anonymous), channel));
+
+        StompHeaderAccessor forged = frame(StompCommand.CONNECT, null, null);
+        forged.setNativeHeader("Authorization", "Bearer not-a-token");
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(forged), channel));
+    }
+
+    @Test
+    void subscribe_GlobalTopicIsForAdminsAndQueuesOnlyThroughTheUserPrefix() {
+        StompAuthInterceptor.StompPrincipal user = new StompAuthInterceptor.StompPrincipal(7L, "alice", false);
+        StompAuthInterceptor.StompPrincipal admin = new StompAuthInterceptor.StompPrincipal(1L, "admin", true);
+
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/topic/tasks")), channel));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/queue/tasks-user1")), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, admin, "/topic/tasks")), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/user/queue/tasks")), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/topic/tasks/3/comments")), channel));
+    }
+
+    @Test
+    void subscribe_PatternsAndOtherUsersTasks_AreRejected() {
+        StompAuthInterceptor.StompPrincipal user = new StompAuthInterceptor.StompPrincipal(7L, "alice", false);
+        StompAuthInterceptor.StompPrincipal admin = new StompAuthInterceptor.StompPrincipal(1L, "admin", true);
+
+        for (String pattern : List.of("/topic/**", "/topic/task?", "/topic/tasks/*/comments", "/topic/{name}")) {
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, pattern)), channel));
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, admin, pattern)), channel));
+        }
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/topic/tasks/4/activities")), channel));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/topic/tasks/4")), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, user, "/topic/tasks/3/activities")), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(message(frame(StompCommand.SUBSCRIBE, admin, "/topic/tasks/3/activities")), channel));
+    }
+
+    @Test
+    void subscribe_WithFilter_CompilesItOrAnswersWithAnError() {
+        StompAuthInterceptor.StompPrincipal admin = new StompAuthInterceptor.StompPrincipal(1L, "admin", true);
+        StompHeaderAccessor filtered = frame(StompCommand.SUBSCRIBE, admin, "/topic/tasks");
+        filtered.setNativeHeader(TaskEventFilter.NATIVE_HEADER, "status:TODO assignee:me,alice");
+
+        interceptor.preSend(message(filtered), channel);
+
+        assertInstanceOf(TaskEventFilter.class, filtered.getHeader(TaskEventFilter.FILTER_HEADER));
+        StompHeaderAccessor invalid = frame(StompCommand.SUBSCRIBE, admin, "/topic/tasks");
+        invalid.setNativeHeader(TaskEventFilter.NATIVE_HEADER, "updated>yesterday");
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(invalid), channel));
+    }
+
+    private static StompHeaderAccessor frame(StompCommand command, Principal user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setUser(user);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static AuthUser authUser(Long id, String username, Role role) {
+        User user = User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@example.com")
+                .password("encoded")
+                .role(role)
+                .build();
+        return AuthUser.builder().user(user).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.ActivityFeedProperties;
+import com.davymbaimbai.service.impl.ActivitySequencer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivitySequencerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ActivityFeedProperties properties;
+    private ActivitySequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sequencer-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE task_activities (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, seq BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE activity_sequence (id INT PRIMARY KEY, last_seq BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO activity_sequence (id, last_seq) VALUES (1, 40)");
+        properties = new ActivityFeedProperties();
+        sequencer = new ActivitySequencer(properties, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    void sequencePending_StampsUnsequencedRowsInIdOrderAfterTheLastSequence() {
+        insertActivities(3);
+
+        sequencer.sequencePending();
+
+        assertEquals(List.of(41L, 42L, 43L),
+                jdbcTemplate.queryForList("SELECT seq FROM task_activities ORDER BY id", Long.class));
+        assertEquals(43L, jdbcTemplate.queryForObject("SELECT last_seq FROM activity_sequence", Long.class));
+    }
+
+    @Test
+    void sequencePending_WorksThroughABacklogInBatches() {
+        properties.setSequenceBatchSize(2);
+        insertActivities(5);
+
+        sequencer.sequencePending();
+        insertActivities(1);
+        sequencer.sequencePending();
+
+        assertEquals(List.of(41L, 42L, 43L, 44L, 45L, 46L),
+                jdbcTemplate.queryForList("SELECT seq FROM task_activities ORDER BY id", Long.class));
+    }
+
+    @Test
+    void stampBatch_NothingPending_LeavesTheSequenceAlone() {
+        assertEquals(0, sequencer.stampBatch());
+        assertEquals(40L, jdbcTemplate.queryForObject("SELECT last_seq FROM activity_sequence", Long.class));
+    }
+
+    private void insertActivities(int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO task_activities (seq) VALUES (NULL)");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.ActivityPipelineProperties;
+import com.davymbaimbai.dto.ActivityEvent;
+import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.enums.ActivityWriteMode;
+import com.davymbaimbai.enums.BackpressurePolicy;
+import com.davymbaimbai.service.impl.ActivityWritePipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityWritePipelineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    private ActivityPipelineProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ActivityPipelineProperties();
+        properties.setFlushIntervalMs(200);
+    }
+
+    @Test
+    void submit_SyncMode_LeavesWriteToCaller() {
+        properties.setMode(ActivityWriteMode.SYNC);
+        ActivityWritePipeline pipeline = start();
+
+        assertFalse(pipeline.submit(event(ActivityType.UPDATED, "Task details updated")));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_AsyncMode_BatchesAndCoalescesRepeatedEvents() throws Exception {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<int[]>) invocation.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenAnswer(invocation -> {
+            int[] counts = new int[((List<Object[]>) invocation.getArgument(1)).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        ActivityWritePipeline pipeline = start();
+
+        assertTrue(pipeline.submit(event(ActivityType.STATUS_CHANGED, "Status changed from TODO to IN_PROGRESS")));
+        assertTrue(pipeline.submit(event(ActivityType.UPDATED, "Task details updated")));
+        assertTrue(pipeline.submit(event(ActivityType.UPDATED, "Task details updated")));
+        pipeline.stop();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals(3, pipeline.getEnqueuedCount());
+        assertEquals(1, pipeline.getCoalescedCount());
+        assertEquals(2, pipeline.getWrittenCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_QueueFullOutsideATransaction_CallerWritesTheEvent() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(BackpressurePolicy.CALLER_RUNS);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = holdWriter(writing);
+        ActivityWritePipeline pipeline = start();
+
+        pipeline.submit(event(ActivityType.UPDATED, "Task details updated"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        pipeline.submit(event(ActivityType.STATUS_CHANGED, "Status changed from TODO to DONE"));
+        pipeline.submit(event(ActivityType.PRIORITY_CHANGED, "Priority changed from LOW to HIGH"));
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(1, pipeline.getCallerRunsCount());
+        assertEquals(3, pipeline.getWrittenCount());
+    }
+
+    @Test
+    void submit_QueueFullAfterCommit_WaitsForTheWriterInsteadOfWritingOnTheCaller() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(BackpressurePolicy.CALLER_RUNS);
+        properties.setOfferTimeoutMs(5000);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = holdWriter(writing);
+        ActivityWritePipeline pipeline = start();
+
+        pipeline.submit(event(ActivityType.UPDATED, "Task details updated"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        pipeline.submit(event(ActivityType.STATUS_CHANGED, "Status changed from TODO to DONE"));
+        CompletableFuture<Void> committed = CompletableFuture.runAsync(() ->
+                submitAfterCommit(pipeline, event(ActivityType.PRIORITY_CHANGED, "Priority changed from LOW to HIGH")));
+        release.countDown();
+        committed.get(5, TimeUnit.SECONDS);
+        pipeline.stop();
+
+        assertEquals(0, pipeline.getCallerRunsCount());
+        assertEquals(0, pipeline.getDroppedCount());
+        assertEquals(3, pipeline.getWrittenCount());
+    }
+
+    @Test
+    void submit_QueueStillFullAfterCommit_DropsTheEvent() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(BackpressurePolicy.CALLER_RUNS);
+        properties.setOfferTimeoutMs(50);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = holdWriter(writing);
+        ActivityWritePipeline pipeline = start();
+
+        pipeline.submit(event(ActivityType.UPDATED, "Task details updated"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        pipeline.submit(event(ActivityType.STATUS_CHANGED, "Status changed from TODO to DONE"));
+        submitAfterCommit(pipeline, event(ActivityType.PRIORITY_CHANGED, "Priority changed from LOW to HIGH"));
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(0, pipeline.getCallerRunsCount());
+        assertEquals(1, pipeline.getDroppedCount());
+        assertEquals(2, pipeline.getWrittenCount());
+    }
+
+    /**
+     * Makes the background writer wait in its transaction until the returned latch is released.
+     */
+    @SuppressWarnings("unchecked")
+    private CountDownLatch holdWriter(CountDownLatch writing) {
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("activity-writer")) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null);
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenAnswer(invocation -> {
+            int[] counts = new int[((List<?>) invocation.getArgument(1)).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        return release;
+    }
+
+    private static void submitAfterCommit(ActivityWritePipeline pipeline, ActivityEvent event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            pipeline.submit(event);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ActivityWritePipeline start() {
+        ActivityWritePipeline pipeline = new ActivityWritePipeline(properties, jdbcTemplate,
+                namedParameterJdbcTemplate, transactionTemplate, webSocketService);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private ActivityEvent event(ActivityType type, String description) {
+        return ActivityEvent.builder()
+                .taskId(1L)
+                .userId(1L)
+                .activityType(type)
+                .description(description)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.EntityCacheProperties;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.security.AuthUser;
+import com.davymbaimbai.security.PrincipalCache;
+import com.davymbaimbai.service.impl.EntityChangeLog;
+import com.davymbaimbai.service.impl.TaskFacetIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EntityChangeLogTest {
+
+    private static final String OTHER_INSTANCE = "other-instance";
+
+    private JdbcTemplate jdbcTemplate;
+    private CacheImplementor cache;
+    private SimpleMeterRegistry registry;
+    private PrincipalCache principalCache;
+    private TaskFacetIndex taskFacetIndex;
+    private EntityChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:changes-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE entity_changes (" +
+                "seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, entity_name VARCHAR(50) NOT NULL, " +
+                "entity_id BIGINT NOT NULL, origin VARCHAR(36) NOT NULL, " +
+                "changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        registry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(300, 100);
+        taskFacetIndex = mock(TaskFacetIndex.class);
+        changeLog = new EntityChangeLog(new EntityCacheProperties(), jdbcTemplate, principalCache, taskFacetIndex, registry);
+
+        cache = mock(CacheImplementor.class);
+        changeLog.integrator().integrate(null, null, sessionFactory(cache));
+        changeLog.poll();
+    }
+
+    @Test
+    void poll_EvictsEntitiesChangedByOtherInstancesOnly() {
+        changeLog.bulkChanged(Task.class, List.of(11L));
+        insert(2, "Task", 10L, OTHER_INSTANCE);
+        insert(3, "User", 3L, OTHER_INSTANCE);
+
+        changeLog.poll();
+
+        verify(cache).evictEntityData(Task.class, 10L);
+        verify(cache).evictEntityData(User.class, 3L);
+        verify(cache, never()).evictEntityData(Task.class, 11L);
+        verify(taskFacetIndex).tasksChanged(Set.of(10L));
+        verify(cache).evictQueryRegions();
+        assertEquals(2, registry.get("entity.cache.remote.evictions").counter().count());
+
+        changeLog.poll();
+        verify(cache, times(1)).evictQueryRegions();
+    }
+
+    @Test
+    void poll_DropsCachedPrincipalsOfUsersChangedByOtherInstances() {
+        principalCache.put("alice", AuthUser.builder().user(User.builder().id(3L).username("alice").build()).build());
+        principalCache.put("bob", AuthUser.builder().user(User.builder().id(4L).username("bob").build()).build());
+        insert(2, "User", 3L, OTHER_INSTANCE);
+        insert(3, "Task", 4L, OTHER_INSTANCE);
+
+        changeLog.poll();
+
+        assertNull(principalCache.get("alice"));
+        assertNotNull(principalCache.get("bob"));
+    }
+
+    @Test
+    void poll_ReadsRowsThatCommitAfterALaterSequence() {
+        insert(2, "Task", 20L, OTHER_INSTANCE);
+        changeLog.poll();
+        verify(cache).evictEntityData(Task.class, 20L);
+
+        // sequence 1 was taken first but its transaction committed last
+        insert(1, "Task", 10L, OTHER_INSTANCE);
+        changeLog.poll();
+        verify(cache).evictEntityData(Task.class, 10L);
+    }
+
+    @Test
+    void poll_StartsAfterTheChangesWrittenBeforeStartup() {
+        insert(1, "Task", 10L, OTHER_INSTANCE);
+        EntityChangeLog restarted = new EntityChangeLog(new EntityCacheProperties(), jdbcTemplate, principalCache, taskFacetIndex, registry);
+        CacheImplementor freshCache = mock(CacheImplementor.class);
+        restarted.integrator().integrate(null, null, sessionFactory(freshCache));
+
+        restarted.poll();
+        restarted.poll();
+
+        verifyNoInteractions(freshCache);
+    }
+
+    /**
+     * A session factory whose cache is the given mock and whose services accept and ignore
+     * everything; Mockito cannot mock {@link SessionFactoryImplementor}.
+     */
+    private static SessionFactoryImplementor sessionFactory(CacheImplementor cache) {
+        return (SessionFactoryImplementor) stub(SessionFactoryImplementor.class, cache);
+    }
+
+    private static Object stub(Class<?> type, CacheImplementor cache) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("getCache")) {
+                return cache;
+            }
+            if (method.getName().equals("getService")) {
+                return stub((Class<?>) args[0], cache);
+            }
+            return method.getReturnType().isInterface() ? stub(method.getReturnType(), cache) : null;
+        });
+    }
+
+    private void insert(long seq, String entity, long id, String origin) {
+        jdbcTemplate.update("INSERT INTO entity_changes (seq, entity_name, entity_id, origin) VALUES (?, ?, ?, ?)",
+                seq, entity, id, origin);
+    }
+}
@@ -0,0 +1,209 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.OutboxProperties;
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskBatchEventDto;
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import com.davymbaimbai.service.impl.EventOutbox;
+import com.davymbaimbai.service.impl.TaskEventBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventOutboxTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxProperties properties;
+    private TaskEventBus taskEventBus;
+    private EventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE event_outbox (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "destination VARCHAR(255) NOT NULL, payload_type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, recipients VARCHAR(2000))");
+        jdbcTemplate.execute("CREATE TABLE event_outbox_offsets (consumer VARCHAR(64) PRIMARY KEY, " +
+                "delivered_id BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        properties = new OutboxProperties();
+        properties.setConsumerName("node-a");
+        // only commits wake the dispatcher during a test
+        properties.setPollIntervalMs(60_000);
+        taskEventBus = mock(TaskEventBus.class);
+        outbox = start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        outbox.stop();
+    }
+
+    @Test
+    void append_WritesWithTheTransactionAndPublishesOnlyAfterItCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append("/topic/tasks", event(1L, "TASK_CREATED"));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append("/topic/tasks", event(2L, "TASK_CREATED"));
+            outbox.append("/topic/tasks", TaskBatchEventDto.builder()
+                    .action("TASKS_BULK_UPDATED")
+                    .deletedTaskIds(List.of(3L, 4L))
+                    .build());
+            assertEquals(0, countRows(), "nothing is written before the commit");
+        });
+
+        ArgumentCaptor<TaskActivityDto> published = ArgumentCaptor.forClass(TaskActivityDto.class);
+        verify(taskEventBus, timeout(2000)).publish(eq("/topic/tasks"), published.capture());
+        ArgumentCaptor<Object> batch = ArgumentCaptor.forClass(Object.class);
+        verify(taskEventBus, timeout(2000)).publish(eq("/topic/tasks"), batch.capture());
+        assertEquals(2L, published.getValue().getTaskId());
+        assertEquals(List.of(3L, 4L), ((TaskBatchEventDto) batch.getValue()).getDeletedTaskIds());
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    void appendToUsers_EachInstanceSendsToEveryRecipientsQueue() {
+        outbox.appendToUsers(List.of(), "/queue/tasks", event(1L, "TASK_UPDATED"));
+        outbox.appendToUsers(List.of(7L, 9L), "/queue/tasks", event(2L, "TASK_UPDATED"));
+
+        verify(taskEventBus, timeout(2000)).publish(eq("/user/7/queue/tasks"), any(TaskActivityDto.class));
+        verify(taskEventBus, timeout(2000)).publish(eq("/user/9/queue/tasks"), any(TaskActivityDto.class));
+        assertEquals(1, countRows());
+        assertEquals("7,9", jdbcTemplate.queryForObject("SELECT recipients FROM event_outbox", String.class));
+    }
+
+    @Test
+    void dispatchPending_PublishesAnEventThatCommitsBehindALaterOne() throws Exception {
+        insert(2, event(20L, "TASK_UPDATED"));
+        outbox.dispatchPending();
+        verify(taskEventBus).publish(eq("/topic/tasks"), argThat((TaskActivityDto e) -> e.getTaskId() == 20L));
+        // id 1 is still open, so the offset stays behind it
+        assertEquals(0L, deliveredId());
+
+        insert(1, event(10L, "TASK_UPDATED"));
+        outbox.dispatchPending();
+
+        verify(taskEventBus).publish(eq("/topic/tasks"), argThat((TaskActivityDto e) -> e.getTaskId() == 10L));
+        verify(taskEventBus, times(2)).publish(any(), any(TaskActivityDto.class));
+        assertEquals(2L, deliveredId());
+    }
+
+    @Test
+    void start_SameConsumerName_ResumesAfterTheSavedOffset() throws Exception {
+        insert(1, event(10L, "TASK_UPDATED"));
+        outbox.dispatchPending();
+        outbox.stop();
+        // written while the instance was down
+        insert(2, event(20L, "TASK_DELETED"));
+
+        outbox = start();
+        outbox.dispatchPending();
+
+        verify(taskEventBus, times(1)).publish(eq("/topic/tasks"), argThat((TaskActivityDto e) -> e.getTaskId() == 10L));
+        verify(taskEventBus, times(1)).publish(eq("/topic/tasks"), argThat((TaskActivityDto e) -> e.getTaskId() == 20L));
+        assertEquals(2L, deliveredId());
+    }
+
+    @Test
+    void resume_ReplaysMissedFramesWithTheirSequence() throws Exception {
+        insert(1, event(10L, "TASK_UPDATED"));
+        insert(2, event(20L, "TASK_UPDATED"));
+        outbox.dispatchPending();
+
+        List<Object> missed = outbox.resume("/topic/tasks", null, 1);
+
+        assertEquals(1, missed.size());
+        assertEquals(2L, ((TaskActivityDto) missed.get(0)).getSequence());
+        assertEquals(20L, ((TaskActivityDto) missed.get(0)).getTaskId());
+    }
+
+    @Test
+    void resume_BehindTheBuffer_SendsTheLatestEventPerTaskOrAResync() throws Exception {
+        outbox.stop();
+        properties.setReplayBufferSize(1);
+        outbox = start();
+        insert(1, event(10L, "TASK_CREATED"));
+        insert(2, event(10L, "TASK_UPDATED"));
+        insert(3, event(20L, "TASK_UPDATED"));
+        outbox.dispatchPending();
+
+        TaskSnapshotDto snapshot = (TaskSnapshotDto) outbox.resume("/topic/tasks", null, 0).get(0);
+        assertEquals("SNAPSHOT", snapshot.getAction());
+        assertEquals(3L, snapshot.getSequence());
+        assertEquals(List.of(10L, 20L), snapshot.getTasks().stream().map(TaskActivityDto::getTaskId).toList());
+        assertEquals("TASK_UPDATED", snapshot.getTasks().get(0).getAction());
+
+        jdbcTemplate.update("DELETE FROM event_outbox WHERE id = 1");
+        TaskSnapshotDto resync = (TaskSnapshotDto) outbox.resume("/topic/tasks", null, 0).get(0);
+        assertEquals("RESYNC", resync.getAction());
+        assertEquals(3L, resync.getSequence());
+    }
+
+    @Test
+    void start_LoadsRecentEventsForClientsReconnectingAfterARestart() throws Exception {
+        outbox.stop();
+        insert(1, event(10L, "TASK_UPDATED"));
+        insert(2, event(20L, "TASK_UPDATED"));
+        jdbcTemplate.update("INSERT INTO event_outbox (id, destination, payload_type, payload, recipients) " +
+                "VALUES (3, '/queue/tasks', 'task', ?, '7,9')", objectMapper.writeValueAsString(event(30L, "TASK_UPDATED")));
+
+        outbox = start();
+
+        assertEquals(2, outbox.resume("/topic/tasks", null, 0).size());
+        assertEquals(30L, ((TaskActivityDto) outbox.resume("/queue/tasks", 9L, 2).get(0)).getTaskId());
+        assertEquals(List.of(), outbox.resume("/queue/tasks", 8L, 2));
+        verify(taskEventBus, never()).publish(any(), any(TaskActivityDto.class));
+    }
+
+    private EventOutbox start() {
+        EventOutbox started = new EventOutbox(properties, jdbcTemplate, objectMapper, taskEventBus);
+        started.start();
+        return started;
+    }
+
+    private void insert(long id, TaskActivityDto event) throws Exception {
+        jdbcTemplate.update("INSERT INTO event_outbox (id, destination, payload_type, payload) VALUES (?, ?, ?, ?)",
+                id, "/topic/tasks", "task", objectMapper.writeValueAsString(event));
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_outbox", Integer.class);
+    }
+
+    private Long deliveredId() {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT delivered_id FROM event_outbox_offsets WHERE consumer = 'node-a'", Long.class);
+        return offsets.isEmpty() ? null : offsets.get(0);
+    }
+
+    private static TaskActivityDto event(Long taskId, String action) {
+        return TaskActivityDto.builder()
+                .taskId(taskId)
+                .action(action)
+                .username("admin")
+                .timestamp(LocalDateTime.of(2026, 3, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.service.impl.EventReplayBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventReplayBufferTest {
+
+    @Test
+    void since_ReturnsWhatWasSentAfterTheSeenFrameIncludingLateCommits() {
+        EventReplayBuffer buffer = new EventReplayBuffer(10, 10, 0);
+        buffer.record("/topic/tasks", 1, "a");
+        buffer.record("/topic/tasks", 3, "c");
+        // committed after 3 had been sent
+        buffer.record("/topic/tasks", 2, "b");
+        buffer.record("/topic/tasks", 4, "d");
+
+        assertEquals(List.of("b", "d"), buffer.since("/topic/tasks", 3));
+        assertEquals(List.of(), buffer.since("/topic/tasks", 4));
+        assertEquals(List.of(), buffer.since("/topic/tasks/1/comments", 0));
+    }
+
+    @Test
+    void since_AfterFramesWereDropped_IsNotCovered() {
+        EventReplayBuffer buffer = new EventReplayBuffer(2, 10, 5);
+        buffer.record("/topic/tasks", 6, "a");
+        buffer.record("/topic/tasks", 7, "b");
+        buffer.record("/topic/tasks", 8, "c");
+
+        assertNull(buffer.since("/topic/tasks", 5));
+        assertEquals(List.of("c"), buffer.since("/topic/tasks", 7));
+        assertNull(buffer.since("/topic/tasks/1/comments", 4));
+    }
+
+    @Test
+    void record_BeyondMaxDestinations_DropsTheLeastRecentlyWrittenOne() {
+        EventReplayBuffer buffer = new EventReplayBuffer(10, 1, 0);
+        buffer.record("/user/1/queue/tasks", 1, "a");
+        buffer.record("/user/2/queue/tasks", 2, "b");
+
+        assertEquals(1, buffer.getDestinationCount());
+        assertNull(buffer.since("/user/1/queue/tasks", 0));
+        assertEquals(List.of(), buffer.since("/user/1/queue/tasks", 1));
+        assertEquals(List.of("b"), buffer.since("/user/2/queue/tasks", 1));
+    }
+}
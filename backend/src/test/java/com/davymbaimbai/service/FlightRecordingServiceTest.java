@@ -0,0 +1,88 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.FlightRecordingProperties;
+import com.davymbaimbai.dto.FlightRecordingView;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.jfr.TaskOperationEvent;
+import com.davymbaimbai.service.impl.FlightRecordingServiceImpl;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingServiceImpl flightRecordingService;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecordingProperties properties = new FlightRecordingProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxFiles(2);
+        flightRecordingService = new FlightRecordingServiceImpl(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecordingService.stopAll();
+    }
+
+    @Test
+    void recording_CapturesTaskEventsAndIsDownloadableOnceStopped() throws Exception {
+        FlightRecordingView started = flightRecordingService.startRecording(60, "default").getData();
+        assertEquals("RUNNING", started.getState());
+        assertThrows(BadRequestException.class, () -> flightRecordingService.getRecordingFile(started.getId()));
+        assertThrows(BadRequestException.class, () -> flightRecordingService.startRecording(60, "default"));
+
+        TaskOperationEvent event = new TaskOperationEvent("UPDATE");
+        event.begin();
+        event.finish(42L, 7L);
+        FlightRecordingView stopped = flightRecordingService.stopRecording(started.getId()).getData();
+
+        assertEquals("STOPPED", stopped.getState());
+        Path file = flightRecordingService.getRecordingFile(started.getId());
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> taskEvents = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.davymbaimbai.TaskOperation"))
+                .toList();
+        assertEquals(1, taskEvents.size());
+        assertEquals("UPDATE", taskEvents.get(0).getString("operation"));
+        assertEquals(42L, taskEvents.get(0).getLong("taskId"));
+        assertEquals(7L, taskEvents.get(0).getLong("userId"));
+    }
+
+    @Test
+    void startRecording_InvalidRequest_Throws() {
+        assertThrows(BadRequestException.class, () -> flightRecordingService.startRecording(0, "default"));
+        assertThrows(BadRequestException.class, () -> flightRecordingService.startRecording(901, "default"));
+        assertThrows(BadRequestException.class, () -> flightRecordingService.startRecording(60, "everything"));
+        assertThrows(NotFoundException.class, () -> flightRecordingService.stopRecording(-1L));
+    }
+
+    @Test
+    void startRecording_BeyondMaxFiles_DeletesTheOldest() throws Exception {
+        long first = flightRecordingService.startRecording(60, "default").getData().getId();
+        flightRecordingService.stopRecording(first);
+        Path firstFile = flightRecordingService.getRecordingFile(first);
+        for (int i = 0; i < 2; i++) {
+            long id = flightRecordingService.startRecording(60, "default").getData().getId();
+            flightRecordingService.stopRecording(id);
+        }
+
+        assertEquals(2, flightRecordingService.getRecordings().getData().size());
+        assertFalse(Files.exists(firstFile));
+        assertThrows(NotFoundException.class, () -> flightRecordingService.getRecordingFile(first));
+    }
+}
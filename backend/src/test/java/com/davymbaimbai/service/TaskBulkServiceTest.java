@@ -0,0 +1,289 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.dto.ActivityEvent;
+import com.davymbaimbai.dto.BulkTaskOperation;
+import com.davymbaimbai.dto.BulkTaskRequest;
+import com.davymbaimbai.dto.BulkTaskResult;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskBatchEventDto;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.ActivityType;
+import com.davymbaimbai.enums.BulkOperationType;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.Role;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.repository.TaskActivityRepository;
+import com.davymbaimbai.repository.TaskCommentRepository;
+import com.davymbaimbai.repository.TaskRepository;
+import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.service.impl.ActivityWritePipeline;
+import com.davymbaimbai.service.impl.EntityChangeLog;
+import com.davymbaimbai.service.impl.TaskBulkServiceImpl;
+import com.davymbaimbai.service.impl.TaskCounterStore;
+import com.davymbaimbai.service.impl.TaskFacetIndex;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import com.davymbaimbai.service.impl.TaskSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskCommentRepository taskCommentRepository;
+
+    @Mock
+    private TaskActivityRepository taskActivityRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ActivityWritePipeline activityWritePipeline;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TaskCounterStore taskCounterStore;
+
+    @Mock
+    private TaskFacetIndex taskFacetIndex;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private EntityChangeLog entityChangeLog;
+
+    @Mock
+    private TaskRecipientIndex taskRecipientIndex;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private TaskBulkServiceImpl taskBulkService;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = new User();
+        admin.setId(1L);
+        admin.setUsername("admin");
+        admin.setRole(Role.ADMIN);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executeBulk_MixedOperations_ReportsPerItemResultsAndNotifiesOnce() {
+        Task todo = task(10L, TaskStatus.TODO);
+        Task done = task(11L, TaskStatus.DONE);
+        Task obsolete = task(12L, TaskStatus.TODO);
+        when(userService.getCurrentLoggedInUser()).thenReturn(admin);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(todo, done, obsolete));
+        when(taskRecipientIndex.recipients(any(Task.class))).thenAnswer(invocation ->
+                invocation.getArgument(0) == obsolete ? Set.of(5L) : Set.of());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setOperations(List.of(
+                operation(BulkOperationType.CREATE, null, "New task", TaskStatus.TODO),
+                operation(BulkOperationType.UPDATE, 10L, null, TaskStatus.IN_PROGRESS),
+                operation(BulkOperationType.UPDATE, 11L, null, TaskStatus.TODO),
+                operation(BulkOperationType.DELETE, 12L, null, null),
+                operation(BulkOperationType.DELETE, 99L, null, null)));
+
+        Response<List<BulkTaskResult>> response = taskBulkService.executeBulk(request);
+
+        List<BulkTaskResult> results = response.getData();
+        assertEquals("3 of 5 operations succeeded", response.getMessage());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(100L, results.get(0).getTaskId());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(TaskStatus.IN_PROGRESS, todo.getStatus());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Invalid status transition from DONE to TODO", results.get(2).getError());
+        assertTrue(results.get(3).isSuccess());
+        assertFalse(results.get(4).isSuccess());
+        assertEquals("Task not found", results.get(4).getError());
+
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(12L));
+        verify(entityChangeLog).bulkChanged(Task.class, Set.of(12L));
+        ArgumentCaptor<List<ActivityEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(activityWritePipeline).writeAll(events.capture());
+        assertEquals(List.of(ActivityType.CREATED, ActivityType.STATUS_CHANGED, ActivityType.PRIORITY_CHANGED,
+                        ActivityType.UPDATED),
+                events.getValue().stream().map(ActivityEvent::getActivityType).toList());
+        ArgumentCaptor<TaskBatchEventDto> batchEvent = ArgumentCaptor.forClass(TaskBatchEventDto.class);
+        ArgumentCaptor<Set<Long>> recipients = ArgumentCaptor.forClass(Set.class);
+        verify(webSocketService, times(1)).broadcastTaskBatch(batchEvent.capture(), recipients.capture());
+        assertEquals(List.of(100L), batchEvent.getValue().getCreatedTaskIds());
+        assertEquals(List.of(10L), batchEvent.getValue().getUpdatedTaskIds());
+        assertEquals(List.of(12L), batchEvent.getValue().getDeletedTaskIds());
+        // taken before the delete, which the index could not load the task after
+        assertTrue(recipients.getValue().contains(5L));
+    }
+
+    @Test
+    void executeBulk_DeleteOfTaskCreatedInSameRequest_IsRejected() {
+        when(userService.getCurrentLoggedInUser()).thenReturn(admin);
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setOperations(List.of(
+                operation(BulkOperationType.CREATE, null, "New task", TaskStatus.TODO),
+                operation(BulkOperationType.DELETE, 100L, null, null)));
+
+        List<BulkTaskResult> results = taskBulkService.executeBulk(request).getData();
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("A task created in this request cannot be deleted in it", results.get(1).getError());
+        verify(entityManager, never()).detach(any());
+        verify(taskRepository, never()).deleteAllByIdInBatch(any());
+        ArgumentCaptor<TaskBatchEventDto> batchEvent = ArgumentCaptor.forClass(TaskBatchEventDto.class);
+        verify(webSocketService).broadcastTaskBatch(batchEvent.capture(), any());
+        assertEquals(List.of(100L), batchEvent.getValue().getCreatedTaskIds());
+        assertTrue(batchEvent.getValue().getDeletedTaskIds().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executeBulk_Update_LogsTheSameActivitiesAsASingleUpdate() {
+        User alice = user(2L, "alice");
+        User bob = user(3L, "bob");
+        Task task = task(10L, TaskStatus.TODO);
+        task.setAssignee(alice);
+        when(userService.getCurrentLoggedInUser()).thenReturn(admin);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(task));
+        when(userRepository.findAllById(any())).thenReturn(List.of(bob));
+        when(taskRecipientIndex.recipients(any(Task.class))).thenAnswer(invocation ->
+                Set.of(invocation.<Task>getArgument(0).getAssignee().getId()));
+
+        BulkTaskOperation reassign = operation(BulkOperationType.UPDATE, 10L, "Renamed", null);
+        reassign.setAssigneeId(3L);
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setOperations(List.of(reassign));
+
+        taskBulkService.executeBulk(request);
+
+        ArgumentCaptor<List<ActivityEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(activityWritePipeline).writeAll(captor.capture());
+        List<ActivityEvent> events = captor.getValue();
+        assertEquals(List.of(ActivityType.PRIORITY_CHANGED, ActivityType.UNASSIGNED, ActivityType.ASSIGNED,
+                        ActivityType.UPDATED),
+                events.stream().map(ActivityEvent::getActivityType).toList());
+        assertEquals("MEDIUM", events.get(0).getOldValue());
+        assertEquals("HIGH", events.get(0).getNewValue());
+        assertEquals("alice", events.get(1).getOldValue());
+        assertEquals("bob", events.get(2).getNewValue());
+        ArgumentCaptor<Set<Long>> recipients = ArgumentCaptor.forClass(Set.class);
+        verify(webSocketService).broadcastTaskBatch(any(), recipients.capture());
+        assertEquals(Set.of(2L, 3L), recipients.getValue());
+    }
+
+    @Test
+    void executeBulk_FieldsBreakingTheTaskRequestConstraints_AreRejected() {
+        when(userService.getCurrentLoggedInUser()).thenReturn(admin);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(task(10L, TaskStatus.TODO)));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+
+        BulkTaskOperation longDescription = operation(BulkOperationType.UPDATE, 10L, null, null);
+        longDescription.setDescription("d".repeat(501));
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setOperations(List.of(
+                operation(BulkOperationType.CREATE, null, "t".repeat(201), TaskStatus.TODO),
+                operation(BulkOperationType.UPDATE, 10L, " ", null),
+                longDescription,
+                operation(BulkOperationType.CREATE, null, "t".repeat(200), TaskStatus.TODO)));
+
+        List<BulkTaskResult> results = taskBulkService.executeBulk(request).getData();
+
+        assertEquals("Title must be less than 200 characters", results.get(0).getError());
+        assertEquals("Title cannot be empty", results.get(1).getError());
+        assertEquals("Description must be less than 500 characters", results.get(2).getError());
+        assertTrue(results.get(3).isSuccess());
+    }
+
+    @Test
+    void executeBulk_NoOperations_ThrowsBadRequest() {
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setOperations(List.of());
+
+        assertThrows(BadRequestException.class, () -> taskBulkService.executeBulk(request));
+        verifyNoInteractions(taskRepository, webSocketService);
+    }
+
+    private User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Task task(Long id, TaskStatus status) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(status)
+                .priority(Priority.MEDIUM)
+                .creator(admin)
+                .user(admin)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private BulkTaskOperation operation(BulkOperationType type, Long id, String title, TaskStatus status) {
+        BulkTaskOperation operation = new BulkTaskOperation();
+        operation.setOperation(type);
+        operation.setId(id);
+        operation.setTitle(title);
+        operation.setStatus(status);
+        operation.setPriority(Priority.HIGH);
+        return operation;
+    }
+}
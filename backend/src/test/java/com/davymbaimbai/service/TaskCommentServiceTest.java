@@ -0,0 +1,104 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.dto.CommentCursor;
+import com.davymbaimbai.dto.CommentPage;
+import com.davymbaimbai.dto.CommentResponse;
+import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.exceptions.NotFoundException;
+import com.davymbaimbai.repository.TaskCommentRepository;
+import com.davymbaimbai.repository.TaskRepository;
+import com.davymbaimbai.service.impl.TaskCommentCounts;
+import com.davymbaimbai.service.impl.TaskCommentServiceImpl;
+import com.davymbaimbai.service.impl.TaskSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCommentServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private TaskCommentRepository commentRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private TaskActivityService taskActivityService;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskCommentCounts taskCommentCounts;
+
+    @InjectMocks
+    private TaskCommentServiceImpl taskCommentService;
+
+    @Test
+    void getTaskCommentsPage_FullPage_ReturnsCursorToTheLastItemAndCachedCount() {
+        when(commentRepository.findResponsePage(1L, Limit.of(3)))
+                .thenReturn(List.of(comment(10L, 0), comment(11L, 1), comment(12L, 2)));
+        when(taskCommentCounts.count(1L)).thenReturn(5000L);
+
+        Response<CommentPage> response = taskCommentService.getTaskCommentsPage(1L, null, 2);
+
+        CommentPage page = response.getData();
+        assertEquals(List.of(10L, 11L), page.getItems().stream().map(CommentResponse::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(5000L, page.getTotalCount());
+        CommentCursor next = CommentCursor.decode(page.getNextCursor());
+        assertEquals(11L, next.getId());
+        assertEquals(NOW.plusSeconds(1), next.getCreatedAt());
+        verify(taskRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getTaskCommentsPage_AfterCursor_ContinuesFromIt() {
+        String after = new CommentCursor(NOW.plusSeconds(1), 11L).encode();
+        when(commentRepository.findResponsePageAfter(1L, NOW.plusSeconds(1), 11L, Limit.of(51)))
+                .thenReturn(List.of(comment(12L, 2)));
+
+        CommentPage page = taskCommentService.getTaskCommentsPage(1L, after, null).getData();
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTaskCommentsPage_UnknownTask_ThrowsNotFound() {
+        when(commentRepository.findResponsePage(eq(99L), any())).thenReturn(List.of());
+        when(taskRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> taskCommentService.getTaskCommentsPage(99L, null, null));
+    }
+
+    @Test
+    void getTaskCommentsPage_MalformedCursor_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> taskCommentService.getTaskCommentsPage(1L, "not a cursor", null));
+    }
+
+    private static CommentResponse comment(long id, int secondsAfterNow) {
+        return new CommentResponse(id, "comment " + id, "john_doe", NOW.plusSeconds(secondsAfterNow), null);
+    }
+}
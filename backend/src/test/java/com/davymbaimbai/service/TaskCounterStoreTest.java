@@ -0,0 +1,130 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.dto.TaskSummary;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.TaskCounter;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.CounterScope;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.repository.TaskCounterRepository;
+import com.davymbaimbai.service.impl.TaskCounterStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCounterStoreTest {
+
+    @Mock
+    private TaskCounterRepository taskCounterRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TaskCounterStore taskCounterStore;
+
+    @Test
+    void taskChanged_StatusMove_DecrementsOldAndIncrementsNewCounter() {
+        Task task = task(TaskStatus.TODO);
+        TaskCounterStore.Snapshot before = TaskCounterStore.snapshot(task);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+
+        taskCounterStore.taskChanged(before, task);
+
+        verify(jdbcTemplate).update(startsWith("MERGE INTO task_counters"), eq("OWNER"), eq(1L), eq("TODO"), eq("HIGH"), eq(-1L));
+        verify(jdbcTemplate).update(startsWith("MERGE INTO task_counters"), eq("OWNER"), eq(1L), eq("IN_PROGRESS"), eq("HIGH"), eq(1L));
+        verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void taskChanged_NothingCountedChanged_WritesNothing() {
+        Task task = task(TaskStatus.TODO);
+        TaskCounterStore.Snapshot before = TaskCounterStore.snapshot(task);
+        task.setTitle("Renamed");
+
+        taskCounterStore.taskChanged(before, task);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void summarize_AddsUpCountersPerStatusAndPriority() {
+        when(taskCounterRepository.findByScopeAndUserId(CounterScope.OWNER, 1L)).thenReturn(List.of(
+                counter(CounterScope.OWNER, TaskStatus.TODO, Priority.HIGH, 3),
+                counter(CounterScope.OWNER, TaskStatus.DONE, Priority.HIGH, 2),
+                counter(CounterScope.OWNER, TaskStatus.DONE, Priority.LOW, 1)));
+        when(taskCounterRepository.findByScopeAndUserId(CounterScope.ASSIGNEE, 1L)).thenReturn(List.of(
+                counter(CounterScope.ASSIGNEE, TaskStatus.IN_PROGRESS, Priority.MEDIUM, 4)));
+
+        TaskSummary summary = taskCounterStore.summarize(1L);
+
+        assertEquals(6, summary.getTotal());
+        assertEquals(3L, summary.getByStatus().get(TaskStatus.DONE));
+        assertEquals(0L, summary.getByStatus().get(TaskStatus.IN_PROGRESS));
+        assertEquals(5L, summary.getByPriority().get(Priority.HIGH));
+        assertEquals(1L, summary.getByStatusAndPriority().get(TaskStatus.DONE).get(Priority.LOW));
+        assertEquals(4, summary.getAssignedTotal());
+        assertEquals(4L, summary.getAssignedByStatus().get(TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcile_LocksTheCountersBeforeCountingTasks() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.queryForList(contains("user_id AS user_id"))).thenReturn(List.of(
+                Map.of("user_id", 1L, "status", "TODO", "priority", "HIGH", "task_count", 2L)));
+
+        assertEquals(1, taskCounterStore.reconcile());
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).query(endsWith("FOR UPDATE"), any(RowCallbackHandler.class));
+        inOrder.verify(jdbcTemplate, times(2)).queryForList(startsWith("SELECT"));
+        inOrder.verify(jdbcTemplate).update(startsWith("MERGE INTO task_counters"),
+                eq("OWNER"), eq(1L), eq("TODO"), eq("HIGH"), eq(2L));
+    }
+
+    private Task task(TaskStatus status) {
+        User owner = new User();
+        owner.setId(1L);
+        return Task.builder()
+                .id(10L)
+                .title("Counted task")
+                .status(status)
+                .priority(Priority.HIGH)
+                .user(owner)
+                .creator(owner)
+                .build();
+    }
+
+    private TaskCounter counter(CounterScope scope, TaskStatus status, Priority priority, long count) {
+        return TaskCounter.builder()
+                .scope(scope)
+                .userId(1L)
+                .status(status)
+                .priority(priority)
+                .taskCount(count)
+                .build();
+    }
+}
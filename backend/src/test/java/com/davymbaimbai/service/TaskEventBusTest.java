@@ -0,0 +1,176 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.TaskEventFilter;
+import com.davymbaimbai.config.WebSocketBusProperties;
+import com.davymbaimbai.dto.TaskActivityDto;
+import com.davymbaimbai.dto.TaskSnapshotDto;
+import com.davymbaimbai.service.impl.TaskEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventBusTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private WebSocketBusProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebSocketBusProperties();
+        // long enough that only stop() flushes
+        properties.setWindowMs(10_000);
+    }
+
+    @Test
+    void publish_BurstForOneTask_SendsOneMergedFramePerTopic() throws Exception {
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", event(1L, "STATUS_CHANGED", "TODO", "IN_PROGRESS"));
+        bus.publish("/topic/tasks", event(1L, "STATUS_CHANGED", "IN_PROGRESS", "DONE"));
+        bus.publish("/topic/tasks", event(1L, "STATUS_CHANGED", "DONE", "DONE"));
+        bus.publish("/topic/tasks", event(2L, "TASK_CREATED", null, null));
+        bus.publish("/topic/tasks/1/activities", event(1L, "UPDATED", null, null));
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(3, bus.getQueueDepth());
+
+        bus.stop();
+
+        ArgumentCaptor<TaskActivityDto> frames = ArgumentCaptor.forClass(TaskActivityDto.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/tasks"), frames.capture());
+        verify(messagingTemplate).convertAndSend(eq("/topic/tasks/1/activities"), any(Object.class));
+        TaskActivityDto merged = frames.getAllValues().get(0);
+        assertEquals(1L, merged.getTaskId());
+        assertEquals("STATUS_CHANGED", merged.getAction());
+        assertEquals("TODO", merged.getOldStatus());
+        assertEquals("DONE", merged.getNewStatus());
+        assertEquals(3, merged.getMergedEvents());
+        assertNull(frames.getAllValues().get(1).getMergedEvents());
+        assertEquals(2, bus.getCoalescedCount());
+        assertEquals(3, bus.getSentCount());
+    }
+
+    @Test
+    void publish_PendingLimitReached_DropsNewFramesButStillMerges() throws Exception {
+        properties.setMaxPendingFrames(1);
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+        bus.publish("/topic/tasks", event(2L, "UPDATED", null, null));
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+        bus.stop();
+
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/tasks"), frames.capture());
+        assertEquals(2, ((TaskActivityDto) frames.getAllValues().get(0)).getMergedEvents());
+        assertEquals("RESYNC", ((TaskSnapshotDto) frames.getAllValues().get(1)).getAction());
+        assertEquals(1, bus.getDroppedCount());
+        assertEquals(1, bus.getCoalescedCount());
+        assertEquals(1, bus.getResyncCount());
+    }
+
+    @Test
+    void publish_CreationOrCommentInABurst_IsNotMergedAway() throws Exception {
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+        bus.publish("/topic/tasks", event(1L, "COMMENT_ADDED", null, null));
+        bus.publish("/topic/tasks", event(1L, "COMMENT_ADDED", null, null));
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+        bus.stop();
+
+        ArgumentCaptor<TaskActivityDto> frames = ArgumentCaptor.forClass(TaskActivityDto.class);
+        verify(messagingTemplate, times(4)).convertAndSend(eq("/topic/tasks"), frames.capture());
+        assertEquals("UPDATED", frames.getAllValues().get(0).getAction());
+        assertEquals("COMMENT_ADDED", frames.getAllValues().get(1).getAction());
+        assertEquals("COMMENT_ADDED", frames.getAllValues().get(2).getAction());
+        // updates after the comments are merged behind them, not into the frame before them
+        assertEquals("UPDATED", frames.getAllValues().get(3).getAction());
+        assertEquals(2, frames.getAllValues().get(3).getMergedEvents());
+        assertEquals(1, bus.getCoalescedCount());
+    }
+
+    @Test
+    void publish_DifferentUpdateActions_AreSentAsSeparateFrames() throws Exception {
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", event(1L, "STATUS_CHANGED", "TODO", "IN_PROGRESS"));
+        bus.publish("/topic/tasks", event(1L, "PRIORITY_CHANGED", "LOW", "HIGH"));
+        bus.publish("/topic/tasks", event(1L, "STATUS_CHANGED", "IN_PROGRESS", "DONE"));
+        bus.stop();
+
+        ArgumentCaptor<TaskActivityDto> frames = ArgumentCaptor.forClass(TaskActivityDto.class);
+        verify(messagingTemplate, times(3)).convertAndSend(eq("/topic/tasks"), frames.capture());
+        TaskActivityDto priority = frames.getAllValues().get(1);
+        assertEquals("PRIORITY_CHANGED", priority.getAction());
+        assertEquals("LOW", priority.getOldStatus());
+        assertEquals("HIGH", priority.getNewStatus());
+        // not merged into the first frame, which would send it ahead of the priority change
+        assertEquals("IN_PROGRESS", frames.getAllValues().get(2).getOldStatus());
+        assertEquals(0, bus.getCoalescedCount());
+    }
+
+    @Test
+    void publish_Disabled_SendsOnCallerThread() {
+        properties.setEnabled(false);
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", event(1L, "UPDATED", null, null));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/tasks"), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_EventWithTaskState_SendsItsFilterAttributesWithTheFrame() throws Exception {
+        TaskEventBus bus = new TaskEventBus(properties, messagingTemplate);
+        bus.start();
+
+        bus.publish("/topic/tasks", TaskActivityDto.builder()
+                .taskId(1L).action("TASK_UPDATED").status("IN_PROGRESS").priority("HIGH").assigneeId(7L).build());
+        // unassigned and reprioritised in the same window
+        bus.publish("/topic/tasks", TaskActivityDto.builder()
+                .taskId(1L).action("TASK_UPDATED").status("IN_PROGRESS").priority("LOW").build());
+        // an event without the task's state leaves it as it was
+        bus.publish("/topic/tasks", TaskActivityDto.builder().taskId(1L).action("TASK_UPDATED").build());
+        bus.stop();
+
+        ArgumentCaptor<TaskActivityDto> frame = ArgumentCaptor.forClass(TaskActivityDto.class);
+        ArgumentCaptor<Map<String, Object>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/tasks"), frame.capture(), headers.capture());
+        assertEquals("LOW", frame.getValue().getPriority());
+        assertNull(frame.getValue().getAssigneeId());
+        assertNotNull(headers.getValue().get(TaskEventFilter.ATTRIBUTES_HEADER));
+    }
+
+    private TaskActivityDto event(Long taskId, String action, String oldStatus, String newStatus) {
+        return TaskActivityDto.builder()
+                .taskId(taskId)
+                .action(action)
+                .username("admin")
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.FacetIndexProperties;
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.enums.Priority;
+import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.service.impl.TaskFacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskFacetIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final FacetIndexProperties properties = new FacetIndexProperties();
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    private TaskFacetIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new TaskFacetIndex(properties, jdbcTemplate);
+        rows.add(new Object[]{1L, "TODO", "HIGH", 1L, 1L, 2L});
+        rows.add(new Object[]{2L, "TODO", "LOW", 1L, 1L, null});
+        rows.add(new Object[]{3L, "DONE", "HIGH", 2L, 2L, 1L});
+        rows.add(new Object[]{4L, "IN_PROGRESS", "HIGH", 1L, 1L, 2L});
+        ResultSet rs = mock(ResultSet.class);
+        int[] current = new int[1];
+        lenient().when(rs.getLong("id")).thenAnswer(call -> rows.get(current[0])[0]);
+        lenient().when(rs.getString("status")).thenAnswer(call -> rows.get(current[0])[1]);
+        lenient().when(rs.getString("priority")).thenAnswer(call -> rows.get(current[0])[2]);
+        lenient().when(rs.getObject("user_id", Long.class)).thenAnswer(call -> rows.get(current[0])[3]);
+        lenient().when(rs.getObject("creator_id", Long.class)).thenAnswer(call -> rows.get(current[0])[4]);
+        lenient().when(rs.getObject("assignee_id", Long.class)).thenAnswer(call -> rows.get(current[0])[5]);
+        lenient().doAnswer(call -> {
+            RowCallbackHandler handler = call.getArgument(1);
+            for (current[0] = 0; current[0] < rows.size(); current[0]++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void search_IntersectsFacetsAndCountsTheMatch() {
+        index.rebuild();
+
+        TaskFacetIndex.Match match = index.search(TaskFacetIndex.Query.builder()
+                .priority(Priority.HIGH)
+                .ownerId(1L)
+                .build(), null, 10);
+
+        assertTrue(match.isIndexed());
+        assertEquals(2, match.getTotal());
+        assertEquals(List.of(4L, 1L), match.getPageIds());
+        assertEquals(1L, match.getFacets().getByStatus().get(TaskStatus.TODO));
+        assertEquals(0L, match.getFacets().getByStatus().get(TaskStatus.DONE));
+        assertEquals(2L, match.getFacets().getByAssignee().get(2L));
+        assertEquals(0, match.getFacets().getUnassigned());
+    }
+
+    @Test
+    void search_PagesNewestFirstBelowBefore() {
+        index.rebuild();
+        TaskFacetIndex.Query everything = TaskFacetIndex.Query.builder().build();
+
+        TaskFacetIndex.Match first = index.search(everything, null, 3);
+        TaskFacetIndex.Match second = index.search(everything, first.getNextBefore(), 3);
+
+        assertEquals(List.of(4L, 3L, 2L), first.getPageIds());
+        assertEquals(2L, first.getNextBefore());
+        assertEquals(List.of(1L), second.getPageIds());
+        assertNull(second.getNextBefore());
+        assertEquals(4, second.getTotal());
+    }
+
+    @Test
+    void taskSaved_MovesTaskBetweenFacetsAndDeleteRemovesIt() {
+        index.rebuild();
+        Task task = Task.builder()
+                .id(2L)
+                .status(TaskStatus.DONE)
+                .priority(Priority.LOW)
+                .user(user(1L))
+                .creator(user(1L))
+                .assignee(user(2L))
+                .build();
+
+        index.taskSaved(task);
+        index.taskDeleted(3L);
+
+        TaskFacetIndex.Match done = index.search(TaskFacetIndex.Query.builder().status(TaskStatus.DONE).build(), null, 10);
+        assertEquals(List.of(2L), done.getPageIds());
+        TaskFacetIndex.Match all = index.search(TaskFacetIndex.Query.builder().build(), null, 10);
+        assertEquals(3, all.getTotal());
+        assertEquals(0, all.getFacets().getUnassigned());
+        assertNull(all.getFacets().getByOwner().get(2L));
+        assertEquals(1L, all.getFacets().getByStatus().get(TaskStatus.TODO));
+    }
+
+    @Test
+    void tasksChanged_ReloadsTheGivenTasksOnly() {
+        index.rebuild();
+        rows.set(1, new Object[]{2L, "DONE", "LOW", 1L, 1L, 2L});
+        rows.set(0, new Object[]{1L, "DONE", "HIGH", 1L, 1L, 2L});
+        rows.remove(2);
+
+        index.tasksChanged(List.of(2L, 3L));
+
+        TaskFacetIndex.Match done = index.search(TaskFacetIndex.Query.builder().status(TaskStatus.DONE).build(), null, 10);
+        assertEquals(List.of(2L), done.getPageIds());
+        assertEquals(3, index.search(TaskFacetIndex.Query.builder().build(), null, 10).getTotal());
+    }
+
+    @Test
+    void search_UnknownUser_MatchesNothing() {
+        index.rebuild();
+
+        TaskFacetIndex.Match match = index.search(TaskFacetIndex.Query.builder().assigneeId(99L).build(), null, 10);
+
+        assertEquals(0, match.getTotal());
+        assertTrue(match.getPageIds().isEmpty());
+    }
+
+    @Test
+    void search_BeforeBuild_AnswersFromTheDatabase() {
+        TaskFacetIndex.Match match = index.search(TaskFacetIndex.Query.builder().build(), null, 10);
+
+        assertFalse(match.isIndexed());
+        assertEquals(4, match.getTotal());
+        verify(jdbcTemplate).query(eq("SELECT id, status, priority, user_id, creator_id, assignee_id FROM tasks"),
+                any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void rebuild_Disabled_LeavesIndexEmpty() {
+        properties.setEnabled(false);
+
+        index.rebuild();
+
+        assertFalse(index.isReady());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
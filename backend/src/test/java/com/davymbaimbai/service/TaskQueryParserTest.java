@@ -0,0 +1,48 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.service.impl.TaskQuery;
+import com.davymbaimbai.service.impl.TaskQueryParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryParserTest {
+
+    @Test
+    void parse_FullQuery_BuildsConditionsAndOrder() {
+        TaskQuery query = TaskQueryParser.parse(
+                "status:TODO,IN_PROGRESS priority:HIGH assignee:alice created>2026-01-01 sort:-updatedAt,title");
+
+        assertEquals(List.of(
+                new TaskQuery.Condition(TaskQuery.Field.STATUS, TaskQuery.Operator.IN, List.of("TODO", "IN_PROGRESS")),
+                new TaskQuery.Condition(TaskQuery.Field.PRIORITY, TaskQuery.Operator.IN, List.of("HIGH")),
+                new TaskQuery.Condition(TaskQuery.Field.ASSIGNEE, TaskQuery.Operator.IN, List.of("alice")),
+                new TaskQuery.Condition(TaskQuery.Field.CREATED, TaskQuery.Operator.GT, List.of("2026-01-01"))),
+                query.getConditions());
+        assertEquals(List.of(
+                new TaskQuery.Order(TaskQuery.SortKey.UPDATED_AT, true),
+                new TaskQuery.Order(TaskQuery.SortKey.TITLE, false)),
+                query.getOrders());
+    }
+
+    @Test
+    void parse_Blank_MatchesEverything() {
+        TaskQuery query = TaskQueryParser.parse("  ");
+
+        assertTrue(query.getConditions().isEmpty());
+        assertTrue(query.getOrders().isEmpty());
+    }
+
+    @Test
+    void parse_InvalidTerms_AreRejected() {
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("colour:red"));
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("status>TODO"));
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("created>2026-01-01,2026-02-01"));
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("sort:-priority"));
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("urgent"));
+        assertThrows(BadRequestException.class, () -> TaskQueryParser.parse("status:TODO,"));
+    }
+}
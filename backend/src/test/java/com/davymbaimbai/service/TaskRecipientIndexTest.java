@@ -0,0 +1,72 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.entity.Task;
+import com.davymbaimbai.entity.User;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRecipientIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskRecipientIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:recipients-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, user_id BIGINT, creator_id BIGINT, assignee_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE task_watchers (task_id BIGINT, user_id BIGINT, PRIMARY KEY (task_id, user_id))");
+        jdbcTemplate.update("INSERT INTO tasks VALUES (1, 10, 10, 20)");
+        jdbcTemplate.update("INSERT INTO task_watchers (task_id, user_id) VALUES (1, 30)");
+        index = new TaskRecipientIndex(jdbcTemplate, 300, 100);
+    }
+
+    @Test
+    void recipients_OwnerCreatorAssigneeAndWatchersOnce() {
+        assertEquals(Set.of(10L, 20L, 30L), index.recipients(1L));
+        assertEquals(Set.of(), index.recipients(99L));
+    }
+
+    @Test
+    void taskSaved_ReplacesTheTaskColumnsAndKeepsWatchers() {
+        index.recipients(1L);
+        Task reassigned = task(1L, 10L, 40L);
+        // the previous assignee still hears about the change that unassigned them
+        assertEquals(Set.of(10L, 20L, 30L, 40L), index.recipients(reassigned));
+
+        index.taskSaved(reassigned);
+
+        assertEquals(Set.of(10L, 30L, 40L), index.recipients(1L));
+    }
+
+    @Test
+    void addWatcher_IsSeenByTheNextEventAndOnlyAddedOnce() {
+        index.recipients(1L);
+
+        assertTrue(index.addWatcher(1L, 50L));
+        assertFalse(index.addWatcher(1L, 50L));
+        assertEquals(Set.of(10L, 20L, 30L, 50L), index.recipients(1L));
+
+        assertTrue(index.removeWatcher(1L, 30L));
+        assertFalse(index.removeWatcher(1L, 30L));
+        assertEquals(Set.of(10L, 20L, 50L), index.recipients(1L));
+    }
+
+    private static Task task(Long id, Long ownerId, Long assigneeId) {
+        User owner = User.builder().id(ownerId).build();
+        return Task.builder()
+                .id(id)
+                .user(owner)
+                .creator(owner)
+                .assignee(User.builder().id(assigneeId).build())
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.SearchIndexProperties;
+import com.davymbaimbai.service.impl.TaskSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    @TempDir
+    Path indexDirectory;
+
+    private final SearchIndexProperties properties = new SearchIndexProperties();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:search-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(1000), " +
+                "user_id BIGINT, creator_id BIGINT, assignee_id BIGINT, updated_at TIMESTAMP(6))");
+        jdbcTemplate.execute("CREATE TABLE task_comments (id BIGINT PRIMARY KEY, task_id BIGINT, comment VARCHAR(1000), " +
+                "updated_at TIMESTAMP(6))");
+        insertTask(1, "Fix login redirect", "Users land on a blank page after login", 1L);
+        insertTask(2, "Write release notes", "Summarise the login changes for the release", 2L);
+        insertTask(3, "Database migration", "Move the schema to versioned migrations", 1L);
+        jdbcTemplate.update("INSERT INTO task_comments VALUES (1, 3, 'Blocked on the staging environment', CURRENT_TIMESTAMP)");
+        properties.setDirectory(indexDirectory.toString());
+        properties.setRefreshIntervalMs(60_000);
+        index = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveDescriptionMatches() throws Exception {
+        List<TaskSearchIndex.Hit> hits = index.search("login ", null, 10);
+
+        assertEquals(List.of(1L, 2L), hits.stream().map(TaskSearchIndex.Hit::getTaskId).toList());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_LastWordMatchesAsPrefixAndCommentsAreSearched() throws Exception {
+        assertEquals(List.of(3L), ids(index.search("migr", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("staging env", null, 10)));
+        assertTrue(index.search("migr ", null, 10).isEmpty());
+    }
+
+    @Test
+    void search_VisibleTo_OnlyReturnsTheUsersTasks() throws Exception {
+        assertEquals(List.of(2L), ids(index.search("release", 2L, 10)));
+        assertTrue(index.search("release", 1L, 10).isEmpty());
+    }
+
+    @Test
+    void taskChanged_ReindexesAndDropsDeletedTasks() throws Exception {
+        jdbcTemplate.update("UPDATE tasks SET title = 'Fix signup redirect' WHERE id = 1");
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = 2");
+
+        index.taskChanged(1L);
+        index.taskChanged(2L);
+        index.flush();
+
+        assertEquals(List.of(1L), ids(index.search("signup", null, 10)));
+        assertTrue(index.search("release", null, 10).isEmpty());
+    }
+
+    @Test
+    void reopen_ReusesSegmentsAndReconcileCatchesUp() throws Exception {
+        index.close();
+        jdbcTemplate.update("UPDATE tasks SET description = 'Also covers rollback', updated_at = DATEADD('SECOND', 5, updated_at) WHERE id = 3");
+
+        index = new TaskSearchIndex(properties, jdbcTemplate);
+        index.open();
+        assertEquals(3, index.getDocumentCount());
+        assertTrue(index.search("rollback", null, 10).isEmpty());
+
+        index.reconcile();
+        index.flush();
+
+        assertEquals(List.of(3L), ids(index.search("rollback", null, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("login", null, 10)));
+    }
+
+    private TaskSearchIndex open() throws Exception {
+        TaskSearchIndex opened = new TaskSearchIndex(properties, jdbcTemplate);
+        opened.open();
+        opened.reconcile();
+        opened.flush();
+        return opened;
+    }
+
+    private void insertTask(long id, String title, String description, Long ownerId) {
+        jdbcTemplate.update("INSERT INTO tasks VALUES (?, ?, ?, ?, ?, NULL, CURRENT_TIMESTAMP)",
+                id, title, description, ownerId, ownerId);
+    }
+
+    private static List<Long> ids(List<TaskSearchIndex.Hit> hits) {
+        return hits.stream().map(TaskSearchIndex.Hit::getTaskId).toList();
+    }
+}
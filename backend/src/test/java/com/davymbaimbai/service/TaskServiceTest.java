@@ -1,14 +1,22 @@
 package com.davymbaimbai.service;
 
+import com.davymbaimbai.dto.CursorPage;
 import com.davymbaimbai.dto.Response;
+import com.davymbaimbai.dto.TaskCursor;
 import com.davymbaimbai.dto.TaskRequest;
+import com.davymbaimbai.dto.TaskView;
 import com.davymbaimbai.entity.Task;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.enums.Priority;
 import com.davymbaimbai.enums.Role;
 import com.davymbaimbai.enums.TaskStatus;
+import com.davymbaimbai.exceptions.BadRequestException;
 import com.davymbaimbai.repository.TaskRepository;
 import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.service.impl.TaskCounterStore;
+import com.davymbaimbai.service.impl.TaskFacetIndex;
+import com.davymbaimbai.service.impl.TaskRecipientIndex;
+import com.davymbaimbai.service.impl.TaskSearchIndex;
 import com.davymbaimbai.service.impl.TasksServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,15 +25,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +57,18 @@ class TaskServiceTest {
     @Mock
     private WebSocketService webSocketService;
 
+    @Mock
+    private TaskCounterStore taskCounterStore;
+
+    @Mock
+    private TaskFacetIndex taskFacetIndex;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskRecipientIndex taskRecipientIndex;
+
     @InjectMocks
     private TasksServiceImpl taskService;
 
@@ -94,7 +117,7 @@ class TaskServiceTest {
         when(userService.getCurrentLoggedInUser()).thenReturn(testUser);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
-        Response<Task> response = taskService.createTask(taskRequest);
+        Response<TaskView> response = taskService.createTask(taskRequest);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
@@ -110,7 +133,7 @@ class TaskServiceTest {
         when(userRepository.findById(2L)).thenReturn(Optional.of(assigneeUser));
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
-        Response<Task> response = taskService.createTask(taskRequest);
+        Response<TaskView> response = taskService.createTask(taskRequest);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
@@ -120,17 +143,19 @@ class TaskServiceTest {
 
     @Test
     void getAllMyTasks_Success() {
-        List<Task> tasks = Arrays.asList(testTask);
+        List<TaskView> tasks = Arrays.asList(TaskView.of(testTask));
         when(userService.getCurrentLoggedInUser()).thenReturn(testUser);
-        when(taskRepository.findByUser(eq(testUser), any(Sort.class))).thenReturn(tasks);
+        when(taskRepository.findViews(any(Specification.class), any(Sort.class))).thenReturn(tasks);
 
-        Response<List<Task>> response = taskService.getAllMyTasks();
+        Response<List<TaskView>> response = taskService.getAllMyTasks();
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
         assertEquals("Tasks retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
-        verify(taskRepository, times(1)).findByUser(eq(testUser), any(Sort.class));
+        assertEquals("testuser", response.getData().get(0).getUser().getUsername());
+        verify(taskRepository, times(1)).findViews(any(Specification.class), any(Sort.class));
+        verify(taskRepository, never()).findAll(any(Sort.class));
     }
 
     @Test
@@ -143,7 +168,7 @@ class TaskServiceTest {
         when(userService.getCurrentLoggedInUser()).thenReturn(testUser);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
-        Response<Task> response = taskService.updateTask(taskRequest);
+        Response<TaskView> response = taskService.updateTask(taskRequest);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
@@ -171,12 +196,12 @@ class TaskServiceTest {
 
     @Test
     void getTasksWithFilters_Success() {
-        List<Task> tasks = Arrays.asList(testTask);
+        List<TaskView> tasks = Arrays.asList(TaskView.of(testTask));
         when(userService.getCurrentLoggedInUser()).thenReturn(testUser);
         when(taskRepository.findTasksWithFilters(eq(TaskStatus.TODO), isNull(), eq(testUser), any(Sort.class)))
                 .thenReturn(tasks);
 
-        Response<List<Task>> response = taskService.getTasksWithFilters("TODO", null);
+        Response<List<TaskView>> response = taskService.getTasksWithFilters("TODO", null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
@@ -184,4 +209,61 @@ class TaskServiceTest {
         assertEquals(1, response.getData().size());
         verify(taskRepository, times(1)).findTasksWithFilters(eq(TaskStatus.TODO), isNull(), eq(testUser), any(Sort.class));
     }
+
+    @Test
+    void getAllTasksPage_ReturnsCursorWhenMoreRowsExist() {
+        Task olderTask = Task.builder()
+                .id(2L)
+                .title("Older Task")
+                .createdAt(testTask.getCreatedAt().minusDays(1))
+                .build();
+        when(taskRepository.findViews(any(Specification.class), any(Sort.class), eq(2)))
+                .thenReturn(Arrays.asList(TaskView.of(testTask), TaskView.of(olderTask)));
+
+        Response<CursorPage<TaskView>> response = taskService.getAllTasksPage(null, 1);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(1, response.getData().getItems().size());
+        assertTrue(response.getData().isHasMore());
+        TaskCursor cursor = TaskCursor.decode(response.getData().getNextCursor());
+        assertEquals(testTask.getId(), cursor.getId());
+        assertEquals(testTask.getCreatedAt(), cursor.getCreatedAt());
+    }
+
+    @Test
+    void getAllTasksPage_LastPageHasNoCursor() {
+        when(taskRepository.findViews(any(Specification.class), any(Sort.class), eq(11)))
+                .thenReturn(List.of(TaskView.of(testTask)));
+
+        Response<CursorPage<TaskView>> response = taskService.getAllTasksPage(TaskCursor.of(testTask).encode(), 10);
+
+        assertFalse(response.getData().isHasMore());
+        assertNull(response.getData().getNextCursor());
+    }
+
+    @Test
+    void watchTask_TaskTheUserCannotSee_IsRejected() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(userService.getCurrentLoggedInUser()).thenReturn(assigneeUser);
+        when(taskRecipientIndex.recipients(1L)).thenReturn(Set.of(testUser.getId()));
+
+        assertThrows(BadRequestException.class, () -> taskService.watchTask(1L));
+        verify(taskRecipientIndex, never()).addWatcher(anyLong(), anyLong());
+    }
+
+    @Test
+    void watchTask_AdminMayWatchAnyTask() {
+        User admin = User.builder().id(9L).username("admin").role(Role.ADMIN).build();
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(userService.getCurrentLoggedInUser()).thenReturn(admin);
+        when(taskRecipientIndex.addWatcher(1L, 9L)).thenReturn(true);
+
+        assertEquals("Watching task", taskService.watchTask(1L).getMessage());
+    }
+
+    @Test
+    void getAllTasksPage_InvalidCursor_ThrowsException() {
+        assertThrows(BadRequestException.class, () -> taskService.getAllTasksPage("not-a-cursor", 10));
+        verify(taskRepository, never()).findViews(any(Specification.class), any(Sort.class), anyInt());
+    }
 }
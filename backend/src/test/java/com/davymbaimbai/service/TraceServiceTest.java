@@ -0,0 +1,93 @@
+package com.davymbaimbai.service;
+
+import com.davymbaimbai.config.RequestTrace;
+import com.davymbaimbai.config.TraceProperties;
+import com.davymbaimbai.dto.RequestTraceView;
+import com.davymbaimbai.exceptions.BadRequestException;
+import com.davymbaimbai.service.impl.TraceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceServiceTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void getSlowestTraces_KeepsTheSlowestPerEndpoint() {
+        TraceServiceImpl traceService = new TraceServiceImpl(properties(1.0, 60_000));
+        for (int i = 0; i < 3; i++) {
+            traceService.recordTrace(trace(), "PUT", "/api/tasks/{id}", 200);
+        }
+        traceService.recordTrace(trace(), "GET", "/api/tasks/{id}", 200);
+
+        List<RequestTraceView> slowest = traceService.getSlowestTraces(null, 10, 2).getData();
+
+        assertEquals(3, slowest.size());
+        assertEquals(2, slowest.stream().filter(trace -> trace.getMethod().equals("PUT")).count());
+        for (int i = 1; i < slowest.size(); i++) {
+            assertTrue(slowest.get(i - 1).getDurationMs() >= slowest.get(i).getDurationMs());
+        }
+        RequestTraceView first = slowest.get(0);
+        assertEquals("john_doe", first.getUsername());
+        assertEquals(2, first.getSpans().size());
+        assertTrue(first.getBreakdownMs().containsKey(RequestTrace.DB));
+    }
+
+    @Test
+    void recordTrace_SlowRequestsAreKeptWhateverTheSampleRate() {
+        TraceServiceImpl sampledOut = new TraceServiceImpl(properties(0.0, 60_000));
+        sampledOut.recordTrace(trace(), "GET", "/api/tasks", 200);
+        assertTrue(sampledOut.getSlowestTraces(null, 10, 5).getData().isEmpty());
+
+        TraceServiceImpl slow = new TraceServiceImpl(properties(0.0, 0));
+        slow.recordTrace(trace(), "GET", "/api/tasks", 200);
+        assertEquals(1, slow.getSlowestTraces("/api/tasks", 10, 5).getData().size());
+        assertTrue(slow.getSlowestTraces("/api/users", 10, 5).getData().isEmpty());
+    }
+
+    @Test
+    void getSlowestTraces_WindowOutOfRange_Throws() {
+        TraceServiceImpl traceService = new TraceServiceImpl(properties(1.0, 500));
+
+        assertThrows(BadRequestException.class, () -> traceService.getSlowestTraces(null, 0, 5));
+        assertThrows(BadRequestException.class, () -> traceService.getSlowestTraces(null, 10, 101));
+    }
+
+    @Test
+    void toServerTiming_ListsTheCategoriesThatWereHit() {
+        RequestTrace trace = trace();
+
+        String header = trace.toServerTiming();
+
+        assertTrue(header.startsWith("db;dur="));
+        assertTrue(header.contains("desc=\"1 statements\""));
+        assertTrue(header.contains("service;dur="));
+        assertFalse(header.contains("auth"));
+        assertTrue(header.contains("total;dur="));
+    }
+
+    private static RequestTrace trace() {
+        RequestTrace trace = RequestTrace.begin(10);
+        trace.setUsername("john_doe");
+        long start = System.nanoTime();
+        trace.add(RequestTrace.DB, "select 1", start, 1_000_000);
+        trace.add(RequestTrace.SERVICE, "TaskService.updateTask", start, 2_000_000);
+        RequestTrace.end();
+        return trace;
+    }
+
+    private static TraceProperties properties(double sampleRate, long slowThresholdMs) {
+        TraceProperties properties = new TraceProperties();
+        properties.setSampleRate(sampleRate);
+        properties.setSlowThresholdMs(slowThresholdMs);
+        properties.setBufferSize(16);
+        return properties;
+    }
+}
@@ -3,11 +3,13 @@ package com.davymbaimbai.service;
 import com.davymbaimbai.dto.Response;
 import com.davymbaimbai.dto.UserRequest;
 import com.davymbaimbai.dto.LoginRequest;
+import com.davymbaimbai.dto.UserView;
 import com.davymbaimbai.entity.User;
 import com.davymbaimbai.enums.Role;
 import com.davymbaimbai.exceptions.BadRequestException;
 import com.davymbaimbai.exceptions.NotFoundException;
 import com.davymbaimbai.repository.UserRepository;
+import com.davymbaimbai.security.AuthUser;
 import com.davymbaimbai.security.JwtUtils;
 import com.davymbaimbai.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -160,6 +163,16 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByUsername("testuser");
     }
 
+    @Test
+    void getCurrentLoggedInUser_UsesAuthenticatedPrincipal() {
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(AuthUser.builder().user(testUser).build());
+        User currentUser = userService.getCurrentLoggedInUser();
+        assertSame(testUser, currentUser);
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
     @Test
     void getCurrentLoggedInUser_UserNotFound_ThrowsException() {
         SecurityContextHolder.setContext(securityContext);
@@ -173,13 +186,13 @@ class UserServiceTest {
 
     @Test
     void getAllUsers_Success() {
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findAll()).thenReturn(users);
-        Response<List<User>> response = userService.getAllUsers();
+        List<UserView> users = Arrays.asList(UserView.of(testUser));
+        when(userRepository.findAllViews(any(Sort.class))).thenReturn(users);
+        Response<List<UserView>> response = userService.getAllUsers();
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
         assertEquals("Users retrieved successfully", response.getMessage());
         assertEquals(1, response.getData().size());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllViews(any(Sort.class));
     }
 }
\ No newline at end of file
@@ -60,6 +60,10 @@ const TasksPage = () => {
             .then(() => {
                 console.log('WebSocket connected successfully');
                 WebSocketService.subscribeToTasks((taskUpdate) => {
+                    if (taskUpdate.action === 'SNAPSHOT' || taskUpdate.action === 'RESYNC') {
+                        fetchTasks();
+                        return;
+                    }
                     setTasks(prev => prev.map(task => 
                         task.id === taskUpdate.id ? { ...task, ...taskUpdate } : task
                     ));
@@ -7,6 +7,8 @@ class WebSocketService {
         this.client = null;
         this.connected = false;
         this.subscriptions = new Map();
+        // per subscription key: destination, handler, highest sequence and recently seen sequences
+        this.streams = new Map();
     }
 
     connect() {
@@ -37,6 +39,7 @@ class WebSocketService {
             this.client.onConnect = (frame) => {
                 console.log('Connected to WebSocket:', frame);
                 this.connected = true;
+                this.resubscribe();
                 resolve();
             };
 
@@ -65,48 +68,76 @@ class WebSocketService {
     disconnect() {
         if (this.client) {
             this.subscriptions.clear();
+            this.streams.clear();
             this.client.deactivate();
             this.connected = false;
         }
     }
 
     subscribeToTasks(callback) {
+        return this.subscribeTo('tasks', '/user/queue/tasks', callback, 'task activity');
+    }
+
+    subscribeToTaskComments(taskId, callback) {
+        return this.subscribeTo(`comments-${taskId}`, `/topic/tasks/${taskId}/comments`, callback, 'comment activity');
+    }
+
+    /**
+     * Subscribes and remembers the highest sequence received, so that after a reconnect the
+     * subscription is renewed with a since header and the server sends what was missed, or a
+     * SNAPSHOT / RESYNC frame when it can no longer replay it. Frames with a sequence that was
+     * already received are skipped, as the replay may overlap with live frames.
+     */
+    subscribeTo(key, destination, callback, label) {
         if (!this.connected) {
             console.error('WebSocket not connected');
             return null;
         }
+        const stream = { destination, label, callback, since: null, seen: new Set() };
+        this.streams.set(key, stream);
+        return this.open(key, stream);
+    }
 
-        const subscription = this.client.subscribe('/topic/tasks', (message) => {
+    open(key, stream) {
+        const headers = stream.since != null ? { since: String(stream.since) } : {};
+        const subscription = this.client.subscribe(stream.destination, (message) => {
             try {
-                const taskActivity = JSON.parse(message.body);
-                callback(taskActivity);
+                const payload = JSON.parse(message.body);
+                if (!this.track(stream, payload)) {
+                    return;
+                }
+                stream.callback(payload);
             } catch (error) {
-                console.error('Error parsing task activity:', error);
+                console.error(`Error parsing ${stream.label}:`, error);
             }
-        });
-
-        this.subscriptions.set('tasks', subscription);
+        }, headers);
+        this.subscriptions.set(key, subscription);
         return subscription;
     }
 
-    subscribeToTaskComments(taskId, callback) {
-        if (!this.connected) {
-            console.error('WebSocket not connected');
-            return null;
+    track(stream, payload) {
+        const sequence = payload && payload.sequence;
+        if (sequence == null) {
+            return true;
         }
+        if (payload.action === 'SNAPSHOT' || payload.action === 'RESYNC') {
+            stream.since = Math.max(stream.since ?? 0, sequence);
+            return true;
+        }
+        if (stream.seen.has(sequence)) {
+            return false;
+        }
+        stream.seen.add(sequence);
+        if (stream.seen.size > 500) {
+            stream.seen.delete(stream.seen.values().next().value);
+        }
+        stream.since = Math.max(stream.since ?? 0, sequence);
+        return true;
+    }
 
-        const topic = `/topic/tasks/${taskId}/comments`;
-        const subscription = this.client.subscribe(topic, (message) => {
-            try {
-                const commentActivity = JSON.parse(message.body);
-                callback(commentActivity);
-            } catch (error) {
-                console.error('Error parsing comment activity:', error);
-            }
-        });
-
-        this.subscriptions.set(`comments-${taskId}`, subscription);
-        return subscription;
+    resubscribe() {
+        // the client does not renew subscriptions itself after a reconnect
+        this.streams.forEach((stream, key) => this.open(key, stream));
     }
 
     unsubscribe(subscriptionKey) {
@@ -115,26 +146,11 @@ class WebSocketService {
             subscription.unsubscribe();
             this.subscriptions.delete(subscriptionKey);
         }
+        this.streams.delete(subscriptionKey);
     }
 
     subscribeToTaskActivities(taskId, callback) {
-        if (!this.connected) {
-            console.error('WebSocket not connected');
-            return null;
-        }
-
-        const topic = `/topic/tasks/${taskId}/activities`;
-        const subscription = this.client.subscribe(topic, (message) => {
-            try {
-                const activityUpdate = JSON.parse(message.body);
-                callback(activityUpdate);
-            } catch (error) {
-                console.error('Error parsing activity update:', error);
-            }
-        });
-
-        this.subscriptions.set(`activities-${taskId}`, subscription);
-        return subscription;
+        return this.subscribeTo(`activities-${taskId}`, `/topic/tasks/${taskId}/activities`, callback, 'activity update');
     }
 
     unsubscribeFromTaskComments(taskId) {